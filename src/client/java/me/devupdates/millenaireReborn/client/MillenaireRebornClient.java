@@ -1,6 +1,8 @@
 package me.devupdates.millenaireReborn.client;
 
 import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.client.network.ClientBuildingCache;
+import me.devupdates.millenaireReborn.client.network.ClientVillagerCache;
 import me.devupdates.millenaireReborn.common.network.MillNetworking;
 import net.fabricmc.api.ClientModInitializer;
 
@@ -12,6 +14,8 @@ public class MillenaireRebornClient implements ClientModInitializer {
         
         // Client-spezifische Network-Handler
         MillNetworking.registerClientPackets();
+        ClientBuildingCache.init();
+        ClientVillagerCache.init();
         
         // TODO: Item/Block Model-Registrierung wird hier später hinzugefügt
         
@@ -0,0 +1,81 @@
+package me.devupdates.millenaireReborn.client.network;
+
+import me.devupdates.millenaireReborn.common.network.BuildingAckPayload;
+import me.devupdates.millenaireReborn.common.network.BuildingSection;
+import me.devupdates.millenaireReborn.common.network.BuildingSyncPayload;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.nbt.NbtCompound;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-Seite der Gebäude-Synchronisation: setzt Deltas zum vollständigen Zustand zusammen und
+ * bestätigt die Version
+ *
+ * Passt ein Delta nicht zur eigenen Version (z.B. nach verlorenem Zustand), wird der vollständige
+ * Zustand neu angefordert.
+ */
+public final class ClientBuildingCache {
+    private static ClientBuildingCache instance;
+
+    private static final class Entry {
+        long version;
+        final Map<BuildingSection, NbtCompound> sections = new HashMap<>();
+    }
+
+    private final Map<String, Entry> buildings = new HashMap<>();
+
+    private ClientBuildingCache() {
+    }
+
+    public static ClientBuildingCache getInstance() {
+        if (instance == null) {
+            instance = new ClientBuildingCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert den Empfänger - aus MillenaireRebornClient
+     */
+    public static void init() {
+        ClientPlayNetworking.registerGlobalReceiver(BuildingSyncPayload.ID, (payload, context) -> getInstance().receive(payload));
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> getInstance().buildings.clear());
+    }
+
+    private void receive(BuildingSyncPayload payload) {
+        Entry entry = buildings.get(payload.buildingKey());
+        if (payload.isFull()) {
+            entry = new Entry();
+            buildings.put(payload.buildingKey(), entry);
+        } else if (entry == null || entry.version < payload.baseVersion()) {
+            ClientPlayNetworking.send(new BuildingAckPayload(payload.buildingKey(), BuildingAckPayload.RESYNC));
+            return;
+        }
+        for (BuildingSection section : BuildingSection.values()) {
+            if (payload.sections().contains(section.getKey())) {
+                entry.sections.put(section, payload.sections().getCompound(section.getKey()).orElseGet(NbtCompound::new));
+            }
+        }
+        entry.version = Math.max(entry.version, payload.version());
+        ClientPlayNetworking.send(new BuildingAckPayload(payload.buildingKey(), entry.version));
+    }
+
+    /**
+     * Zuletzt empfangener Stand eines Teils oder null
+     */
+    public NbtCompound getSection(String buildingKey, BuildingSection section) {
+        Entry entry = buildings.get(buildingKey);
+        return entry == null ? null : entry.sections.get(section);
+    }
+
+    public boolean hasBuilding(String buildingKey) {
+        return buildings.containsKey(buildingKey);
+    }
+
+    public void forget(String buildingKey) {
+        buildings.remove(buildingKey);
+    }
+}
@@ -0,0 +1,69 @@
+package me.devupdates.millenaireReborn.client.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.devupdates.millenaireReborn.common.network.VillagerField;
+import me.devupdates.millenaireReborn.common.network.VillagerSyncPayload;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.nbt.NbtCompound;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Client-Seite des VillagerSyncStream: Stand der Felder pro Dorfbewohner
+ */
+public final class ClientVillagerCache {
+    private static ClientVillagerCache instance;
+
+    private final Long2ObjectMap<Map<VillagerField, NbtCompound>> villagers = new Long2ObjectOpenHashMap<>();
+
+    private ClientVillagerCache() {
+    }
+
+    public static ClientVillagerCache getInstance() {
+        if (instance == null) {
+            instance = new ClientVillagerCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert den Empfänger - aus MillenaireRebornClient
+     */
+    public static void init() {
+        ClientPlayNetworking.registerGlobalReceiver(VillagerSyncPayload.ID, (payload, context) -> getInstance().receive(payload));
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> getInstance().villagers.clear());
+    }
+
+    private void receive(VillagerSyncPayload payload) {
+        for (long id : payload.removed()) {
+            villagers.remove(id);
+        }
+        for (String key : payload.villagers().getKeys()) {
+            long id;
+            try {
+                id = Long.parseLong(key);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            NbtCompound changed = payload.villagers().getCompound(key).orElseGet(NbtCompound::new);
+            Map<VillagerField, NbtCompound> fields = changed.getBoolean(VillagerSyncPayload.FULL_KEY, false)
+                ? new EnumMap<>(VillagerField.class)
+                : villagers.computeIfAbsent(id, k -> new EnumMap<>(VillagerField.class));
+            for (VillagerField field : VillagerField.values()) {
+                changed.getCompound(field.getKey()).ifPresent(value -> fields.put(field, value));
+            }
+            villagers.put(id, fields);
+        }
+    }
+
+    /**
+     * Zuletzt empfangener Stand eines Feldes oder null
+     */
+    public NbtCompound getField(long villagerId, VillagerField field) {
+        Map<VillagerField, NbtCompound> fields = villagers.get(villagerId);
+        return fields == null ? null : fields.get(field);
+    }
+}
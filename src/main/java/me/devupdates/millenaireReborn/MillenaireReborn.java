@@ -1,8 +1,14 @@
 package me.devupdates.millenaireReborn;
 
+import me.devupdates.millenaireReborn.common.command.MillCommands;
 import me.devupdates.millenaireReborn.common.config.MillConfig;
 import me.devupdates.millenaireReborn.common.network.MillNetworking;
+import me.devupdates.millenaireReborn.common.pathing.MillPathing;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
 import me.devupdates.millenaireReborn.common.registry.MillRegistry;
+import me.devupdates.millenaireReborn.common.util.BlockClassification;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.village.MillVillages;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +30,20 @@ public class MillenaireReborn implements ModInitializer {
         // Network-Handler
         MillNetworking.registerServerPackets();
         
+        // Gemeinsame Hintergrund-Pools und Block-Klassifizierung
+        MillExecutors.init();
+        BlockClassification.init();
+        
+        // Pathing (Snapshot-Caches, Worker)
+        MillPathing.init();
+        
+        // Dörfer (Tick-Scheduler)
+        MillVillages.init();
+        
+        // Profiler und Befehle
+        MillProfiler.init();
+        MillCommands.init();
+        
         LOGGER.info("Millénaire Reborn initialization complete!");
     }
 }
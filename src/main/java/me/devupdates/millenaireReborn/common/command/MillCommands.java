@@ -0,0 +1,76 @@
+package me.devupdates.millenaireReborn.common.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.pathing.PathRequestService;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.village.VillageGenerationPipeline;
+import me.devupdates.millenaireReborn.common.village.VillageTickScheduler;
+import me.devupdates.millenaireReborn.common.village.VillagerRegistry;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Server-Befehle der Mod (/mill ...)
+ */
+public class MillCommands {
+    private static final int TOP_ENTRIES = 5;
+
+    public static void init() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> register(dispatcher));
+    }
+
+    private static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(CommandManager.literal("mill")
+            .requires(source -> source.hasPermissionLevel(2))
+            .then(CommandManager.literal("profile")
+                .executes(context -> showProfile(context.getSource()))
+                .then(CommandManager.literal("reset")
+                    .executes(context -> resetProfile(context.getSource())))
+                .then(CommandManager.literal("dump")
+                    .executes(context -> dumpProfile(context.getSource())))));
+    }
+
+    private static int showProfile(ServerCommandSource source) {
+        for (String line : MillProfiler.describe(TOP_ENTRIES)) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        for (String line : VillageTickScheduler.getInstance().describe()) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        for (String line : PathRequestService.getInstance().getMetrics().describe()) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        for (String line : VillagerRegistry.getInstance().describe()) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        for (String line : VillageGenerationPipeline.getInstance().describe()) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int resetProfile(ServerCommandSource source) {
+        MillProfiler.reset();
+        source.sendFeedback(() -> Text.literal("Millénaire profile reset"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int dumpProfile(ServerCommandSource source) {
+        try {
+            Path file = MillProfiler.dump(source.getServer());
+            source.sendFeedback(() -> Text.literal("Millénaire profile written to " + file), true);
+            return Command.SINGLE_SUCCESS;
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Failed to write profile", e);
+            source.sendError(Text.literal("Could not write profile: " + e.getMessage()));
+            return 0;
+        }
+    }
+}
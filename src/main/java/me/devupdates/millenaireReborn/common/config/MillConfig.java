@@ -29,6 +29,13 @@ public class MillConfig {
     public static boolean enableDebugMode = false;
     public static int maxVillagersPerVillage = 20;
     public static boolean allowVillageConstruction = true;
+    public static int pathingThreads = 0; // 0 = automatisch (Kerne - 1)
+    public static int minDistanceBetweenBuildings = 5;
+    public static double villageTickBudgetMillis = 10.0; // Zeitbudget der Dorf-Aufgaben pro Server-Tick
+    public static boolean enableProfiler = true;
+    public static int profilerDumpIntervalMinutes = 5; // 0 = kein automatischer Export
+    public static int keepActiveRadius = 200; // Dörfer in diesem Abstand zu einem Spieler werden vollständig geladen
+    public static double generationTickBudgetMillis = 5.0; // Zeitbudget der Dorf-Generierung pro Server-Tick
     
     /**
      * Lädt die Konfiguration aus der Datei
@@ -69,6 +76,13 @@ public class MillConfig {
         data.enableDebugMode = enableDebugMode;
         data.maxVillagersPerVillage = maxVillagersPerVillage;
         data.allowVillageConstruction = allowVillageConstruction;
+        data.pathingThreads = pathingThreads;
+        data.minDistanceBetweenBuildings = minDistanceBetweenBuildings;
+        data.villageTickBudgetMillis = villageTickBudgetMillis;
+        data.enableProfiler = enableProfiler;
+        data.profilerDumpIntervalMinutes = profilerDumpIntervalMinutes;
+        data.keepActiveRadius = keepActiveRadius;
+        data.generationTickBudgetMillis = generationTickBudgetMillis;
         
         try {
             // Stelle sicher dass das Config-Verzeichnis existiert
@@ -95,6 +109,13 @@ public class MillConfig {
         enableDebugMode = data.enableDebugMode;
         maxVillagersPerVillage = data.maxVillagersPerVillage;
         allowVillageConstruction = data.allowVillageConstruction;
+        pathingThreads = data.pathingThreads;
+        minDistanceBetweenBuildings = data.minDistanceBetweenBuildings;
+        villageTickBudgetMillis = data.villageTickBudgetMillis;
+        enableProfiler = data.enableProfiler;
+        profilerDumpIntervalMinutes = data.profilerDumpIntervalMinutes;
+        keepActiveRadius = data.keepActiveRadius;
+        generationTickBudgetMillis = data.generationTickBudgetMillis;
     }
     
     /**
@@ -109,5 +130,12 @@ public class MillConfig {
         boolean enableDebugMode = false;
         int maxVillagersPerVillage = 20;
         boolean allowVillageConstruction = true;
+        int pathingThreads = 0;
+        int minDistanceBetweenBuildings = 5;
+        double villageTickBudgetMillis = 10.0;
+        boolean enableProfiler = true;
+        int profilerDumpIntervalMinutes = 5;
+        int keepActiveRadius = 200;
+        double generationTickBudgetMillis = 5.0;
     }
 }
\ No newline at end of file
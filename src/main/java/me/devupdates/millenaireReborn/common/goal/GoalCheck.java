@@ -0,0 +1,16 @@
+package me.devupdates.millenaireReborn.common.goal;
+
+/**
+ * Ergebnis einer Zielprüfung samt Grund bei Ablehnung (für Debug-Ausgaben)
+ */
+public record GoalCheck(boolean possible, String reason) {
+    public static final GoalCheck POSSIBLE = new GoalCheck(true, null);
+
+    public static GoalCheck reject(String reason) {
+        return new GoalCheck(false, reason);
+    }
+
+    public static GoalCheck of(boolean possible, String reasonIfNot) {
+        return possible ? POSSIBLE : reject(reasonIfNot);
+    }
+}
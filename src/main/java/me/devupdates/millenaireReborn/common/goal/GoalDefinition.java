@@ -0,0 +1,42 @@
+package me.devupdates.millenaireReborn.common.goal;
+
+import java.util.Set;
+
+/**
+ * Ein Ziel der Dorfbewohner, aufgeteilt in einen Dorf-Teil (zwischengespeichert) und einen
+ * Bewohner-Teil (Ersatz für Goal.isPossible/isPossibleSpecific/priority)
+ *
+ * @param <C> Dorf bzw. Rathaus
+ * @param <V> Dorfbewohner
+ */
+public interface GoalDefinition<C, V> {
+
+    String getKey();
+
+    /**
+     * Ereignisse, nach denen checkVillage() neu berechnet werden muss
+     */
+    Set<GoalTrigger> getTriggers();
+
+    /**
+     * Teil der Prüfung, der nur vom Dorf abhängt (townhallLimit, villageLimit, balanceOutput...)
+     * Das Ergebnis wird bis zum nächsten passenden Trigger wiederverwendet.
+     */
+    GoalCheck checkVillage(C village);
+
+    /**
+     * Teil der Prüfung, der vom Bewohner abhängt - nur aufgerufen, wenn checkVillage() erfüllt ist
+     */
+    default GoalCheck checkVillager(C village, V villager) {
+        return GoalCheck.POSSIBLE;
+    }
+
+    int priority(C village, V villager);
+
+    /**
+     * Freizeit-Ziele werden abgebrochen, sobald ein anderes Ziel möglich wird
+     */
+    default boolean isLeisure() {
+        return false;
+    }
+}
@@ -0,0 +1,198 @@
+package me.devupdates.millenaireReborn.common.goal;
+
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Zielauswahl für alle Bewohner eines Dorfes (Ersatz für MillVillager.setNextGoal)
+ *
+ * - die Dorf-Prüfung jedes Ziels wird zwischengespeichert und nur nach einem passenden
+ *   GoalTrigger (oder spätestens nach MAX_CACHE_AGE Ticks) neu berechnet
+ * - selectGoals() wählt für mehrere Bewohner in einem Durchgang; priority() wird pro Kandidat
+ *   nur einmal aufgerufen
+ * - der Grund der Ablehnung bleibt pro Ziel und Bewohner abrufbar
+ *
+ * Ein Planer pro Dorf, nur vom Server-Thread verwenden.
+ *
+ * @param <C> Dorf bzw. Rathaus
+ * @param <V> Dorfbewohner
+ */
+public class GoalPlanner<C, V> {
+    // Auch ohne Trigger wird spätestens nach dieser Zeit neu geprüft (Weltänderungen durch Spieler)
+    private static final long MAX_CACHE_AGE = 600;
+    private static final long DAY_LENGTH = 24000;
+    private static final int TIME_BANDS = 4;
+
+    private static final class CachedCheck {
+        GoalCheck check;
+        long tick;
+        boolean stale = true;
+    }
+
+    private final C village;
+    private final Map<GoalDefinition<C, V>, CachedCheck> cache = new HashMap<>();
+    private final Map<V, Map<String, GoalCheck>> rejections = new HashMap<>();
+    private long currentTick = 0;
+    private int timeBand = -1;
+
+    // Statistik
+    private long villageChecks = 0;
+    private long cacheHits = 0;
+
+    public GoalPlanner(C village) {
+        this.village = village;
+    }
+
+    /**
+     * Einmal pro Auswahl-Durchgang mit der aktuellen Zeit aufrufen, erkennt Tageszeit-Wechsel
+     */
+    public void updateTime(long serverTick, long timeOfDay) {
+        currentTick = serverTick;
+        int band = (int) (Math.floorMod(timeOfDay, DAY_LENGTH) * TIME_BANDS / DAY_LENGTH);
+        if (band != timeBand) {
+            timeBand = band;
+            invalidate(GoalTrigger.TIME_OF_DAY);
+        }
+    }
+
+    /**
+     * Markiert alle Ziele mit diesem Trigger zur Neuberechnung
+     */
+    public void invalidate(GoalTrigger trigger) {
+        for (Map.Entry<GoalDefinition<C, V>, CachedCheck> entry : cache.entrySet()) {
+            if (entry.getKey().getTriggers().contains(trigger)) {
+                entry.getValue().stale = true;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (CachedCheck cached : cache.values()) {
+            cached.stale = true;
+        }
+    }
+
+    /**
+     * Dorf-Prüfung eines Ziels, aus dem Zwischenspeicher wenn noch gültig
+     */
+    public GoalCheck checkVillage(GoalDefinition<C, V> goal) {
+        CachedCheck cached = cache.computeIfAbsent(goal, g -> new CachedCheck());
+        if (!cached.stale && currentTick - cached.tick < MAX_CACHE_AGE) {
+            cacheHits++;
+            return cached.check;
+        }
+        long start = MillProfiler.start();
+        try {
+            cached.check = goal.checkVillage(village);
+        } catch (RuntimeException e) {
+            cached.check = GoalCheck.reject("error: " + e.getMessage());
+        }
+        MillProfiler.stop(ProfilerSection.GOAL_SELECTION, village, goal.getKey(), start);
+        cached.tick = currentTick;
+        cached.stale = false;
+        villageChecks++;
+        return cached.check;
+    }
+
+    /**
+     * Wählt für jeden Bewohner das mögliche Ziel mit der höchsten Priorität in der Reihenfolge
+     * von setNextGoal: ein Nicht-Freizeit-Ziel ersetzt eine bisherige Freizeit-Wahl unabhängig von
+     * der Priorität, ein späteres Freizeit-Ziel mit höherer Priorität ersetzt aber wieder jedes Ziel
+     *
+     * @param goalsOf Ziele eines Bewohners (je nach Beruf)
+     * @return Bewohner -> Ziel, fehlt ein Bewohner, ist kein Ziel möglich
+     */
+    public Map<V, GoalDefinition<C, V>> selectGoals(Collection<V> villagers, Function<V, Collection<GoalDefinition<C, V>>> goalsOf) {
+        Map<V, GoalDefinition<C, V>> selected = new LinkedHashMap<>();
+        for (V villager : villagers) {
+            GoalDefinition<C, V> goal = selectGoal(villager, goalsOf.apply(villager));
+            if (goal != null) {
+                selected.put(villager, goal);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Wie selectGoals(), für einen einzelnen Bewohner
+     */
+    public GoalDefinition<C, V> selectGoal(V villager, Collection<GoalDefinition<C, V>> goals) {
+        Map<String, GoalCheck> rejected = new LinkedHashMap<>();
+        GoalDefinition<C, V> best = null;
+        for (GoalDefinition<C, V> goal : goals) {
+            GoalCheck check = checkVillage(goal);
+            if (check.possible()) {
+                check = checkVillager(goal, villager);
+            }
+            if (!check.possible()) {
+                rejected.put(goal.getKey(), check);
+                continue;
+            }
+            // Wie im alten setNextGoal: Nicht-Freizeit ersetzt eine Freizeit-Wahl, sonst entscheidet die Priorität
+            if (best == null || (best.isLeisure() && !goal.isLeisure())
+                || best.priority(village, villager) < goal.priority(village, villager)) {
+                best = goal;
+            }
+        }
+        rejections.put(villager, rejected);
+        return best;
+    }
+
+    private GoalCheck checkVillager(GoalDefinition<C, V> goal, V villager) {
+        long start = MillProfiler.start();
+        GoalCheck check;
+        try {
+            check = goal.checkVillager(village, villager);
+        } catch (RuntimeException e) {
+            check = GoalCheck.reject("error: " + e.getMessage());
+        }
+        MillProfiler.stop(ProfilerSection.GOAL_SELECTION, village, goal.getKey(), start);
+        return check;
+    }
+
+    /**
+     * Für Freizeit-Ziele (Goal.isStillValid): ist für den Bewohner ein anderes Ziel möglich?
+     * Die Dorf-Prüfung kommt aus dem Zwischenspeicher, die des Bewohners wird neu gemacht.
+     */
+    public boolean isNonLeisureGoalPossible(V villager, Collection<GoalDefinition<C, V>> goals) {
+        for (GoalDefinition<C, V> goal : goals) {
+            if (!goal.isLeisure() && checkVillage(goal).possible() && checkVillager(goal, villager).possible()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gründe, aus denen die Ziele eines Bewohners bei der letzten Auswahl abgelehnt wurden
+     */
+    public Map<String, GoalCheck> getRejections(V villager) {
+        return rejections.getOrDefault(villager, Map.of());
+    }
+
+    /**
+     * Bewohner entfernen (Tod, Umzug)
+     */
+    public void forget(V villager) {
+        rejections.remove(villager);
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung (für Log und Debug-Befehle)
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        long total = villageChecks + cacheHits;
+        lines.add(String.format("Goal planner: %d goals cached, %d village checks, %.0f%% cache hits",
+            cache.size(), villageChecks, total == 0 ? 0.0 : 100.0 * cacheHits / total));
+        return lines;
+    }
+}
@@ -0,0 +1,15 @@
+package me.devupdates.millenaireReborn.common.goal;
+
+/**
+ * Ereignisse, nach denen die Dorf-Prüfung eines Ziels neu berechnet werden muss
+ */
+public enum GoalTrigger {
+    // Warenbestand oder Vormerkungen geändert
+    INVENTORY,
+    // Tageszeit-Abschnitt gewechselt (Nacht, Morgen, Tag, Abend)
+    TIME_OF_DAY,
+    // Bauprojekt begonnen, fertig oder Baustelle geändert
+    CONSTRUCTION,
+    // Bewohner hinzugekommen, gestorben oder umgezogen
+    RESIDENTS
+}
@@ -0,0 +1,26 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import io.netty.buffer.ByteBuf;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Client -> Server: Bestätigt die Version eines Gebäudes, RESYNC fordert den vollständigen Zustand an
+ */
+public record BuildingAckPayload(String buildingKey, long version) implements CustomPayload {
+    public static final long RESYNC = -1;
+
+    public static final Id<BuildingAckPayload> ID = new Id<>(Identifier.of(MillenaireReborn.MOD_ID, "building_ack"));
+    public static final PacketCodec<ByteBuf, BuildingAckPayload> CODEC = PacketCodec.tuple(
+        PacketCodecs.STRING, BuildingAckPayload::buildingKey,
+        PacketCodecs.VAR_LONG, BuildingAckPayload::version,
+        BuildingAckPayload::new);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,29 @@
+package me.devupdates.millenaireReborn.common.network;
+
+/**
+ * Einzeln synchronisierte Teile eines Gebäudes (Aufteilung von Building.sendBuildingPacket)
+ */
+public enum BuildingSection {
+    TAGS("tags"),
+    PROJECTS("projects"),
+    LOCATIONS("locations"),
+    VILLAGERS("villagers"),
+    RELATIONS("relations"),
+    RAIDS("raids"),
+    TRADE("trade"),
+    RESOURCES("resources"),
+    MARVEL("marvel");
+
+    private final String key;
+
+    BuildingSection(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Schlüssel im Paket
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,37 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import io.netty.buffer.ByteBuf;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Server -> Client: Zustand eines Gebäudes, vollständig oder nur die geänderten Teile
+ *
+ * @param baseVersion Version, auf der das Delta aufsetzt, FULL bei vollständigem Zustand
+ * @param version     Version nach Anwenden des Pakets
+ * @param sections    BuildingSection-Schlüssel -> Inhalt
+ */
+public record BuildingSyncPayload(String buildingKey, long baseVersion, long version, NbtCompound sections) implements CustomPayload {
+    public static final long FULL = -1;
+
+    public static final Id<BuildingSyncPayload> ID = new Id<>(Identifier.of(MillenaireReborn.MOD_ID, "building_sync"));
+    public static final PacketCodec<ByteBuf, BuildingSyncPayload> CODEC = PacketCodec.tuple(
+        PacketCodecs.STRING, BuildingSyncPayload::buildingKey,
+        PacketCodecs.VAR_LONG, BuildingSyncPayload::baseVersion,
+        PacketCodecs.VAR_LONG, BuildingSyncPayload::version,
+        PacketCodecs.NBT_COMPOUND, BuildingSyncPayload::sections,
+        BuildingSyncPayload::new);
+
+    public boolean isFull() {
+        return baseVersion == FULL;
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
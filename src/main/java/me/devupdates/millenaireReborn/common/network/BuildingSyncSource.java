@@ -0,0 +1,21 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import net.minecraft.nbt.NbtCompound;
+
+/**
+ * Gebäude, dessen Zustand per BuildingSyncTracker an die Clients geht
+ */
+public interface BuildingSyncSource {
+
+    /**
+     * Eindeutiger Schlüssel des Gebäudes (gleich auf Server und Client)
+     */
+    String getSyncKey();
+
+    SectionVersions getSectionVersions();
+
+    /**
+     * Serialisiert einen Teil für den Client
+     */
+    NbtCompound writeSection(BuildingSection section);
+}
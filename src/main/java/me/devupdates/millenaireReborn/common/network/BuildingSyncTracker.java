@@ -0,0 +1,117 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Merkt sich pro Spieler und Gebäude, welche Version der Client bestätigt hat (Ersatz für
+ * UserProfile.buildingsSent)
+ *
+ * send() schickt nur die Teile, die sich seit der bestätigten Version geändert haben. Beim
+ * Betreten des Servers, nach einer Neuanforderung des Clients oder ohne Bestätigung wird der
+ * vollständige Zustand gesendet. Das Delta setzt auf der bestätigten Version auf; solange eine
+ * Bestätigung aussteht, kann ein Teil also doppelt gehen, der Client überschreibt ihn dann nur.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class BuildingSyncTracker {
+    private static BuildingSyncTracker instance;
+
+    private static final class ClientState {
+        long acked = BuildingSyncPayload.FULL;
+        long sent = BuildingSyncPayload.FULL;
+    }
+
+    private final Map<UUID, Map<String, ClientState>> players = new HashMap<>();
+
+    private BuildingSyncTracker() {
+    }
+
+    public static BuildingSyncTracker getInstance() {
+        if (instance == null) {
+            instance = new BuildingSyncTracker();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Empfänger und Verbindungs-Hooks - aus MillNetworking.registerServerPackets()
+     */
+    static void init() {
+        ServerPlayNetworking.registerGlobalReceiver(BuildingAckPayload.ID,
+            (payload, context) -> getInstance().acknowledge(context.player(), payload));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> getInstance().forget(handler.getPlayer().getUuid()));
+    }
+
+    /**
+     * Schickt den Zustand eines Gebäudes an einen Spieler, falls sich seit der letzten Sendung
+     * etwas geändert hat
+     *
+     * @return true, wenn ein Paket gesendet wurde
+     */
+    public boolean send(ServerPlayerEntity player, BuildingSyncSource building) {
+        SectionVersions versions = building.getSectionVersions();
+        ClientState state = players.computeIfAbsent(player.getUuid(), k -> new HashMap<>())
+            .computeIfAbsent(building.getSyncKey(), k -> new ClientState());
+        if (state.sent == versions.getVersion()) {
+            return false;
+        }
+
+        long start = MillProfiler.start();
+        boolean full = state.acked == BuildingSyncPayload.FULL;
+        NbtCompound sections = new NbtCompound();
+        int count = 0;
+        for (BuildingSection section : BuildingSection.values()) {
+            if (full || versions.changedSince(section, state.acked)) {
+                sections.put(section.getKey(), building.writeSection(section));
+                count++;
+            }
+        }
+        long base = full ? BuildingSyncPayload.FULL : state.acked;
+        ServerPlayNetworking.send(player, new BuildingSyncPayload(building.getSyncKey(), base, versions.getVersion(), sections));
+        state.sent = versions.getVersion();
+
+        MillProfiler.count(ProfilerSection.NETWORKING, full ? "building full" : "building delta", 1);
+        MillProfiler.count(ProfilerSection.NETWORKING, "building sections", count);
+        MillProfiler.stop(ProfilerSection.NETWORKING, null, "building sync", start);
+        return true;
+    }
+
+    private void acknowledge(ServerPlayerEntity player, BuildingAckPayload payload) {
+        Map<String, ClientState> buildings = players.get(player.getUuid());
+        ClientState state = buildings == null ? null : buildings.get(payload.buildingKey());
+        if (state == null) {
+            return;
+        }
+        if (payload.version() == BuildingAckPayload.RESYNC || payload.version() > state.sent) {
+            // Client ist aus dem Tritt: beim nächsten send() alles
+            MillProfiler.count(ProfilerSection.NETWORKING, "building resync", 1);
+            buildings.remove(payload.buildingKey());
+            return;
+        }
+        state.acked = Math.max(state.acked, payload.version());
+    }
+
+    /**
+     * Erzwingt beim nächsten send() den vollständigen Zustand (z.B. wenn der Spieler das Gebäude
+     * aus der Sichtweite verloren hat)
+     */
+    public void invalidate(ServerPlayerEntity player, String buildingKey) {
+        Map<String, ClientState> buildings = players.get(player.getUuid());
+        if (buildings != null) {
+            buildings.remove(buildingKey);
+        }
+    }
+
+    private void forget(UUID player) {
+        players.remove(player);
+    }
+}
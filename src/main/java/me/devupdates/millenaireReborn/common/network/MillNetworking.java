@@ -1,6 +1,7 @@
 package me.devupdates.millenaireReborn.common.network;
 
 import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 
 /**
  * Netzwerk-System für Client-Server-Kommunikation
@@ -11,9 +12,16 @@ public class MillNetworking {
      * Registriert Server-seitige Packet-Handler
      */
     public static void registerServerPackets() {
-        MillenaireReborn.LOGGER.info("Server networking initialized (placeholder)");
-        // TODO: Packet-Handler für Server werden hier registriert
-        // Beispiele: Village-Updates, Villager-Commands, Quest-Sync, etc.
+        // Paket-Typen (auf beiden Seiten nötig, daher hier im gemeinsamen Initializer)
+        PayloadTypeRegistry.playS2C().register(BuildingSyncPayload.ID, BuildingSyncPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(VillagerSyncPayload.ID, VillagerSyncPayload.CODEC);
+        PayloadTypeRegistry.playC2S().register(BuildingAckPayload.ID, BuildingAckPayload.CODEC);
+
+        // Gebäude- und Dorfbewohner-Synchronisation
+        BuildingSyncTracker.init();
+        VillagerSyncStream.init();
+
+        MillenaireReborn.LOGGER.info("Server networking initialized");
     }
     
     /**
@@ -0,0 +1,38 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import java.util.Arrays;
+
+/**
+ * Versionszähler pro BuildingSection eines Gebäudes
+ *
+ * Jede Änderung erhöht die Gesamtversion und merkt sie sich für den geänderten Teil. Für einen
+ * Client mit Version v sind damit genau die Teile zu senden, deren Version größer als v ist.
+ */
+public class SectionVersions {
+    private final long[] sectionVersions = new long[BuildingSection.values().length];
+    private long version = 0;
+
+    /**
+     * Nach jeder Änderung eines Teils aufrufen
+     */
+    public void markChanged(BuildingSection section) {
+        version++;
+        sectionVersions[section.ordinal()] = version;
+    }
+
+    /**
+     * Alle Teile als geändert markieren (z.B. nach dem Laden)
+     */
+    public void markAllChanged() {
+        version++;
+        Arrays.fill(sectionVersions, version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean changedSince(BuildingSection section, long clientVersion) {
+        return sectionVersions[section.ordinal()] > clientVersion;
+    }
+}
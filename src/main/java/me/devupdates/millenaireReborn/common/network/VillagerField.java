@@ -0,0 +1,25 @@
+package me.devupdates.millenaireReborn.common.network;
+
+/**
+ * Einzeln synchronisierte Felder eines Dorfbewohners (Aufteilung von writeVillagerStreamData)
+ */
+public enum VillagerField {
+    NAME("name"),
+    GOAL("goal"),
+    HELD_ITEMS("items"),
+    APPEARANCE("look"),
+    STATE("state");
+
+    private final String key;
+
+    VillagerField(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Schlüssel im Paket
+     */
+    public String getKey() {
+        return key;
+    }
+}
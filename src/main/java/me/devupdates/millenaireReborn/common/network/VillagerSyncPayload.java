@@ -0,0 +1,32 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import io.netty.buffer.ByteBuf;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import java.util.List;
+
+/**
+ * Server -> Client: geänderte Felder aller Dorfbewohner eines Ticks in einem Paket
+ *
+ * @param villagers Villager-ID -> (VillagerField-Schlüssel -> Inhalt); ohne "full" nur die geänderten Felder
+ * @param removed   IDs, die der Client vergessen kann (außer Reichweite oder entladen)
+ */
+public record VillagerSyncPayload(NbtCompound villagers, List<Long> removed) implements CustomPayload {
+    public static final String FULL_KEY = "full";
+
+    public static final Id<VillagerSyncPayload> ID = new Id<>(Identifier.of(MillenaireReborn.MOD_ID, "villager_sync"));
+    public static final PacketCodec<ByteBuf, VillagerSyncPayload> CODEC = PacketCodec.tuple(
+        PacketCodecs.NBT_COMPOUND, VillagerSyncPayload::villagers,
+        PacketCodecs.VAR_LONG.collect(PacketCodecs.toList()), VillagerSyncPayload::removed,
+        VillagerSyncPayload::new);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
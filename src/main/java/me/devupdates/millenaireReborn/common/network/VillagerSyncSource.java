@@ -0,0 +1,17 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import me.devupdates.millenaireReborn.common.village.VillageResident;
+import net.minecraft.nbt.NbtCompound;
+
+/**
+ * Dorfbewohner, dessen Zustand über den VillagerSyncStream an die Clients geht
+ */
+public interface VillagerSyncSource extends VillageResident {
+
+    VillagerSyncState getSyncState();
+
+    /**
+     * Serialisiert ein Feld für den Client
+     */
+    NbtCompound writeField(VillagerField field);
+}
@@ -0,0 +1,31 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import java.util.Arrays;
+
+/**
+ * Versionszähler pro VillagerField eines Dorfbewohners (wie SectionVersions für Gebäude)
+ */
+public class VillagerSyncState {
+    private final long[] fieldVersions = new long[VillagerField.values().length];
+    private long version = 1;
+
+    public VillagerSyncState() {
+        Arrays.fill(fieldVersions, version);
+    }
+
+    /**
+     * Nach jeder Änderung eines Feldes aufrufen (z.B. neues Ziel, andere Werkzeuge in der Hand)
+     */
+    public void markChanged(VillagerField field) {
+        version++;
+        fieldVersions[field.ordinal()] = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean changedSince(VillagerField field, long sentVersion) {
+        return fieldVersions[field.ordinal()] > sentVersion;
+    }
+}
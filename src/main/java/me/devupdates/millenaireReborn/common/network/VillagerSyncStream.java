@@ -0,0 +1,158 @@
+package me.devupdates.millenaireReborn.common.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.village.VillagerRegistry;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Zustand der Dorfbewohner an die Spieler (Ersatz für MillVillager.sendVillagerPacket)
+ *
+ * Einmal pro Tick und Spieler ein gesammeltes Paket mit den geänderten Feldern aller
+ * Dorfbewohner in Reichweite. Nahe Bewohner werden häufiger aktualisiert als ferne; wer die
+ * Reichweite verlässt oder entladen wird, kommt in die removed-Liste und wird beim nächsten
+ * Mal wieder vollständig gesendet; ebenso eine neue Entity mit derselben ID.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillagerSyncStream {
+    // Reichweite wie im alten Mod (sendPacketToPlayersInRange(..., 100))
+    private static final double MAX_RANGE = 100;
+    // Abstand -> Mindestabstand zwischen zwei Sendungen in Ticks
+    private static final double[] RANGE_TIERS = {24, 48, MAX_RANGE};
+    private static final int[] TIER_INTERVALS = {2, 5, 20};
+
+    private static VillagerSyncStream instance;
+
+    private static final class Sent {
+        // Zustand der Entity, an die zuletzt gesendet wurde - bei gleicher ID, aber neuer Entity
+        // (Kind wird erwachsen) fangen die Versionen wieder bei 1 an
+        VillagerSyncState state;
+        long version;
+        long tick;
+        long seen;
+    }
+
+    private final Map<UUID, Long2ObjectMap<Sent>> players = new HashMap<>();
+    private long currentTick = 0;
+
+    private VillagerSyncStream() {
+    }
+
+    public static VillagerSyncStream getInstance() {
+        if (instance == null) {
+            instance = new VillagerSyncStream();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Tick- und Verbindungs-Hooks - aus MillNetworking.registerServerPackets()
+     */
+    static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> getInstance().tick(server));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> getInstance().players.remove(handler.getPlayer().getUuid()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> getInstance().players.clear());
+    }
+
+    private void tick(MinecraftServer server) {
+        currentTick++;
+        List<ServerPlayerEntity> online = server.getPlayerManager().getPlayerList();
+        if (online.isEmpty()) {
+            return;
+        }
+        long start = MillProfiler.start();
+        for (ServerPlayerEntity player : online) {
+            syncPlayer(player);
+        }
+        MillProfiler.stop(ProfilerSection.NETWORKING, null, "villager sync", start);
+    }
+
+    private void syncPlayer(ServerPlayerEntity player) {
+        Long2ObjectMap<Sent> sentMap = players.computeIfAbsent(player.getUuid(), k -> new Long2ObjectOpenHashMap<>());
+        NbtCompound batch = new NbtCompound();
+        int fields = 0;
+
+        for (Entity entity : VillagerRegistry.getInstance().getAllVillagers()) {
+            if (!(entity instanceof VillagerSyncSource villager) || entity.getWorld() != player.getWorld()) {
+                continue;
+            }
+            int interval = interval(entity.squaredDistanceTo(player));
+            if (interval < 0) {
+                continue;
+            }
+            VillagerSyncState state = villager.getSyncState();
+            Sent sent = sentMap.get(villager.getVillagerId());
+            if (sent == null) {
+                sent = new Sent();
+                sentMap.put(villager.getVillagerId(), sent);
+            }
+            boolean full = sent.state != state;
+            sent.seen = currentTick;
+            if (!full && (sent.version == state.getVersion() || currentTick - sent.tick < interval)) {
+                continue;
+            }
+
+            NbtCompound changed = new NbtCompound();
+            for (VillagerField field : VillagerField.values()) {
+                if (full || state.changedSince(field, sent.version)) {
+                    changed.put(field.getKey(), villager.writeField(field));
+                    fields++;
+                }
+            }
+            if (full) {
+                changed.putBoolean(VillagerSyncPayload.FULL_KEY, true);
+            }
+            batch.put(Long.toString(villager.getVillagerId()), changed);
+            sent.state = state;
+            sent.version = state.getVersion();
+            sent.tick = currentTick;
+        }
+
+        // Nicht mehr in Reichweite oder entladen
+        List<Long> removed = new ArrayList<>();
+        ObjectIterator<Long2ObjectMap.Entry<Sent>> iterator = sentMap.long2ObjectEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Long2ObjectMap.Entry<Sent> entry = iterator.next();
+            if (entry.getValue().seen != currentTick) {
+                removed.add(entry.getLongKey());
+                iterator.remove();
+            }
+        }
+
+        if (batch.getKeys().isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        ServerPlayNetworking.send(player, new VillagerSyncPayload(batch, removed));
+        MillProfiler.count(ProfilerSection.NETWORKING, "villager packets", 1);
+        MillProfiler.count(ProfilerSection.NETWORKING, "villager fields", fields);
+    }
+
+    /**
+     * Sendeabstand für eine Entfernung, -1 außerhalb der Reichweite
+     */
+    private static int interval(double distanceSquared) {
+        for (int i = 0; i < RANGE_TIERS.length; i++) {
+            if (distanceSquared <= RANGE_TIERS[i] * RANGE_TIERS[i]) {
+                return TIER_INTERVALS[i];
+            }
+        }
+        return -1;
+    }
+}
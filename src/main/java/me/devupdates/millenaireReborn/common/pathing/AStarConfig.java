@@ -0,0 +1,52 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+/**
+ * Konfiguration einer Pfadsuche (portiert vom alten Mod)
+ * Legt fest, welche Bewegungen ein Dorfbewohner bei der Suche nutzen darf
+ */
+public class AStarConfig {
+    public boolean canUseDoors = false;
+    public boolean canTakeDiagonals = false;
+    public boolean allowDropping = false;
+    public boolean canSwim = false;
+    public boolean canClearLeaves = true;
+
+    // Toleranz: Ziel gilt als erreicht, wenn der Knoten innerhalb dieser Abstände liegt
+    public boolean tolerance = false;
+    public int toleranceHorizontal = 0;
+    public int toleranceVertical = 0;
+
+    public AStarConfig(boolean canUseDoors, boolean makePathDiagonals, boolean allowDropping, boolean canSwim, boolean canClearLeaves) {
+        this.canUseDoors = canUseDoors;
+        this.canTakeDiagonals = makePathDiagonals;
+        this.allowDropping = allowDropping;
+        this.canSwim = canSwim;
+        this.canClearLeaves = canClearLeaves;
+    }
+
+    public AStarConfig(boolean canUseDoors, boolean makePathDiagonals, boolean allowDropping, boolean canSwim, boolean canClearLeaves,
+                       int toleranceHorizontal, int toleranceVertical) {
+        this(canUseDoors, makePathDiagonals, allowDropping, canSwim, canClearLeaves);
+        this.toleranceHorizontal = toleranceHorizontal;
+        this.toleranceVertical = toleranceVertical;
+        this.tolerance = true;
+    }
+
+    /**
+     * Prüft ob eine Position als Ziel gilt (mit Toleranz, falls aktiviert)
+     */
+    public boolean isEnd(int x, int y, int z, int endX, int endY, int endZ) {
+        if (!tolerance) {
+            return x == endX && y == endY && z == endZ;
+        }
+        return Math.abs(x - endX) <= toleranceHorizontal
+            && Math.abs(z - endZ) <= toleranceHorizontal
+            && Math.abs(y - endY) <= toleranceVertical;
+    }
+
+    @Override
+    public String toString() {
+        return "AStarConfig[doors=" + canUseDoors + ", drops=" + allowDropping + ", swim=" + canSwim
+            + ", leaves=" + canClearLeaves + (tolerance ? ", tolerance=" + toleranceHorizontal + "/" + toleranceVertical : "") + "]";
+    }
+}
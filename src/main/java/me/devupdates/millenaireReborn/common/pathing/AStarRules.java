@@ -0,0 +1,105 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.util.BlockClassification;
+import net.minecraft.block.BlockState;
+
+/**
+ * Begehbarkeits-Regeln der Pfadsuche (portiert von AStarStatic)
+ * Alle Methoden sind zustandslos und damit von Worker-Threads aus nutzbar,
+ * sofern die übergebene PathingBlockAccess selbst thread-sicher ist
+ */
+public final class AStarRules {
+
+    // Nachbar-Kandidaten: {dx, dy, dz, Kosten}
+    static final int[][] CANDIDATES = {
+        {0, 0, -1, 1}, {0, 0, 1, 1}, {0, 1, 0, 1}, {1, 0, 0, 1}, {-1, 0, 0, 1},
+        {1, 1, 0, 2}, {-1, 1, 0, 2}, {0, 1, 1, 2}, {0, 1, -1, 2},
+        {1, -1, 0, 1}, {-1, -1, 0, 1}, {0, -1, 1, 1}, {0, -1, -1, 1}
+    };
+
+    static final int[][] CANDIDATES_ALLOW_DROPS = {
+        {0, 0, -1, 1}, {0, 0, 1, 1}, {1, 0, 0, 1}, {-1, 0, 0, 1},
+        {1, 1, 0, 2}, {-1, 1, 0, 2}, {0, 1, 1, 2}, {0, 1, -1, 2},
+        {1, -1, 0, 1}, {-1, -1, 0, 1}, {0, -1, 1, 1}, {0, -1, -1, 1},
+        {1, -2, 0, 1}, {-1, -2, 0, 1}, {0, -2, 1, 1}, {0, -2, -1, 1}
+    };
+
+    private AStarRules() {
+    }
+
+    static int[][] candidates(AStarConfig config) {
+        return config.allowDropping ? CANDIDATES_ALLOW_DROPS : CANDIDATES;
+    }
+
+    private static boolean isWater(BlockState state) {
+        return BlockClassification.is(state, BlockClassification.WATER);
+    }
+
+    /**
+     * Prüft ob ein einzelner Block durchquert werden kann
+     */
+    public static boolean isPassableBlock(PathingBlockAccess access, int x, int y, int z, AStarConfig config) {
+        // Über Zäune und Mauern kann nicht gelaufen werden
+        if (BlockClassification.is(access.getBlockState(x, y - 1, z), BlockClassification.FENCE)) {
+            return false;
+        }
+
+        int flags = BlockClassification.get(access.getBlockState(x, y, z));
+        if (!config.canSwim && (flags & BlockClassification.WATER) != 0) {
+            return false;
+        }
+        if (config.canUseDoors && (flags & BlockClassification.DOOR) != 0) {
+            return true;
+        }
+        // Nur natürliche (zerfallende) Blätter dürfen entfernt werden
+        if (config.canClearLeaves && (flags & BlockClassification.LEAF) != 0) {
+            return true;
+        }
+        return (flags & BlockClassification.PASSABLE) != 0;
+    }
+
+    /**
+     * Prüft ob ein Dorfbewohner auf dieser Position stehen kann
+     *
+     * @param yoffset Höhenunterschied zum Vorgängerknoten (für die Kopffreiheit beim Klettern/Fallen)
+     */
+    public static boolean isViable(PathingBlockAccess access, int x, int y, int z, int yoffset, AStarConfig config) {
+        BlockState state = access.getBlockState(x, y, z);
+
+        if (BlockClassification.is(state, BlockClassification.LADDER) && isPassableBlock(access, x, y + 1, z, config)) {
+            return true;
+        }
+        if (!isPassableBlock(access, x, y, z, config) || !isPassableBlock(access, x, y + 1, z, config)) {
+            return false;
+        }
+        if (isWater(access.getBlockState(x, y - 1, z))) {
+            return false;
+        }
+        if (isPassableBlock(access, x, y - 1, z, config)) {
+            // Kein Boden: nur schwimmend erlaubt
+            if (!config.canSwim || !isWater(state)) {
+                return false;
+            }
+        }
+
+        int headroom = Math.abs(yoffset);
+        return headroom == 0 || isPassableBlock(access, x, y + headroom, z, config);
+    }
+
+    /**
+     * Korrigiert die Start-Höhe um einen Block nach unten oder oben, falls der Dorfbewohner
+     * gerade nicht auf einer gültigen Position steht (wie im alten AStarPathPlannerJPS)
+     */
+    public static int findViableStartY(PathingBlockAccess access, int x, int y, int z, AStarConfig config) {
+        if (isViable(access, x, y, z, 0, config)) {
+            return y;
+        }
+        if (isViable(access, x, y - 1, z, 0, config)) {
+            return y - 1;
+        }
+        if (isViable(access, x, y + 1, z, 0, config)) {
+            return y + 1;
+        }
+        return y;
+    }
+}
@@ -0,0 +1,212 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A*-Suchmaschine ohne Objekt-Allokation pro Knoten (Ersatz für AStarWorker)
+ *
+ * Knoten werden über BlockPos.asLong() als long-Schlüssel adressiert und in parallelen
+ * Arrays gehalten. Offene und geschlossene Knoten werden über eine primitive Hash-Map
+ * gefunden, die offene Liste ist ein indizierter Heap mit decrease-key.
+ *
+ * Eine Instanz ist nicht thread-sicher, kann aber beliebig oft wiederverwendet werden
+ * (typischerweise eine Instanz pro Worker-Thread).
+ */
+public class AStarSearch {
+    public static final long SEARCH_TIME_LIMIT_MS = 150L;
+
+    // Obergrenze gegen Speicher-Explosion bei unerreichbaren Zielen
+    private static final int MAX_NODES = 1 << 18;
+    // Zeitlimit wird nur alle N Expansionen geprüft
+    private static final int TIME_CHECK_INTERVAL = 64;
+    // Maps über dieser Größe werden nach der Suche wieder verkleinert
+    private static final int TRIM_THRESHOLD = 1 << 14;
+
+    private static final byte OPEN = 0;
+    private static final byte CLOSED = 1;
+    private static final byte REJECTED = 2;
+
+    public enum Outcome {
+        FOUND,
+        NO_PATH,
+        TIMED_OUT,
+        NODE_LIMIT
+    }
+
+    private final Long2IntOpenHashMap nodeIndex = new Long2IntOpenHashMap(1024);
+    private final NodeHeap open = new NodeHeap();
+
+    private long[] keys = new long[1024];
+    private int[] costs = new int[1024];
+    private int[] parents = new int[1024];
+    private byte[] states = new byte[1024];
+    private int nodeCount;
+
+    private Outcome lastOutcome = Outcome.NO_PATH;
+    private int lastExpanded;
+
+    public AStarSearch() {
+        nodeIndex.defaultReturnValue(-1);
+    }
+
+    public Outcome getLastOutcome() {
+        return lastOutcome;
+    }
+
+    /**
+     * Anzahl der expandierten Knoten der letzten Suche (für Metriken)
+     */
+    public int getLastExpanded() {
+        return lastExpanded;
+    }
+
+    /**
+     * Ergebnis ohne Suche, wenn schon vorher feststeht, dass es keinen Pfad gibt (HierarchicalPathPlanner)
+     */
+    void markNoPath() {
+        lastOutcome = Outcome.NO_PATH;
+        lastExpanded = 0;
+    }
+
+    public List<Point> findPath(PathingBlockAccess access, Point start, Point end, AStarConfig config) {
+        return findPath(access, start.x, start.y, start.z, end.x, end.y, end.z, config,
+            System.nanoTime() + SEARCH_TIME_LIMIT_MS * 1_000_000L);
+    }
+
+    /**
+     * Sucht einen Pfad von Start zu Ziel
+     *
+     * @param deadlineNanos Zeitpunkt (System.nanoTime) an dem die Suche abgebrochen wird
+     * @return Pfad vom Start zum Ziel (inklusive beider Enden) oder null wenn keiner gefunden wurde
+     */
+    public List<Point> findPath(PathingBlockAccess access, int startX, int startY, int startZ,
+                                int endX, int endY, int endZ, AStarConfig config, long deadlineNanos) {
+        reset();
+        try {
+            int[][] candidates = AStarRules.candidates(config);
+
+            int current = addNode(BlockPos.asLong(startX, startY, startZ), 0, -1, OPEN);
+            open.insert(current, 0);
+
+            while (!open.isEmpty()) {
+                current = open.poll();
+                long key = keys[current];
+                int x = BlockPos.unpackLongX(key);
+                int y = BlockPos.unpackLongY(key);
+                int z = BlockPos.unpackLongZ(key);
+
+                if (config.isEnd(x, y, z, endX, endY, endZ)) {
+                    lastOutcome = Outcome.FOUND;
+                    return buildPath(current);
+                }
+
+                states[current] = CLOSED;
+                lastExpanded++;
+
+                if ((lastExpanded % TIME_CHECK_INTERVAL) == 0 && System.nanoTime() > deadlineNanos) {
+                    lastOutcome = Outcome.TIMED_OUT;
+                    return null;
+                }
+
+                for (int[] candidate : candidates) {
+                    int nx = x + candidate[0];
+                    int ny = y + candidate[1];
+                    int nz = z + candidate[2];
+                    int g = costs[current] + candidate[3];
+                    long neighbourKey = BlockPos.asLong(nx, ny, nz);
+
+                    int neighbour = nodeIndex.get(neighbourKey);
+                    if (neighbour >= 0) {
+                        byte state = states[neighbour];
+                        if (state == REJECTED || g >= costs[neighbour]) {
+                            continue;
+                        }
+                        // Wie im alten AStarWorker: auch geschlossene Knoten übernehmen den kürzeren Weg
+                        costs[neighbour] = g;
+                        parents[neighbour] = current;
+                        if (state == OPEN) {
+                            open.decreasePriority(neighbour, priority(g, nx, ny, nz, endX, endY, endZ));
+                        }
+                        continue;
+                    }
+
+                    if (nodeCount >= MAX_NODES) {
+                        lastOutcome = Outcome.NODE_LIMIT;
+                        return null;
+                    }
+                    if (!AStarRules.isViable(access, nx, ny, nz, candidate[1], config)) {
+                        // Ablehnungen bei bis zu einem Block Höhenunterschied hängen nicht vom Vorgänger ab
+                        if (Math.abs(candidate[1]) <= 1) {
+                            addNode(neighbourKey, Integer.MAX_VALUE, -1, REJECTED);
+                        }
+                        continue;
+                    }
+
+                    neighbour = addNode(neighbourKey, g, current, OPEN);
+                    open.insert(neighbour, priority(g, nx, ny, nz, endX, endY, endZ));
+                }
+            }
+
+            lastOutcome = Outcome.NO_PATH;
+            return null;
+        } finally {
+            open.clear();
+            if (nodeIndex.size() > TRIM_THRESHOLD) {
+                nodeIndex.clear();
+                nodeIndex.trim(1024);
+            }
+        }
+    }
+
+    /**
+     * F-Wert mit derselben Gewichtung wie der alte AStarNode (G + G + 10 * Luftlinie),
+     * damit sich gefundene Pfade nicht sichtbar verändern
+     */
+    private static double priority(int g, int x, int y, int z, int endX, int endY, int endZ) {
+        double dx = x - endX;
+        double dy = y - endY;
+        double dz = z - endZ;
+        return 2.0 * g + Math.sqrt(dx * dx + dy * dy + dz * dz) * 10.0;
+    }
+
+    private int addNode(long key, int cost, int parent, byte state) {
+        int node = nodeCount++;
+        if (node == keys.length) {
+            int newLength = keys.length * 2;
+            keys = Arrays.copyOf(keys, newLength);
+            costs = Arrays.copyOf(costs, newLength);
+            parents = Arrays.copyOf(parents, newLength);
+            states = Arrays.copyOf(states, newLength);
+        }
+        keys[node] = key;
+        costs[node] = cost;
+        parents[node] = parent;
+        states[node] = state;
+        nodeIndex.put(key, node);
+        return node;
+    }
+
+    private List<Point> buildPath(int end) {
+        List<Point> path = new ArrayList<>();
+        for (int node = end; node >= 0; node = parents[node]) {
+            long key = keys[node];
+            path.add(new Point(BlockPos.unpackLongX(key), BlockPos.unpackLongY(key), BlockPos.unpackLongZ(key)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void reset() {
+        nodeIndex.clear();
+        open.clear();
+        nodeCount = 0;
+        lastExpanded = 0;
+    }
+}
@@ -0,0 +1,192 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Zweistufige Pfadsuche innerhalb eines Dorfes (HPA*-Prinzip)
+ *
+ * Zuerst wird über den Knoten-Graphen des RegionMapper geplant (wenige hundert Knoten),
+ * danach wird jedes kurze Teilstück zwischen zwei Wegpunkten mit der normalen AStarSearch
+ * auf Blockebene verfeinert. Liegen Start oder Ziel außerhalb des Dorfgebiets oder auf einer
+ * Zelle ohne Region, wird direkt auf Blockebene gesucht; liegen sie in unterschiedlichen
+ * Regionen, gibt es keinen Pfad.
+ *
+ * Liest den RegionMapper nur, darf also auf Worker-Threads laufen.
+ */
+public final class HierarchicalPathPlanner {
+    // Zwischen-Wegpunkte müssen nicht exakt getroffen werden
+    private static final int WAYPOINT_TOLERANCE_HORIZONTAL = 1;
+    private static final int WAYPOINT_TOLERANCE_VERTICAL = 2;
+
+    private HierarchicalPathPlanner() {
+    }
+
+    public static List<Point> findPath(RegionMapper mapper, PathingBlockAccess access, AStarSearch search,
+                                       Point start, Point end, AStarConfig config, long deadlineNanos) {
+        if (mapper == null || !mapper.isInArea(start) || !mapper.isInArea(end)) {
+            return search.findPath(access, start.x, start.y, start.z, end.x, end.y, end.z, config, deadlineNanos);
+        }
+
+        short startRegion = mapper.getRegion(start);
+        short endRegion = mapper.getRegion(end);
+        if (startRegion < 0 || endRegion < 0) {
+            // Zelle ohne Region (z.B. Türöffnung, Zaun): nicht kartiert, direkt suchen
+            return search.findPath(access, start.x, start.y, start.z, end.x, end.y, end.z, config, deadlineNanos);
+        }
+        if (startRegion != endRegion) {
+            // Regionen sind zusammenhängende Gebiete - wie isReachableFromRegion im alten Mod gar
+            // nicht erst suchen, die Suche auf Blockebene liefe nur bis MAX_NODES oder zur Deadline
+            search.markNoPath();
+            return null;
+        }
+
+        List<Point> waypoints = planWaypoints(mapper, start, end);
+        if (waypoints == null) {
+            return search.findPath(access, start.x, start.y, start.z, end.x, end.y, end.z, config, deadlineNanos);
+        }
+
+        AStarConfig segmentConfig = new AStarConfig(config.canUseDoors, config.canTakeDiagonals, config.allowDropping,
+            config.canSwim, config.canClearLeaves, WAYPOINT_TOLERANCE_HORIZONTAL, WAYPOINT_TOLERANCE_VERTICAL);
+
+        List<Point> path = new ArrayList<>();
+        Point current = start;
+        for (int i = 0; i < waypoints.size(); i++) {
+            Point target = waypoints.get(i);
+            boolean last = i == waypoints.size() - 1;
+            List<Point> segment = search.findPath(access, current.x, current.y, current.z,
+                target.x, target.y, target.z, last ? config : segmentConfig, deadlineNanos);
+
+            if (segment == null) {
+                if (search.getLastOutcome() == AStarSearch.Outcome.TIMED_OUT) {
+                    return null;
+                }
+                // Gelände hat sich seit dem Aufbau des Graphen verändert: Rest direkt suchen
+                segment = search.findPath(access, current.x, current.y, current.z,
+                    end.x, end.y, end.z, config, deadlineNanos);
+                if (segment == null) {
+                    return null;
+                }
+                appendSegment(path, segment);
+                return path;
+            }
+
+            appendSegment(path, segment);
+            current = segment.get(segment.size() - 1);
+        }
+        return path;
+    }
+
+    private static void appendSegment(List<Point> path, List<Point> segment) {
+        // Der erste Punkt eines Teilstücks ist der letzte des vorherigen
+        path.addAll(path.isEmpty() ? segment : segment.subList(1, segment.size()));
+    }
+
+    /**
+     * A* über den Knoten-Graphen; Start und Ziel werden als temporäre Knoten an alle
+     * sichtbaren Knoten angehängt
+     *
+     * @return Wegpunkte in Weltkoordinaten (ohne Start, mit Ziel) oder null
+     */
+    static List<Point> planWaypoints(RegionMapper mapper, Point start, Point end) {
+        int sx = start.x - mapper.mapStartX;
+        int sz = start.z - mapper.mapStartZ;
+        int ex = end.x - mapper.mapStartX;
+        int ez = end.z - mapper.mapStartZ;
+
+        List<Point> waypoints = new ArrayList<>();
+        if (mapper.canSee(sx, sz, ex, ez)) {
+            waypoints.add(end);
+            return waypoints;
+        }
+
+        List<RegionMapper.Node> nodes = mapper.nodes;
+        int nodeCount = nodes.size();
+        int startId = nodeCount;
+        int endId = nodeCount + 1;
+
+        // Sichtbarkeit des Ziels einmal vorab bestimmen
+        boolean[] seesEnd = new boolean[nodeCount];
+        boolean endReachable = false;
+        for (RegionMapper.Node n : nodes) {
+            if (mapper.canSee(n.x, n.z, ex, ez)) {
+                seesEnd[n.id] = true;
+                endReachable = true;
+            }
+        }
+        if (!endReachable) {
+            return null;
+        }
+
+        double[] costs = new double[nodeCount + 2];
+        int[] parents = new int[nodeCount + 2];
+        boolean[] closed = new boolean[nodeCount + 2];
+        Arrays.fill(costs, Double.MAX_VALUE);
+        Arrays.fill(parents, -1);
+
+        NodeHeap open = new NodeHeap();
+        costs[startId] = 0;
+        for (RegionMapper.Node n : nodes) {
+            if (mapper.canSee(sx, sz, n.x, n.z)) {
+                costs[n.id] = n.distanceTo(sx, sz);
+                parents[n.id] = startId;
+                open.insert(n.id, costs[n.id] + n.distanceTo(ex, ez));
+            }
+        }
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            if (current == endId) {
+                break;
+            }
+            closed[current] = true;
+            RegionMapper.Node node = nodes.get(current);
+
+            if (seesEnd[current]) {
+                double cost = costs[current] + node.distanceTo(ex, ez);
+                if (cost < costs[endId]) {
+                    costs[endId] = cost;
+                    parents[endId] = current;
+                    if (open.contains(endId)) {
+                        open.decreasePriority(endId, cost);
+                    } else {
+                        open.insert(endId, cost);
+                    }
+                }
+            }
+
+            for (RegionMapper.Node neighbour : node.neighbours) {
+                if (closed[neighbour.id]) {
+                    continue;
+                }
+                double cost = costs[current] + node.distanceTo(neighbour.x, neighbour.z);
+                if (cost < costs[neighbour.id]) {
+                    costs[neighbour.id] = cost;
+                    parents[neighbour.id] = current;
+                    double priority = cost + neighbour.distanceTo(ex, ez);
+                    if (open.contains(neighbour.id)) {
+                        open.decreasePriority(neighbour.id, priority);
+                    } else {
+                        open.insert(neighbour.id, priority);
+                    }
+                }
+            }
+        }
+
+        if (parents[endId] < 0) {
+            return null;
+        }
+
+        waypoints.add(end);
+        for (int id = parents[endId]; id != startId; id = parents[id]) {
+            RegionMapper.Node n = nodes.get(id);
+            waypoints.add(new Point(n.x + mapper.mapStartX, mapper.getTopGround(n.x, n.z), n.z + mapper.mapStartZ));
+        }
+        Collections.reverse(waypoints);
+        return waypoints;
+    }
+}
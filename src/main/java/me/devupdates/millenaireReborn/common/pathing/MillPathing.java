@@ -0,0 +1,25 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+/**
+ * Einstiegspunkt des Pathing-Systems
+ */
+public class MillPathing {
+
+    /**
+     * Registriert die Lifecycle-Hooks für Caches und Worker
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> PathRequestService.getInstance().start());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> PathRequestService.getInstance().stop());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PathingSnapshotCache.clearAll());
+
+        // Fertige Pfade werden gesammelt auf dem Server-Thread ausgeliefert
+        ServerTickEvents.END_SERVER_TICK.register(server -> PathRequestService.getInstance().deliverResults());
+
+        MillenaireReborn.LOGGER.info("Pathing system initialized");
+    }
+}
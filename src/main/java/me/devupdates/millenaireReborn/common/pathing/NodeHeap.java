@@ -0,0 +1,128 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import java.util.Arrays;
+
+/**
+ * Indizierter Binär-Heap über Knoten-Indizes der AStarSearch
+ * Unterstützt decrease-key in O(log n) ohne lineare Suche nach dem Knoten
+ */
+final class NodeHeap {
+    private static final int NOT_IN_HEAP = -1;
+
+    private int[] heap = new int[256];
+    private int size;
+
+    // Pro Knoten: aktuelle Position im Heap und Sortierschlüssel (F-Wert)
+    private int[] positions = new int[256];
+    private double[] priorities = new double[256];
+
+    NodeHeap() {
+        Arrays.fill(positions, NOT_IN_HEAP);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int node) {
+        return node < positions.length && positions[node] != NOT_IN_HEAP;
+    }
+
+    /**
+     * Stellt sicher dass Knoten-Indizes bis (exklusive) nodeCount verwaltet werden können
+     */
+    void ensureNodeCapacity(int nodeCount) {
+        if (nodeCount > positions.length) {
+            int newLength = Math.max(nodeCount, positions.length * 2);
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions, newLength);
+            Arrays.fill(positions, oldLength, newLength, NOT_IN_HEAP);
+            priorities = Arrays.copyOf(priorities, newLength);
+        }
+    }
+
+    void insert(int node, double priority) {
+        ensureNodeCapacity(node + 1);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        priorities[node] = priority;
+        heap[size] = node;
+        positions[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Senkt die Priorität eines Knotens im Heap (höhere Werte werden ignoriert)
+     */
+    void decreasePriority(int node, double priority) {
+        if (priority < priorities[node]) {
+            priorities[node] = priority;
+            siftUp(positions[node]);
+        }
+    }
+
+    int poll() {
+        int top = heap[0];
+        positions[top] = NOT_IN_HEAP;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Leert den Heap; nur die tatsächlich belegten Einträge werden zurückgesetzt
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = NOT_IN_HEAP;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        double priority = priorities[node];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            heap[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        positions[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        double priority = priorities[node];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && priorities[heap[right]] < priorities[heap[child]]) {
+                child = right;
+            }
+            if (priority <= priorities[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            positions[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        positions[node] = index;
+    }
+}
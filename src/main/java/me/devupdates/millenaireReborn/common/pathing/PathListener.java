@@ -0,0 +1,16 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.List;
+
+/**
+ * Empfänger eines Suchergebnisses (Ersatz für IAStarPathedEntity)
+ * Beide Methoden werden auf dem Server-Thread aufgerufen.
+ */
+public interface PathListener {
+
+    void onFoundPath(List<Point> path);
+
+    void onNoPathAvailable();
+}
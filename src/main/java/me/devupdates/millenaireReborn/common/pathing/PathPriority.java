@@ -0,0 +1,13 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+/**
+ * Priorität einer Pfadanfrage - die Reihenfolge der Konstanten ist die Abarbeitungsreihenfolge
+ */
+public enum PathPriority {
+    // Kampf und Flucht: muss sofort reagieren
+    COMBAT,
+    // Normale Wege zu Zielen (Goals)
+    GOAL,
+    // Straßenbau (Building.PathCreatorQueue) - darf warten
+    ROAD
+}
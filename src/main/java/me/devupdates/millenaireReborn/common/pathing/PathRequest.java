@@ -0,0 +1,68 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Eine Pfadanfrage im PathRequestService
+ * Mehrere Dorfbewohner mit identischer Anfrage teilen sich eine Instanz (siehe Subscriber).
+ */
+final class PathRequest {
+
+    /**
+     * Schlüssel für die Deduplizierung identischer Anfragen eines Dorfes
+     */
+    record Key(Point village, long start, long end, AStarConfig config) {
+    }
+
+    record Subscriber(UUID owner, PathListener listener) {
+    }
+
+    final Key key;
+    final Point village;
+    final PathPriority priority;
+    final AStarConfig config;
+    final PathingBlockAccess access;
+    final RegionMapper regionMapper;
+    final int startX, startY, startZ;
+    final int endX, endY, endZ;
+    final long submittedNanos;
+
+    // Nur unter dem Lock des Services verändern
+    final List<Subscriber> subscribers = new ArrayList<>(1);
+    boolean queued = true;
+    volatile boolean cancelled = false;
+
+    // Ergebnis, wird vom Worker geschrieben und auf dem Server-Thread gelesen
+    List<Point> result;
+    AStarSearch.Outcome outcome;
+    long waitNanos;
+    long solveNanos;
+
+    PathRequest(Point village, PathPriority priority, AStarConfig config, PathingBlockAccess access, RegionMapper regionMapper,
+                Point start, Point end) {
+        this.village = village;
+        this.priority = priority;
+        this.config = config;
+        this.access = access;
+        this.regionMapper = regionMapper;
+        this.startX = start.x;
+        this.startY = start.y;
+        this.startZ = start.z;
+        this.endX = end.x;
+        this.endY = end.y;
+        this.endZ = end.z;
+        this.key = new Key(village, BlockPos.asLong(start.x, start.y, start.z), BlockPos.asLong(end.x, end.y, end.z), config);
+        this.submittedNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return "PathRequest[" + priority + ", " + startX + "/" + startY + "/" + startZ
+            + " -> " + endX + "/" + endY + "/" + endZ + ", village " + village + "]";
+    }
+}
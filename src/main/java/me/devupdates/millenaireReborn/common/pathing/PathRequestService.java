@@ -0,0 +1,289 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Zentrale Warteschlange für alle Pfadsuchen (Ersatz für den Executors.newCachedThreadPool
+ * des alten AStarPathPlannerJPS)
+ *
+ * - feste Anzahl Worker-Threads, jeder mit eigener AStarSearch
+ * - Priorisierung nach PathPriority, innerhalb einer Priorität reihum pro Dorf
+ * - identische Anfragen eines Dorfes werden zusammengelegt
+ * - pro Dorfbewohner ist höchstens eine Anfrage aktiv, eine neue ersetzt die alte
+ * - Ergebnisse werden auf dem Server-Thread in deliverResults() ausgeliefert
+ */
+public final class PathRequestService {
+    private static PathRequestService instance;
+
+    private final Object lock = new Object();
+    private final EnumMap<PathPriority, LinkedHashMap<Point, ArrayDeque<PathRequest>>> queues = new EnumMap<>(PathPriority.class);
+    private final Map<PathRequest.Key, PathRequest> pendingByKey = new HashMap<>();
+    private final Map<UUID, PathRequest> requestByOwner = new HashMap<>();
+    private final ConcurrentLinkedQueue<PathRequest> completed = new ConcurrentLinkedQueue<>();
+    private final PathingMetrics metrics = new PathingMetrics();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private boolean running = false;
+    // Verhindert, dass Worker eines vorherigen Serverlaufs nach einem Neustart weiterlaufen
+    private int generation = 0;
+
+    private PathRequestService() {
+        for (PathPriority priority : PathPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+        }
+    }
+
+    public static PathRequestService getInstance() {
+        if (instance == null) {
+            instance = new PathRequestService();
+        }
+        return instance;
+    }
+
+    public PathingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Startet die Worker (beim Serverstart)
+     */
+    void start() {
+        int workerGeneration;
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            workerGeneration = ++generation;
+        }
+
+        int threads = MillConfig.pathingThreads > 0
+            ? MillConfig.pathingThreads
+            : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> workerLoop(workerGeneration), "Millenaire Pathing #" + (i + 1));
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+            workers.add(worker);
+        }
+        MillenaireReborn.LOGGER.info("Started {} pathing worker threads", threads);
+    }
+
+    /**
+     * Stoppt die Worker und verwirft alle offenen Anfragen (beim Serverstopp)
+     */
+    void stop() {
+        synchronized (lock) {
+            running = false;
+            // Auch laufende Anfragen: ein Worker, der noch zu Ende rechnet, darf nichts mehr ausliefern
+            for (PathRequest request : requestByOwner.values()) {
+                request.cancelled = true;
+            }
+            for (LinkedHashMap<Point, ArrayDeque<PathRequest>> villageQueues : queues.values()) {
+                villageQueues.clear();
+            }
+            pendingByKey.clear();
+            requestByOwner.clear();
+            metrics.queueDepth.set(0);
+            lock.notifyAll();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        workers.clear();
+        completed.clear();
+    }
+
+    /**
+     * Stellt eine Pfadsuche in die Warteschlange
+     *
+     * @param owner    Dorfbewohner, dessen vorherige Anfrage hiermit ersetzt wird
+     * @param village  Dorf für die Fairness zwischen Dörfern (z.B. Position des Rathauses)
+     * @param access   Blockzugriff für den Worker - muss thread-sicher sein (PathingWorldView)
+     */
+    public void submit(UUID owner, Point village, PathPriority priority, PathingBlockAccess access,
+                       Point start, Point end, AStarConfig config, PathListener listener) {
+        submit(owner, village, priority, access, null, start, end, config, listener);
+    }
+
+    /**
+     * Wie submit(), plant aber innerhalb des Dorfgebiets zuerst über den Knoten-Graphen
+     * des RegionMapper (siehe HierarchicalPathPlanner)
+     */
+    public void submit(UUID owner, Point village, PathPriority priority, PathingBlockAccess access, RegionMapper regionMapper,
+                       Point start, Point end, AStarConfig config, PathListener listener) {
+        PathRequest request = new PathRequest(village, priority, config, access, regionMapper, start, end);
+
+        synchronized (lock) {
+            removeSubscriber(owner);
+
+            PathRequest existing = pendingByKey.get(request.key);
+            if (existing != null && existing.queued && !existing.cancelled) {
+                existing.subscribers.add(new PathRequest.Subscriber(owner, listener));
+                requestByOwner.put(owner, existing);
+                metrics.deduplicated.increment();
+                return;
+            }
+
+            request.subscribers.add(new PathRequest.Subscriber(owner, listener));
+            requestByOwner.put(owner, request);
+            pendingByKey.put(request.key, request);
+            queues.get(priority).computeIfAbsent(village, v -> new ArrayDeque<>()).add(request);
+            metrics.onQueued();
+            lock.notify();
+        }
+    }
+
+    /**
+     * Bricht die Anfrage eines Dorfbewohners ab (z.B. bei Zielwechsel)
+     * Ein bereits laufender Worker rechnet zu Ende, das Ergebnis wird aber verworfen.
+     */
+    public void cancel(UUID owner) {
+        synchronized (lock) {
+            removeSubscriber(owner);
+        }
+    }
+
+    public boolean isBusy(UUID owner) {
+        synchronized (lock) {
+            return requestByOwner.containsKey(owner);
+        }
+    }
+
+    private void removeSubscriber(UUID owner) {
+        PathRequest previous = requestByOwner.remove(owner);
+        if (previous == null) {
+            return;
+        }
+        previous.subscribers.removeIf(subscriber -> subscriber.owner().equals(owner));
+        if (previous.subscribers.isEmpty()) {
+            previous.cancelled = true;
+            pendingByKey.remove(previous.key, previous);
+            metrics.cancelled.increment();
+            if (previous.queued) {
+                // Aus der Warteschlange nehmen, damit kein Worker Zeit darauf verwendet
+                LinkedHashMap<Point, ArrayDeque<PathRequest>> villageQueues = queues.get(previous.priority);
+                ArrayDeque<PathRequest> queue = villageQueues.get(previous.village);
+                if (queue != null && queue.remove(previous)) {
+                    previous.queued = false;
+                    metrics.onDequeued();
+                    if (queue.isEmpty()) {
+                        villageQueues.remove(previous.village);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Nächste Anfrage: höchste Priorität zuerst, innerhalb einer Priorität reihum pro Dorf
+     */
+    private PathRequest takeNext(int workerGeneration) throws InterruptedException {
+        synchronized (lock) {
+            while (running && generation == workerGeneration) {
+                for (LinkedHashMap<Point, ArrayDeque<PathRequest>> villageQueues : queues.values()) {
+                    Iterator<Map.Entry<Point, ArrayDeque<PathRequest>>> it = villageQueues.entrySet().iterator();
+                    if (!it.hasNext()) {
+                        continue;
+                    }
+                    Map.Entry<Point, ArrayDeque<PathRequest>> entry = it.next();
+                    Point village = entry.getKey();
+                    ArrayDeque<PathRequest> queue = entry.getValue();
+                    PathRequest request = queue.poll();
+                    it.remove();
+                    if (!queue.isEmpty()) {
+                        // Dorf ans Ende der Runde stellen
+                        villageQueues.put(village, queue);
+                    }
+                    request.queued = false;
+                    pendingByKey.remove(request.key, request);
+                    metrics.onDequeued();
+                    return request;
+                }
+                lock.wait();
+            }
+            return null;
+        }
+    }
+
+    private void workerLoop(int workerGeneration) {
+        AStarSearch search = new AStarSearch();
+        try {
+            PathRequest request;
+            while ((request = takeNext(workerGeneration)) != null) {
+                long start = System.nanoTime();
+                request.waitNanos = start - request.submittedNanos;
+                try {
+                    int startY = AStarRules.findViableStartY(request.access, request.startX, request.startY, request.startZ, request.config);
+                    long deadline = start + AStarSearch.SEARCH_TIME_LIMIT_MS * 1_000_000L;
+                    if (request.regionMapper != null) {
+                        request.result = HierarchicalPathPlanner.findPath(request.regionMapper, request.access, search,
+                            new Point(request.startX, startY, request.startZ), new Point(request.endX, request.endY, request.endZ),
+                            request.config, deadline);
+                    } else {
+                        request.result = search.findPath(request.access, request.startX, startY, request.startZ,
+                            request.endX, request.endY, request.endZ, request.config, deadline);
+                    }
+                    request.outcome = search.getLastOutcome();
+                } catch (Exception e) {
+                    MillenaireReborn.LOGGER.error("Exception while calculating a path for {}", request, e);
+                    request.result = null;
+                    request.outcome = AStarSearch.Outcome.NO_PATH;
+                }
+                request.solveNanos = System.nanoTime() - start;
+                metrics.onSolved(request);
+                synchronized (lock) {
+                    if (!running || generation != workerGeneration || request.cancelled) {
+                        // Server inzwischen gestoppt (oder neu gestartet): Ergebnis gehört zur alten Welt
+                        continue;
+                    }
+                    completed.add(request);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Liefert fertige Ergebnisse an die Dorfbewohner aus - einmal pro Server-Tick aufrufen
+     */
+    void deliverResults() {
+        PathRequest request;
+        while ((request = completed.poll()) != null) {
+            List<PathRequest.Subscriber> subscribers;
+            synchronized (lock) {
+                if (request.cancelled) {
+                    continue;
+                }
+                subscribers = new ArrayList<>(request.subscribers);
+                for (PathRequest.Subscriber subscriber : subscribers) {
+                    requestByOwner.remove(subscriber.owner(), request);
+                }
+            }
+            for (PathRequest.Subscriber subscriber : subscribers) {
+                if (request.result != null) {
+                    // Jeder Empfänger bekommt eine eigene Liste, da Pfade beim Ablaufen verändert werden
+                    subscriber.listener().onFoundPath(new ArrayList<>(request.result));
+                } else {
+                    subscriber.listener().onNoPathAvailable();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockView;
+
+/**
+ * Lesezugriff auf Blöcke für die Pfadsuche
+ * Entkoppelt die Suche von der konkreten Welt-Implementierung
+ */
+@FunctionalInterface
+public interface PathingBlockAccess {
+
+    BlockState getBlockState(int x, int y, int z);
+
+    /**
+     * Direkter Zugriff auf eine BlockView - nur auf dem Server-Thread verwenden!
+     */
+    static PathingBlockAccess of(BlockView view) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        return (x, y, z) -> view.getBlockState(pos.set(x, y, z));
+    }
+}
@@ -0,0 +1,112 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zähler für den PathRequestService (Warteschlange, Warte- und Rechenzeiten, Timeouts)
+ * Alle Methoden sind thread-sicher.
+ */
+public final class PathingMetrics {
+
+    /**
+     * Statistik pro AStarConfig (Konfigurationen sind Konstanten, daher Identitäts-Vergleich)
+     */
+    public static final class ConfigStats {
+        final LongAdder searches = new LongAdder();
+        final LongAdder found = new LongAdder();
+        final LongAdder noPath = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder solveNanos = new LongAdder();
+        final LongAccumulator maxSolveNanos = new LongAccumulator(Math::max, 0);
+
+        public long getSearches() {
+            return searches.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public double getAverageSolveMillis() {
+            long count = searches.sum();
+            return count == 0 ? 0 : solveNanos.sum() / 1_000_000.0 / count;
+        }
+    }
+
+    final LongAdder submitted = new LongAdder();
+    final LongAdder deduplicated = new LongAdder();
+    final LongAdder cancelled = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder waitNanos = new LongAdder();
+    final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    final AtomicLong queueDepth = new AtomicLong();
+    final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    private final Map<AStarConfig, ConfigStats> configStats = new ConcurrentHashMap<>();
+
+    void onQueued() {
+        submitted.increment();
+        maxQueueDepth.accumulate(queueDepth.incrementAndGet());
+    }
+
+    void onDequeued() {
+        queueDepth.decrementAndGet();
+    }
+
+    void onSolved(PathRequest request) {
+        completed.increment();
+        waitNanos.add(request.waitNanos);
+        maxWaitNanos.accumulate(request.waitNanos);
+        MillProfiler.record(ProfilerSection.PATHING, request.village, request.priority.name(), request.solveNanos);
+
+        ConfigStats stats = configStats.computeIfAbsent(request.config, c -> new ConfigStats());
+        stats.searches.increment();
+        stats.solveNanos.add(request.solveNanos);
+        stats.maxSolveNanos.accumulate(request.solveNanos);
+        switch (request.outcome) {
+            case FOUND -> stats.found.increment();
+            case TIMED_OUT, NODE_LIMIT -> stats.timeouts.increment();
+            default -> stats.noPath.increment();
+        }
+    }
+
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public Map<AStarConfig, ConfigStats> getConfigStats() {
+        return configStats;
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung (für Log und Debug-Befehle)
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Pathing: queue %d (max %d), submitted %d, deduplicated %d, cancelled %d, completed %d",
+            queueDepth.get(), maxQueueDepth.get(), submitted.sum(), deduplicated.sum(), cancelled.sum(), completed.sum()));
+        lines.add(String.format("Pathing wait: avg %.2f ms, max %.2f ms",
+            getAverageWaitMillis(), maxWaitNanos.get() / 1_000_000.0));
+        for (Map.Entry<AStarConfig, ConfigStats> entry : configStats.entrySet()) {
+            ConfigStats stats = entry.getValue();
+            lines.add(String.format("  %s: %d searches, %d found, %d no path, %d timeouts, solve avg %.2f ms / max %.2f ms",
+                entry.getKey(), stats.searches.sum(), stats.found.sum(), stats.noPath.sum(), stats.timeouts.sum(),
+                stats.getAverageSolveMillis(), stats.maxSolveNanos.get() / 1_000_000.0));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,237 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pro Dorf zwischengespeicherte Chunk-Kopien für die Pfadsuche
+ *
+ * Alle Methoden dürfen nur auf dem Server-Thread aufgerufen werden. Geänderte Sektionen
+ * werden über onBlockChanged als veraltet markiert und erst beim nächsten getView neu
+ * kopiert; unveränderte Sektionen werden zwischen aufeinanderfolgenden Views geteilt.
+ */
+public final class PathingSnapshotCache {
+    private static final Map<ServerWorld, WorldCaches> CACHES = new HashMap<>();
+
+    /**
+     * Caches einer Welt, zusätzlich nach Chunk einsortiert - onBlockChanged läuft bei jeder
+     * Blockänderung und soll nicht alle Dörfer durchgehen
+     */
+    private static final class WorldCaches {
+        final Map<Point, PathingSnapshotCache> byVillage = new HashMap<>();
+        final Long2ObjectOpenHashMap<List<PathingSnapshotCache>> byChunk = new Long2ObjectOpenHashMap<>();
+    }
+
+    private final ServerWorld world;
+    private final WorldCaches owner;
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final LongOpenHashSet emptySections = new LongOpenHashSet();
+    private final LongOpenHashSet dirtySections = new LongOpenHashSet();
+    // Chunks im Bereich, die beim Erfassen noch nicht geladen waren
+    private final LongOpenHashSet missingChunks = new LongOpenHashSet();
+
+    private boolean hasArea = false;
+    private int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+    private int minSectionY, maxSectionY;
+
+    private PathingWorldView view;
+
+    private PathingSnapshotCache(ServerWorld world, WorldCaches owner) {
+        this.world = world;
+        this.owner = owner;
+    }
+
+    /**
+     * Liefert den Cache eines Dorfes (wird bei Bedarf angelegt)
+     */
+    public static PathingSnapshotCache forVillage(ServerWorld world, Point villagePos) {
+        WorldCaches worldCaches = CACHES.computeIfAbsent(world, w -> new WorldCaches());
+        return worldCaches.byVillage.computeIfAbsent(villagePos, p -> new PathingSnapshotCache(world, worldCaches));
+    }
+
+    public static void removeVillage(ServerWorld world, Point villagePos) {
+        WorldCaches worldCaches = CACHES.get(world);
+        if (worldCaches == null) {
+            return;
+        }
+        PathingSnapshotCache cache = worldCaches.byVillage.remove(villagePos);
+        if (cache != null && cache.hasArea) {
+            for (int chunkX = cache.minChunkX; chunkX <= cache.maxChunkX; chunkX++) {
+                for (int chunkZ = cache.minChunkZ; chunkZ <= cache.maxChunkZ; chunkZ++) {
+                    long key = ChunkPos.toLong(chunkX, chunkZ);
+                    List<PathingSnapshotCache> caches = worldCaches.byChunk.get(key);
+                    if (caches != null && caches.remove(cache) && caches.isEmpty()) {
+                        worldCaches.byChunk.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Wird bei jeder Blockänderung in einer Server-Welt aufgerufen (siehe ServerWorldMixin)
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos) {
+        WorldCaches worldCaches = CACHES.get(world);
+        if (worldCaches == null) {
+            return;
+        }
+        int chunkX = pos.getX() >> 4;
+        int sectionY = pos.getY() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        List<PathingSnapshotCache> caches = worldCaches.byChunk.get(ChunkPos.toLong(chunkX, chunkZ));
+        if (caches == null) {
+            return;
+        }
+        for (PathingSnapshotCache cache : caches) {
+            if (cache.containsSection(chunkX, sectionY, chunkZ)) {
+                cache.dirtySections.add(ChunkSectionPos.asLong(chunkX, sectionY, chunkZ));
+            }
+        }
+    }
+
+    static void clearAll() {
+        CACHES.clear();
+    }
+
+    /**
+     * Liefert eine Momentaufnahme, die mindestens den angegebenen Bereich abdeckt
+     * Solange sich nichts geändert hat, wird dieselbe Instanz wiederverwendet.
+     */
+    public PathingWorldView getView(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (!world.getServer().isOnThread()) {
+            throw new IllegalStateException("Pathing snapshots must be captured on the server thread");
+        }
+
+        if (!hasArea) {
+            minChunkX = minX >> 4;
+            minChunkZ = minZ >> 4;
+            maxChunkX = maxX >> 4;
+            maxChunkZ = maxZ >> 4;
+            minSectionY = minY >> 4;
+            maxSectionY = maxY >> 4;
+            hasArea = true;
+            captureArea();
+        } else if (view == null || !view.covers(minX, minY, minZ, maxX, maxY, maxZ)) {
+            minChunkX = Math.min(minChunkX, minX >> 4);
+            minChunkZ = Math.min(minChunkZ, minZ >> 4);
+            maxChunkX = Math.max(maxChunkX, maxX >> 4);
+            maxChunkZ = Math.max(maxChunkZ, maxZ >> 4);
+            minSectionY = Math.min(minSectionY, minY >> 4);
+            maxSectionY = Math.max(maxSectionY, maxY >> 4);
+            captureArea();
+        }
+
+        if (!missingChunks.isEmpty()) {
+            retryMissingChunks();
+        }
+
+        if (!dirtySections.isEmpty()) {
+            LongIterator it = dirtySections.iterator();
+            while (it.hasNext()) {
+                long key = it.nextLong();
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(
+                    ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackZ(key));
+                if (chunk != null) {
+                    captureSection(chunk, ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackY(key), ChunkSectionPos.unpackZ(key));
+                }
+            }
+            dirtySections.clear();
+            view = null;
+        }
+
+        if (view == null) {
+            view = new PathingWorldView(new Long2ObjectOpenHashMap<>(sections), new LongOpenHashSet(emptySections),
+                minChunkX << 4, minSectionY << 4, minChunkZ << 4,
+                (maxChunkX << 4) + 15, (maxSectionY << 4) + 15, (maxChunkZ << 4) + 15);
+        }
+        return view;
+    }
+
+    private boolean containsSection(int chunkX, int sectionY, int chunkZ) {
+        return hasArea && chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ
+            && sectionY >= minSectionY && sectionY <= maxSectionY;
+    }
+
+    /**
+     * Erfasst alle noch fehlenden Sektionen im aktuellen Bereich
+     */
+    private void captureArea() {
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                // Der Bereich wächst nur, daher genügt das Eintragen der neuen Chunks
+                List<PathingSnapshotCache> caches = owner.byChunk.computeIfAbsent(ChunkPos.toLong(chunkX, chunkZ), k -> new ArrayList<>(1));
+                if (!caches.contains(this)) {
+                    caches.add(this);
+                }
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    missingChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+                    continue;
+                }
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    long key = ChunkSectionPos.asLong(chunkX, sectionY, chunkZ);
+                    if (!sections.containsKey(key) && !emptySections.contains(key)) {
+                        captureSection(chunk, chunkX, sectionY, chunkZ);
+                    }
+                }
+            }
+        }
+        view = null;
+    }
+
+    private void retryMissingChunks() {
+        LongIterator it = missingChunks.iterator();
+        while (it.hasNext()) {
+            long chunkKey = it.nextLong();
+            int chunkX = ChunkPos.getPackedX(chunkKey);
+            int chunkZ = ChunkPos.getPackedZ(chunkKey);
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+            if (chunk != null) {
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    captureSection(chunk, chunkX, sectionY, chunkZ);
+                }
+                it.remove();
+                view = null;
+            }
+        }
+    }
+
+    private void captureSection(WorldChunk chunk, int chunkX, int sectionY, int chunkZ) {
+        long key = ChunkSectionPos.asLong(chunkX, sectionY, chunkZ);
+        int index = chunk.sectionCoordToIndex(sectionY);
+
+        if (index < 0) {
+            // Unterhalb der Welt: bleibt unpassierbar
+            return;
+        }
+        if (index >= chunk.countVerticalSections()) {
+            emptySections.add(key);
+            return;
+        }
+
+        ChunkSection section = chunk.getSection(index);
+        if (section.isEmpty()) {
+            sections.remove(key);
+            emptySections.add(key);
+        } else {
+            emptySections.remove(key);
+            sections.put(key, section.getBlockStateContainer().copy());
+        }
+    }
+}
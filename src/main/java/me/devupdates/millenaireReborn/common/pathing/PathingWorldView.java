@@ -0,0 +1,58 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * Unveränderliche Momentaufnahme der Chunk-Sektionen eines Suchbereichs
+ *
+ * Die Sektionen werden auf dem Server-Thread als palettierte Kopien erstellt
+ * (siehe PathingSnapshotCache). Worker-Threads lesen danach ausschließlich aus
+ * diesen Kopien, es findet kein Weltzugriff außerhalb des Server-Threads statt.
+ */
+public final class PathingWorldView implements PathingBlockAccess {
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+    // Nicht erfasste Bereiche gelten als unpassierbar, damit die Suche nicht hinausläuft
+    private static final BlockState OUTSIDE = Blocks.BEDROCK.getDefaultState();
+
+    private final Long2ObjectMap<PalettedContainer<BlockState>> sections;
+    private final LongSet emptySections;
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+    PathingWorldView(Long2ObjectMap<PalettedContainer<BlockState>> sections, LongSet emptySections,
+                     int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.sections = sections;
+        this.emptySections = emptySections;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        long key = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        PalettedContainer<BlockState> container = sections.get(key);
+        if (container != null) {
+            return container.get(x & 15, y & 15, z & 15);
+        }
+        return emptySections.contains(key) ? AIR : OUTSIDE;
+    }
+
+    /**
+     * Prüft ob der Bereich (in Blockkoordinaten, inklusive) vollständig erfasst ist
+     */
+    public boolean covers(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        return fromX >= minX && fromY >= minY && fromZ >= minZ && toX <= maxX && toY <= maxY && toZ <= maxZ;
+    }
+
+    public int getSectionCount() {
+        return sections.size() + emptySections.size();
+    }
+}
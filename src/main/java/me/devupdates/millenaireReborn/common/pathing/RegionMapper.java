@@ -0,0 +1,821 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Begehbarkeits-Graph eines Dorfgebiets (portiert vom alten Mod)
+ *
+ * Aus dem TerrainGrid werden Verbindungen zwischen Nachbarspalten berechnet, daraus Eck-Knoten
+ * abgeleitet und per Sichtlinie verbunden. Zusammenhängende Knoten bilden Regionen, die für
+ * Erreichbarkeitsprüfungen und den HierarchicalPathPlanner genutzt werden.
+ *
+ * Ein fertig aufgebauter RegionMapper wird nicht mehr verändert - Änderungen erzeugen über
+ * repair() eine neue Instanz, die danach ausgetauscht wird. Dadurch können Worker-Threads
+ * gefahrlos lesen.
+ */
+public class RegionMapper {
+    private static final int MIN_SIZE_FOR_REGION_BRIDGING = 200;
+    // Knoten-Erkennung betrachtet Nachbarn und verschiebt Knoten um bis zu einen Block,
+    // eine geänderte Verbindung wirkt sich daher bis zu drei Zellen weit auf die Knoten aus
+    private static final int NODE_MARGIN = 3;
+
+    private static final AStarConfig JPS_CONFIG = new AStarConfig(true, false, false, false, true);
+
+    static final class Node {
+        int x;
+        int z;
+        final int cornerSide;
+        int id;
+        int region = 0;
+        final List<Node> neighbours = new ArrayList<>();
+
+        Node(int x, int z, int cornerSide) {
+            this.x = x;
+            this.z = z;
+            this.cornerSide = cornerSide;
+        }
+
+        int distanceTo(int ox, int oz) {
+            int dx = ox - x;
+            int dz = oz - z;
+            return (int) Math.sqrt(dx * dx + dz * dz);
+        }
+
+        @Override
+        public String toString() {
+            return "Node " + id + ": " + x + "/" + z + " group: " + region + " neighbours: " + neighbours.size();
+        }
+    }
+
+    // Verbindungs-Bits pro Zelle (Index x * width + z)
+    static final byte TOP = 0x1;     // x - 1
+    static final byte BOTTOM = 0x2;  // x + 1
+    static final byte LEFT = 0x4;    // z - 1
+    static final byte RIGHT = 0x8;   // z + 1
+
+    // Rückgabe von computeConnections()
+    static final int CONNECTIONS_ADDED = 0x1;
+    static final int CONNECTIONS_REMOVED = 0x2;
+
+    int mapStartX, mapStartZ;
+    int length, width;
+
+    byte[] connections;
+    short[] topGround;
+    short[] spaceAbove;
+    short[] regions;
+    short thRegion;
+    int regionCount;
+    // Knoten-Regionen, die per Pfadsuche mit der Rathaus-Region zusammengelegt wurden
+    int[] bridgedRegions = new int[0];
+    List<Node> nodes;
+
+    public RegionMapper() {
+    }
+
+    /**
+     * Kopie als Grundlage für repair() - die flachen Arrays werden einmal geklont,
+     * die Knoten samt Nachbarschaften übernommen
+     */
+    private RegionMapper(RegionMapper source) {
+        this.mapStartX = source.mapStartX;
+        this.mapStartZ = source.mapStartZ;
+        this.length = source.length;
+        this.width = source.width;
+        this.connections = source.connections.clone();
+        this.topGround = source.topGround.clone();
+        this.spaceAbove = source.spaceAbove.clone();
+        this.regions = source.regions.clone();
+        this.thRegion = source.thRegion;
+        this.regionCount = source.regionCount;
+        this.bridgedRegions = source.bridgedRegions;
+
+        Map<Node, Node> copies = new IdentityHashMap<>();
+        this.nodes = new ArrayList<>(source.nodes.size());
+        for (Node node : source.nodes) {
+            Node copy = new Node(node.x, node.z, node.cornerSide);
+            copy.id = node.id;
+            copy.region = node.region;
+            copies.put(node, copy);
+            this.nodes.add(copy);
+        }
+        for (Node node : source.nodes) {
+            Node copy = copies.get(node);
+            for (Node neighbour : node.neighbours) {
+                copy.neighbours.add(copies.get(neighbour));
+            }
+        }
+    }
+
+    /**
+     * Baut den kompletten Graphen für ein Dorfgebiet auf
+     *
+     * @param access Blockzugriff für das Zusammenführen großer Regionen per Pfadsuche (darf null sein)
+     */
+    public boolean createConnectionsTable(TerrainGrid grid, Point thStanding, PathingBlockAccess access) {
+        long startTime = System.nanoTime();
+
+        mapStartX = grid.getMapStartX();
+        mapStartZ = grid.getMapStartZ();
+        length = grid.getLength();
+        width = grid.getWidth();
+        connections = new byte[length * width];
+        regions = new short[length * width];
+        topGround = new short[length * width];
+        spaceAbove = new short[length * width];
+        nodes = new ArrayList<>();
+
+        computeConnections(grid, 0, 0, length - 1, width - 1);
+        buildNodes(0, 0, length - 1, width - 1);
+        linkNodes(nodes, nodes);
+        int nodeGroups = groupNodes();
+        floodRegions();
+        updateThRegion(thStanding);
+        if (access != null) {
+            bridgeRegions(thStanding, nodeGroups, null, null, access);
+        }
+
+        if (MillConfig.enableDebugMode) {
+            MillenaireReborn.LOGGER.debug("Node graph complete. Size: {} Time taken: {} ms",
+                nodes.size(), (System.nanoTime() - startTime) / 1_000_000.0);
+        }
+        return true;
+    }
+
+    /**
+     * Erzeugt einen neuen RegionMapper, in dem nur der angegebene Bereich (Weltkoordinaten)
+     * neu berechnet wurde - z.B. wenn eine BuildingLocation hinzugefügt oder entfernt wurde
+     */
+    public RegionMapper repair(TerrainGrid grid, int minX, int minZ, int maxX, int maxZ, Point thStanding, PathingBlockAccess access) {
+        List<int[]> areas = new ArrayList<>(1);
+        areas.add(new int[] {minX, minZ, maxX, maxZ});
+        return repair(grid, areas, thStanding, access);
+    }
+
+    /**
+     * Wie repair(), aber für mehrere Bereiche (Weltkoordinaten, je {minX, minZ, maxX, maxZ})
+     * auf einmal, z.B. alle seit dem letzten Durchlauf geänderten Chunks
+     */
+    public RegionMapper repair(TerrainGrid grid, List<int[]> worldAreas, Point thStanding, PathingBlockAccess access) {
+        if (grid.getMapStartX() != mapStartX || grid.getMapStartZ() != mapStartZ
+            || grid.getLength() != length || grid.getWidth() != width) {
+            // Dorfgebiet hat sich verändert: kompletter Neuaufbau
+            RegionMapper rebuilt = new RegionMapper();
+            rebuilt.createConnectionsTable(grid, thStanding, access);
+            return rebuilt;
+        }
+
+        List<int[]> areas = new ArrayList<>(worldAreas.size());
+        for (int[] area : worldAreas) {
+            int x0 = Math.max(0, area[0] - mapStartX - 1);
+            int z0 = Math.max(0, area[1] - mapStartZ - 1);
+            int x1 = Math.min(length - 1, area[2] - mapStartX + 1);
+            int z1 = Math.min(width - 1, area[3] - mapStartZ + 1);
+            if (x0 <= x1 && z0 <= z1) {
+                areas.add(new int[] {x0, z0, x1, z1});
+            }
+        }
+        if (areas.isEmpty()) {
+            return this;
+        }
+
+        long startTime = System.nanoTime();
+        RegionMapper repaired = new RegionMapper(this);
+
+        int changes = 0;
+        for (int[] area : areas) {
+            changes |= repaired.computeConnections(grid, area[0], area[1], area[2], area[3]);
+        }
+        if (changes == 0) {
+            // Nur Höhen ohne Auswirkung auf die Begehbarkeit geändert
+            return repaired;
+        }
+
+        for (int[] area : areas) {
+            repaired.rebuildNodesInArea(area[0], area[1], area[2], area[3], (changes & CONNECTIONS_ADDED) != 0);
+        }
+        // Neue Knoten haben noch Region 0
+        int[] previousRegionOfNode = new int[repaired.nodes.size()];
+        for (Node n : repaired.nodes) {
+            previousRegionOfNode[n.id] = n.region;
+        }
+        int nodeGroups = repaired.groupNodes();
+
+        // Solange nur Verbindungen hinzugekommen sind, können Regionen nur verschmelzen -
+        // dann genügt es, die Zellen in den Bereichen neu zu fluten. Sonst könnten Zellen
+        // außerhalb abgeschnitten worden sein, dann wird komplett (aber ohne Knotenaufbau) geflutet.
+        short[] regionMapping = repaired.mapOldRegions(this, previousRegionOfNode);
+        boolean patched = regionMapping != null && (changes & CONNECTIONS_REMOVED) == 0;
+        if (patched) {
+            repaired.patchRegions(regionMapping, areas);
+        } else {
+            repaired.floodRegions();
+        }
+        repaired.updateThRegion(thStanding);
+        if (access != null) {
+            repaired.bridgeRegions(thStanding, nodeGroups, regionMapping, bridgedRegions, access);
+        }
+
+        if (MillConfig.enableDebugMode) {
+            MillenaireReborn.LOGGER.debug("Node graph repaired for {} areas ({}). Size: {} Time taken: {} ms",
+                areas.size(), patched ? "patched" : "reflooded", repaired.nodes.size(),
+                (System.nanoTime() - startTime) / 1_000_000.0);
+        }
+        return repaired;
+    }
+
+    private static boolean isConnected(int y, int space, int ny, int nspace) {
+        if (ny == y && nspace > 1) {
+            return true;
+        } else if (ny == y - 1 && nspace > 2) {
+            return true;
+        }
+        return ny == y + 1 && nspace > 1 && space > 2;
+    }
+
+    int index(int x, int z) {
+        return x * width + z;
+    }
+
+    boolean has(int x, int z, byte direction) {
+        return (connections[x * width + z] & direction) != 0;
+    }
+
+    public int getTopGround(int x, int z) {
+        return topGround[x * width + z];
+    }
+
+    /**
+     * Setzt eine Verbindung (in beide Richtungen) und meldet, ob sie hinzugekommen oder weggefallen ist
+     */
+    private int setConnection(int index, byte direction, int neighbourIndex, byte opposite, boolean connected) {
+        boolean was = (connections[index] & direction) != 0;
+        if (connected) {
+            connections[index] |= direction;
+            connections[neighbourIndex] |= opposite;
+        } else {
+            connections[index] &= (byte) ~direction;
+            connections[neighbourIndex] &= (byte) ~opposite;
+        }
+        if (was == connected) {
+            return 0;
+        }
+        return connected ? CONNECTIONS_ADDED : CONNECTIONS_REMOVED;
+    }
+
+    /**
+     * Berechnet die Verbindungen aller Zellen im Bereich (Kartenkoordinaten, inklusive)
+     * Kanten zu den Nachbarn unterhalb/rechts des Bereichs werden mit aktualisiert.
+     *
+     * @return CONNECTIONS_ADDED / CONNECTIONS_REMOVED, je nachdem was sich geändert hat
+     */
+    int computeConnections(TerrainGrid grid, int x0, int z0, int x1, int z1) {
+        for (int i = x0; i <= x1; i++) {
+            for (int j = z0; j <= z1; j++) {
+                topGround[index(i, j)] = (short) grid.getTopGround(i, j);
+                spaceAbove[index(i, j)] = (short) grid.getSpaceAbove(i, j);
+            }
+        }
+
+        int changes = 0;
+        int maxI = Math.min(length - 1, x1 + 1);
+        int maxJ = Math.min(width - 1, z1 + 1);
+        for (int i = x0; i <= maxI; i++) {
+            for (int j = z0; j <= maxJ; j++) {
+                int y = grid.getTopGround(i, j);
+                int space = grid.getSpaceAbove(i, j);
+                boolean walkable = !grid.isDanger(i, j) && !grid.isWater(i, j) && space > 1;
+                int index = index(i, j);
+
+                if (i > 0 && (j <= z1 || i <= x1)) {
+                    boolean connected = walkable && isConnected(y, space, grid.getTopGround(i - 1, j), grid.getSpaceAbove(i - 1, j));
+                    changes |= setConnection(index, TOP, index - width, BOTTOM, connected);
+                }
+                if (j > 0 && (i <= x1 || j <= z1)) {
+                    boolean connected = walkable && isConnected(y, space, grid.getTopGround(i, j - 1), grid.getSpaceAbove(i, j - 1));
+                    changes |= setConnection(index, LEFT, index - 1, RIGHT, connected);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Sucht Eck-Knoten im Bereich (Kartenkoordinaten, inklusive) und hängt sie an die Knotenliste an
+     *
+     * @return die neu angelegten Knoten
+     */
+    List<Node> buildNodes(int x0, int z0, int x1, int z1) {
+        List<Node> created = new ArrayList<>();
+        for (int i = x0; i <= x1; i++) {
+            for (int j = z0; j <= z1; j++) {
+                int cornerSide = 0;
+                if (i > 0 && j > 0 && has(i, j, TOP) && has(i, j, LEFT) && (!has(i - 1, j, LEFT) || !has(i, j - 1, TOP))) {
+                    cornerSide |= 0x1;
+                }
+                if (i < length - 1 && j > 0 && has(i, j, BOTTOM) && has(i, j, LEFT) && (!has(i + 1, j, LEFT) || !has(i, j - 1, BOTTOM))) {
+                    cornerSide |= 0x2;
+                }
+                if (i > 0 && j < width - 1 && has(i, j, TOP) && has(i, j, RIGHT) && (!has(i - 1, j, RIGHT) || !has(i, j + 1, TOP))) {
+                    cornerSide |= 0x4;
+                }
+                if (i < length - 1 && j < width - 1 && has(i, j, BOTTOM) && has(i, j, RIGHT) && (!has(i + 1, j, RIGHT) || !has(i, j + 1, BOTTOM))) {
+                    cornerSide |= 0x8;
+                }
+                if (cornerSide != 0) {
+                    created.add(new Node(i, j, cornerSide));
+                }
+            }
+        }
+
+        for (Node n : created) {
+            shiftNode(n);
+        }
+
+        // Doppelte Knoten entfernen (auch gegenüber bereits vorhandenen)
+        IntOpenHashSet positions = new IntOpenHashSet();
+        for (Node n : nodes) {
+            positions.add(packPosition(n.x, n.z));
+        }
+        List<Node> unique = new ArrayList<>(created.size());
+        for (Node n : created) {
+            if (positions.add(packPosition(n.x, n.z))) {
+                n.id = nodes.size();
+                nodes.add(n);
+                unique.add(n);
+            }
+        }
+        return unique;
+    }
+
+    private static int packPosition(int x, int z) {
+        return (x << 16) | (z & 0xFFFF);
+    }
+
+    /**
+     * Rückt Knoten einen Block von der Ecke weg, damit Dorfbewohner nicht an Kanten hängen bleiben
+     */
+    private void shiftNode(Node n) {
+        int x = n.x;
+        int z = n.z;
+        switch (n.cornerSide) {
+            case 1 -> {
+                if (x < length - 1 && z < width - 1 && has(x, z, BOTTOM) && has(x, z, RIGHT) && has(x, z + 1, BOTTOM) && has(x + 1, z, RIGHT)) {
+                    tryShift(n, x + 1, z + 1, x + 1 < length - 1 && z + 1 < width - 1 && has(x + 1, z + 1, BOTTOM) && has(x + 1, z + 1, RIGHT));
+                }
+            }
+            case 2 -> {
+                if (x > 0 && z < width - 1 && has(x, z, TOP) && has(x, z, RIGHT) && has(x, z + 1, TOP) && has(x - 1, z, RIGHT)) {
+                    tryShift(n, x - 1, z + 1, x - 1 > 0 && z + 1 < width - 1 && has(x - 1, z + 1, TOP) && has(x - 1, z + 1, RIGHT));
+                }
+            }
+            case 4 -> {
+                if (x < length - 1 && z > 0 && has(x, z, BOTTOM) && has(x, z, LEFT) && has(x, z - 1, BOTTOM) && has(x + 1, z, LEFT)) {
+                    tryShift(n, x + 1, z - 1, x + 1 < length - 1 && z - 1 > 0 && has(x + 1, z - 1, BOTTOM) && has(x + 1, z - 1, LEFT));
+                }
+            }
+            case 8 -> {
+                if (x > 0 && z > 0 && has(x, z, TOP) && has(x, z, LEFT) && has(x, z - 1, TOP) && has(x - 1, z, LEFT)) {
+                    tryShift(n, x - 1, z - 1, x - 1 > 0 && z - 1 > 0 && has(x - 1, z - 1, TOP) && has(x - 1, z - 1, LEFT));
+                }
+            }
+            case 3 -> {
+                if (z < width - 1 && has(x, z, RIGHT)) {
+                    tryShift(n, x, z + 1, z + 1 < width - 1 && has(x, z + 1, BOTTOM) && has(x, z + 1, RIGHT) && has(x, z + 1, TOP));
+                }
+            }
+            case 5 -> {
+                if (x < length - 1 && has(x, z, BOTTOM)) {
+                    tryShift(n, x + 1, z, x + 1 < length - 1 && has(x + 1, z, BOTTOM) && has(x + 1, z, RIGHT) && has(x + 1, z, LEFT));
+                }
+            }
+            case 10 -> {
+                if (x > 0 && has(x, z, TOP)) {
+                    tryShift(n, x - 1, z, x - 1 > 0 && has(x - 1, z, TOP) && has(x - 1, z, RIGHT) && has(x - 1, z, LEFT));
+                }
+            }
+            case 12 -> {
+                if (z > 0 && has(x, z, LEFT)) {
+                    tryShift(n, x, z - 1, x > 0 && has(x, z - 1, TOP) && has(x, z - 1, BOTTOM) && has(x, z - 1, LEFT));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void tryShift(Node n, int tx, int tz, boolean valid) {
+        if (valid) {
+            n.x = tx;
+            n.z = tz;
+        }
+    }
+
+    /**
+     * Verbindet alle Knotenpaare aus from x to, die sich sehen können
+     */
+    void linkNodes(List<Node> from, List<Node> to) {
+        boolean sameList = from == to;
+        for (Node n : from) {
+            for (Node n2 : to) {
+                if (n == n2 || (sameList && n.id >= n2.id) || n.neighbours.contains(n2)) {
+                    continue;
+                }
+                if (sees(n, n2)) {
+                    n.neighbours.add(n2);
+                    n2.neighbours.add(n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ersetzt die Knoten eines Bereichs und prüft die Sichtlinien, die ihn kreuzen, neu
+     *
+     * @param connectionsAdded ob im Bereich Verbindungen hinzugekommen sind - nur dann können
+     *                         zwischen bestehenden Knoten neue Sichtlinien entstehen
+     */
+    private void rebuildNodesInArea(int x0, int z0, int x1, int z1, boolean connectionsAdded) {
+        int nx0 = Math.max(0, x0 - NODE_MARGIN);
+        int nz0 = Math.max(0, z0 - NODE_MARGIN);
+        int nx1 = Math.min(length - 1, x1 + NODE_MARGIN);
+        int nz1 = Math.min(width - 1, z1 + NODE_MARGIN);
+
+        List<Node> kept = new ArrayList<>(nodes.size());
+        for (Node n : nodes) {
+            if (n.x >= nx0 && n.x <= nx1 && n.z >= nz0 && n.z <= nz1) {
+                for (Node neighbour : n.neighbours) {
+                    neighbour.neighbours.remove(n);
+                }
+            } else {
+                kept.add(n);
+            }
+        }
+        nodes = kept;
+
+        // Bestehende Verbindungen, deren Sichtlinie durch den Bereich läuft, neu bewerten
+        for (Node n : kept) {
+            Iterator<Node> it = n.neighbours.iterator();
+            while (it.hasNext()) {
+                Node n2 = it.next();
+                if (n.id < n2.id && segmentTouches(n, n2, x0, z0, x1, z1) && !sees(n, n2)) {
+                    it.remove();
+                    n2.neighbours.remove(n);
+                }
+            }
+        }
+
+        if (connectionsAdded) {
+            for (int i = 0; i < kept.size(); i++) {
+                Node n = kept.get(i);
+                for (int k = i + 1; k < kept.size(); k++) {
+                    Node n2 = kept.get(k);
+                    if (segmentTouches(n, n2, x0, z0, x1, z1) && !n.neighbours.contains(n2) && sees(n, n2)) {
+                        n.neighbours.add(n2);
+                        n2.neighbours.add(n);
+                    }
+                }
+            }
+        }
+
+        int keptCount = kept.size();
+        // Knoten, die von außerhalb in den Bereich verschoben werden, mit erfassen
+        List<Node> created = buildNodes(Math.max(0, nx0 - 1), Math.max(0, nz0 - 1),
+            Math.min(length - 1, nx1 + 1), Math.min(width - 1, nz1 + 1));
+        linkNodes(created, created);
+        linkNodes(created, new ArrayList<>(nodes.subList(0, keptCount)));
+
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.get(i).id = i;
+        }
+    }
+
+    private static boolean segmentTouches(Node a, Node b, int x0, int z0, int x1, int z1) {
+        return Math.max(a.x, b.x) >= x0 && Math.min(a.x, b.x) <= x1
+            && Math.max(a.z, b.z) >= z0 && Math.min(a.z, b.z) <= z1;
+    }
+
+    /**
+     * Sichtlinie zwischen zwei Knoten - canSee() ist nicht symmetrisch, daher immer vom Knoten
+     * mit der kleineren Position aus prüfen, damit repair() und kompletter Aufbau übereinstimmen
+     */
+    private boolean sees(Node a, Node b) {
+        if (a.x < b.x || (a.x == b.x && a.z < b.z)) {
+            return canSee(a.x, a.z, b.x, b.z);
+        }
+        return canSee(b.x, b.z, a.x, a.z);
+    }
+
+    /**
+     * Prüft ob zwischen zwei Zellen (Kartenkoordinaten) eine begehbare gerade Linie existiert
+     */
+    public boolean canSee(int x1, int z1, int x2, int z2) {
+        int xdist = x2 - x1;
+        int zdist = z2 - z1;
+        if (xdist == 0 && zdist == 0) {
+            return true;
+        }
+        int xsign = xdist < 0 ? -1 : 1;
+        int zsign = zdist < 0 ? -1 : 1;
+        int x = x1;
+        int z = z1;
+        int xdone = 0;
+        int zdone = 0;
+        while (x != x2 || z != z2) {
+            if (xdist == 0 || (zdist != 0 && xdone * 1000 / xdist > zdone * 1000 / zdist)) {
+                if (zsign == 1 && !has(x, z, RIGHT)) {
+                    return false;
+                }
+                if (zsign == -1 && !has(x, z, LEFT)) {
+                    return false;
+                }
+                z += zsign;
+                zdone += zsign;
+            } else {
+                if (xsign == 1 && !has(x, z, BOTTOM)) {
+                    return false;
+                }
+                if (xsign == -1 && !has(x, z, TOP)) {
+                    return false;
+                }
+                x += xsign;
+                xdone += xsign;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gruppiert die Knoten nach Zusammenhang im Graphen (Regionen 1 bis regionCount)
+     */
+    private int groupNodes() {
+        for (Node n : nodes) {
+            n.region = 0;
+        }
+        int nodeGroup = 0;
+        ArrayDeque<Node> toVisit = new ArrayDeque<>();
+        for (Node start : nodes) {
+            if (start.region != 0) {
+                continue;
+            }
+            nodeGroup++;
+            start.region = nodeGroup;
+            toVisit.add(start);
+            while (!toVisit.isEmpty()) {
+                for (Node n : toVisit.poll().neighbours) {
+                    if (n.region == 0) {
+                        n.region = nodeGroup;
+                        toVisit.add(n);
+                    }
+                }
+            }
+        }
+        regionCount = nodeGroup;
+        return nodeGroup;
+    }
+
+    /**
+     * Regionen von den Knoten aus über die Verbindungen auf alle Zellen ausbreiten
+     */
+    private void floodRegions() {
+        Arrays.fill(regions, (short) -1);
+        int[] queue = new int[regions.length];
+        int tail = 0;
+        for (Node n : nodes) {
+            int index = index(n.x, n.z);
+            if (regions[index] == -1) {
+                regions[index] = (short) n.region;
+                queue[tail++] = index;
+            }
+        }
+        spreadRegions(queue, tail);
+    }
+
+    /**
+     * Breitet die Regionen der Zellen in der Warteschlange auf alle verbundenen, noch
+     * unmarkierten (-1) Zellen aus
+     */
+    private void spreadRegions(int[] queue, int tail) {
+        int head = 0;
+        while (head < tail) {
+            int index = queue[head++];
+            short region = regions[index];
+            byte connection = connections[index];
+            if ((connection & TOP) != 0 && regions[index - width] == -1) {
+                regions[index - width] = region;
+                queue[tail++] = index - width;
+            }
+            if ((connection & BOTTOM) != 0 && regions[index + width] == -1) {
+                regions[index + width] = region;
+                queue[tail++] = index + width;
+            }
+            if ((connection & LEFT) != 0 && regions[index - 1] == -1) {
+                regions[index - 1] = region;
+                queue[tail++] = index - 1;
+            }
+            if ((connection & RIGHT) != 0 && regions[index + 1] == -1) {
+                regions[index + 1] = region;
+                queue[tail++] = index + 1;
+            }
+        }
+    }
+
+    /**
+     * Ordnet jeder Region des alten Graphen ihre neue Region zu (über die übernommenen Knoten)
+     *
+     * @return Zuordnung alt -> neu (-1 = Region existiert nicht mehr) oder null, wenn eine alte
+     * Region zerfallen ist und die Zellen komplett neu geflutet werden müssen
+     */
+    private short[] mapOldRegions(RegionMapper previous, int[] previousRegionOfNode) {
+        short[] mapping = new short[previous.regionCount + 1];
+        Arrays.fill(mapping, (short) -1);
+        for (Node n : nodes) {
+            int oldRegion = n.id < previousRegionOfNode.length ? previousRegionOfNode[n.id] : 0;
+            if (oldRegion <= 0) {
+                continue;
+            }
+            if (mapping[oldRegion] == -1) {
+                mapping[oldRegion] = (short) n.region;
+            } else if (mapping[oldRegion] != n.region) {
+                return null;
+            }
+        }
+        if (previous.thRegion > 0 && mapping[previous.thRegion] == -1) {
+            // Zusammengelegte Regionen hängen an der Rathaus-Region
+            return null;
+        }
+        return mapping;
+    }
+
+    /**
+     * Überträgt die Zuordnung auf alle Zellen und flutet nur die geänderten Bereiche neu
+     */
+    private void patchRegions(short[] mapping, List<int[]> areas) {
+        boolean identity = true;
+        for (int region = 1; region < mapping.length && identity; region++) {
+            identity = mapping[region] == region;
+        }
+        if (!identity) {
+            for (int i = 0; i < regions.length; i++) {
+                if (regions[i] > 0) {
+                    regions[i] = regions[i] < mapping.length ? mapping[regions[i]] : -1;
+                }
+            }
+        }
+
+        for (int[] area : areas) {
+            int x1 = Math.min(length - 1, area[2] + 1);
+            int z1 = Math.min(width - 1, area[3] + 1);
+            for (int i = area[0]; i <= x1; i++) {
+                Arrays.fill(regions, index(i, area[1]), index(i, z1) + 1, (short) -1);
+            }
+        }
+
+        // Von den Rändern der Bereiche und von Knoten auf ungeflutet Zellen aus neu ausbreiten
+        int[] queue = new int[regions.length];
+        int tail = 0;
+        for (int[] area : areas) {
+            int rx0 = Math.max(0, area[0] - 1);
+            int rz0 = Math.max(0, area[1] - 1);
+            int rx1 = Math.min(length - 1, area[2] + 2);
+            int rz1 = Math.min(width - 1, area[3] + 2);
+            for (int i = rx0; i <= rx1; i++) {
+                for (int j = rz0; j <= rz1; j++) {
+                    boolean rim = i == rx0 || i == rx1 || j == rz0 || j == rz1;
+                    if (rim && regions[index(i, j)] >= 0) {
+                        queue[tail++] = index(i, j);
+                    }
+                }
+            }
+        }
+        for (Node n : nodes) {
+            int index = index(n.x, n.z);
+            if (regions[index] == -1) {
+                regions[index] = (short) n.region;
+                queue[tail++] = index;
+            }
+        }
+        spreadRegions(queue, tail);
+    }
+
+    private void updateThRegion(Point thStanding) {
+        thRegion = isInArea(thStanding) ? regions[index(thStanding.x - mapStartX, thStanding.z - mapStartZ)] : -1;
+    }
+
+    /**
+     * Große Regionen, die per Pfadsuche doch vom Rathaus aus erreichbar sind (Leitern, Türen...),
+     * werden mit der Rathaus-Region zusammengelegt
+     *
+     * @param previousMapping Regionen, die aus dem alten Graphen übernommen wurden, sind schon geprüft
+     *                        und werden ohne erneute Pfadsuche übernommen (darf null sein)
+     * @param previousBridged im alten Graphen zusammengelegte Regionen (darf null sein)
+     */
+    private void bridgeRegions(Point thStanding, int maxRegionId, short[] previousMapping, int[] previousBridged,
+                               PathingBlockAccess access) {
+        bridgedRegions = new int[0];
+        if (thRegion < 0) {
+            return;
+        }
+        boolean[] alreadyChecked = new boolean[maxRegionId + 1];
+        IntArrayList bridged = new IntArrayList();
+        if (previousMapping != null) {
+            for (short region : previousMapping) {
+                if (region > 0) {
+                    alreadyChecked[region] = true;
+                }
+            }
+            for (int oldRegion : previousBridged) {
+                int region = oldRegion < previousMapping.length ? previousMapping[oldRegion] : -1;
+                if (region > 0 && region != thRegion && !bridged.contains(region)) {
+                    bridged.add(region);
+                    relabelRegion(region, thRegion);
+                }
+            }
+        }
+
+        int[] regionsSize = new int[maxRegionId + 1];
+        for (short region : regions) {
+            if (region > -1) {
+                regionsSize[region]++;
+            }
+        }
+        Node[] nodeInRegion = new Node[maxRegionId + 1];
+        for (Node n : nodes) {
+            nodeInRegion[n.region] = n;
+        }
+
+        AStarSearch search = null;
+        int startY = 0;
+        for (int region = 0; region <= maxRegionId; region++) {
+            if (regionsSize[region] <= MIN_SIZE_FOR_REGION_BRIDGING || region == thRegion
+                || nodeInRegion[region] == null || alreadyChecked[region]) {
+                continue;
+            }
+            if (search == null) {
+                search = new AStarSearch();
+                startY = AStarRules.findViableStartY(access, thStanding.x, thStanding.y, thStanding.z, JPS_CONFIG);
+            }
+            Node target = nodeInRegion[region];
+            List<Point> path = search.findPath(access, thStanding.x, startY, thStanding.z,
+                target.x + mapStartX, getTopGround(target.x, target.z), target.z + mapStartZ, JPS_CONFIG,
+                System.nanoTime() + AStarSearch.SEARCH_TIME_LIMIT_MS * 1_000_000L);
+            if (path != null) {
+                bridged.add(region);
+                relabelRegion(region, thRegion);
+            }
+        }
+        bridgedRegions = bridged.toIntArray();
+    }
+
+    private void relabelRegion(int region, short target) {
+        for (int i = 0; i < regions.length; i++) {
+            if (regions[i] == region) {
+                regions[i] = target;
+            }
+        }
+    }
+
+    public boolean isInArea(Point p) {
+        return p.x >= mapStartX && p.x < mapStartX + length && p.z >= mapStartZ && p.z < mapStartZ + width;
+    }
+
+    public boolean isValidPoint(Point p) {
+        return isInArea(p) && spaceAbove[index(p.x - mapStartX, p.z - mapStartZ)] > 1;
+    }
+
+    /**
+     * Region einer Position (Weltkoordinaten) oder -1, wenn sie nicht begehbar/außerhalb ist
+     */
+    public short getRegion(Point p) {
+        return isInArea(p) ? regions[index(p.x - mapStartX, p.z - mapStartZ)] : -1;
+    }
+
+    /**
+     * Wie getRegion(Point), ohne Punkt-Objekt (Weltkoordinaten)
+     */
+    public short getRegion(int x, int z) {
+        int mx = x - mapStartX;
+        int mz = z - mapStartZ;
+        return mx >= 0 && mx < length && mz >= 0 && mz < width ? regions[index(mx, mz)] : -1;
+    }
+
+    public short getThRegion() {
+        return thRegion;
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,149 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Hält den RegionMapper eines Dorfes aktuell (Ersatz für RegionMapperThread)
+ *
+ * VillageMapInfo meldet geänderte Chunks über markChunkDirty(), Gebäude über markAreaDirty().
+ * update() sammelt diese im Dorf-Tick und stößt höchstens einen Durchlauf gleichzeitig auf
+ * dem gemeinsamen Hintergrund-Pool an. Dort wird per RegionMapper.repair() nur der geänderte
+ * Teil neu berechnet; der fertige Mapper wird danach atomar ausgetauscht.
+ *
+ * Alle Methoden außer getMapper() nur vom Server-Thread aufrufen.
+ */
+public class RegionMapperUpdater {
+    // Ab diesem Anteil geänderter Chunks ist der komplette Neuaufbau günstiger
+    private static final int FULL_REBUILD_PERCENT = 25;
+
+    private final Point villagePos;
+    private final LongOpenHashSet dirtyChunks = new LongOpenHashSet();
+
+    private volatile RegionMapper mapper;
+    private volatile boolean running = false;
+    private volatile boolean failed = false;
+    private boolean fullRebuildRequested = true;
+
+    public RegionMapperUpdater(Point villagePos) {
+        this.villagePos = villagePos;
+    }
+
+    /**
+     * Aktueller Graph oder null, solange der erste Aufbau läuft - darf von jedem Thread gelesen werden
+     */
+    public RegionMapper getMapper() {
+        return mapper;
+    }
+
+    public boolean isUpdating() {
+        return running;
+    }
+
+    public boolean hasPendingChanges() {
+        return fullRebuildRequested || !dirtyChunks.isEmpty();
+    }
+
+    public void markChunkDirty(int chunkX, int chunkZ) {
+        dirtyChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Markiert alle Chunks eines Bereichs (Weltkoordinaten, inklusive), z.B. eine BuildingLocation
+     */
+    public void markAreaDirty(int minX, int minZ, int maxX, int maxZ) {
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                dirtyChunks.add(ChunkPos.toLong(cx, cz));
+            }
+        }
+    }
+
+    public void requestFullRebuild() {
+        fullRebuildRequested = true;
+    }
+
+    /**
+     * Stößt bei Bedarf einen Durchlauf an - einmal pro Dorf-Tick aufrufen
+     *
+     * @param access thread-sicherer Blockzugriff für das Zusammenlegen von Regionen (PathingWorldView)
+     * @return true, wenn ein Durchlauf gestartet wurde
+     */
+    public boolean update(TerrainGrid grid, Point thStanding, PathingBlockAccess access) {
+        if (running) {
+            return false;
+        }
+        // Die Änderungen wurden beim Start des gescheiterten Durchlaufs schon verbraucht
+        if (failed) {
+            failed = false;
+            fullRebuildRequested = true;
+        }
+        if (!hasPendingChanges()) {
+            return false;
+        }
+
+        RegionMapper base = mapper;
+        boolean full = fullRebuildRequested || base == null || isTooManyChunks(grid);
+        List<int[]> areas = full ? null : collectAreas();
+        TerrainGrid snapshot = grid.snapshot();
+
+        running = true;
+        try {
+            MillExecutors.background().execute(() -> run(base, snapshot, areas, thStanding, access));
+        } catch (RejectedExecutionException e) {
+            // Pool ausgelastet oder beim Herunterfahren: im nächsten Tick erneut versuchen
+            running = false;
+            return false;
+        }
+        fullRebuildRequested = false;
+        dirtyChunks.clear();
+        return true;
+    }
+
+    private boolean isTooManyChunks(TerrainGrid grid) {
+        long chunks = (long) ((grid.getLength() + 15) >> 4) * ((grid.getWidth() + 15) >> 4);
+        return dirtyChunks.size() * 100L > chunks * FULL_REBUILD_PERCENT;
+    }
+
+    private List<int[]> collectAreas() {
+        List<int[]> areas = new ArrayList<>(dirtyChunks.size());
+        LongIterator it = dirtyChunks.iterator();
+        while (it.hasNext()) {
+            long chunk = it.nextLong();
+            int minX = ChunkPos.getPackedX(chunk) << 4;
+            int minZ = ChunkPos.getPackedZ(chunk) << 4;
+            areas.add(new int[] {minX, minZ, minX + 15, minZ + 15});
+        }
+        return areas;
+    }
+
+    private void run(RegionMapper base, TerrainGrid grid, List<int[]> areas, Point thStanding, PathingBlockAccess access) {
+        long start = MillProfiler.start();
+        try {
+            RegionMapper updated;
+            if (areas == null) {
+                updated = new RegionMapper();
+                updated.createConnectionsTable(grid, thStanding, access);
+            } else {
+                updated = base.repair(grid, areas, thStanding, access);
+            }
+            mapper = updated;
+            MillProfiler.stop(ProfilerSection.MAP_UPDATE, villagePos, areas == null ? "regions full" : "regions repair", start);
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Error while updating the region mapper of village at {}", villagePos, e);
+            failed = true;
+        } finally {
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+/**
+ * Höhen- und Gefahren-Raster eines Dorfgebiets, wie es der RegionMapper benötigt
+ * Koordinaten sind relativ zu mapStartX/mapStartZ (0 bis length-1 / width-1).
+ * Wird von VillageMapInfo implementiert.
+ */
+public interface TerrainGrid {
+
+    int getMapStartX();
+
+    int getMapStartZ();
+
+    int getLength();
+
+    int getWidth();
+
+    /**
+     * Höhe, auf der ein Dorfbewohner in dieser Spalte steht
+     */
+    int getTopGround(int x, int z);
+
+    /**
+     * Freier Raum über dem Boden (0-3)
+     */
+    int getSpaceAbove(int x, int z);
+
+    boolean isDanger(int x, int z);
+
+    boolean isWater(int x, int z);
+
+    /**
+     * Stand des Rasters, der von Worker-Threads gelesen werden darf
+     * Standardmäßig eine vollständige Kopie.
+     */
+    default TerrainGrid snapshot() {
+        return TerrainSnapshot.copyOf(this);
+    }
+}
@@ -0,0 +1,77 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+/**
+ * Unveränderliche Kopie eines TerrainGrid für Berechnungen auf Worker-Threads
+ */
+public final class TerrainSnapshot implements TerrainGrid {
+    private final int mapStartX, mapStartZ;
+    private final int length, width;
+    private final short[] topGround;
+    private final byte[] spaceAbove;
+    // Bit 0 = Gefahr, Bit 1 = Wasser
+    private final byte[] flags;
+
+    private TerrainSnapshot(TerrainGrid grid) {
+        this.mapStartX = grid.getMapStartX();
+        this.mapStartZ = grid.getMapStartZ();
+        this.length = grid.getLength();
+        this.width = grid.getWidth();
+        this.topGround = new short[length * width];
+        this.spaceAbove = new byte[length * width];
+        this.flags = new byte[length * width];
+
+        int index = 0;
+        for (int x = 0; x < length; x++) {
+            for (int z = 0; z < width; z++) {
+                topGround[index] = (short) grid.getTopGround(x, z);
+                spaceAbove[index] = (byte) grid.getSpaceAbove(x, z);
+                flags[index] = (byte) ((grid.isDanger(x, z) ? 1 : 0) | (grid.isWater(x, z) ? 2 : 0));
+                index++;
+            }
+        }
+    }
+
+    public static TerrainSnapshot copyOf(TerrainGrid grid) {
+        return grid instanceof TerrainSnapshot snapshot ? snapshot : new TerrainSnapshot(grid);
+    }
+
+    @Override
+    public int getMapStartX() {
+        return mapStartX;
+    }
+
+    @Override
+    public int getMapStartZ() {
+        return mapStartZ;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getTopGround(int x, int z) {
+        return topGround[x * width + z];
+    }
+
+    @Override
+    public int getSpaceAbove(int x, int z) {
+        return spaceAbove[x * width + z];
+    }
+
+    @Override
+    public boolean isDanger(int x, int z) {
+        return (flags[x * width + z] & 1) != 0;
+    }
+
+    @Override
+    public boolean isWater(int x, int z) {
+        return (flags[x * width + z] & 2) != 0;
+    }
+}
@@ -0,0 +1,283 @@
+package me.devupdates.millenaireReborn.common.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Datei mit einzeln überschreibbaren Datensätzen in 4-KB-Sektoren (nach Art der Region-Dateien)
+ *
+ * Aufbau:
+ * - Sektor 0: Kopf mit Magic, Version und Lage des Verzeichnisses
+ * - Verzeichnis: Schlüssel -> (erster Sektor, Sektoranzahl, Länge), selbst in freien Sektoren abgelegt
+ * - Datensätze: beliebige Bytes (die Kompression übernimmt der Aufrufer)
+ *
+ * Ein Schreibvorgang legt Daten und neues Verzeichnis immer in freie Sektoren und schaltet erst
+ * danach den Kopf um. Stürzt der Server vorher ab, bleibt der alte Stand vollständig lesbar.
+ * Alte Sektoren werden erst nach dem Umschalten freigegeben und wiederverwendet.
+ *
+ * Alle Methoden sind synchronisiert.
+ */
+public class RecordFile implements AutoCloseable {
+    private static final int SECTOR_SIZE = 4096;
+    private static final int MAGIC = 0x4D565246; // "MVRF"
+    private static final int VERSION = 1;
+
+    private record Entry(int sector, int sectors, int length) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final BitSet usedSectors = new BitSet();
+    private Entry directory;
+
+    private RecordFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Öffnet die Datei oder legt sie an
+     */
+    public static RecordFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RecordFile file = new RecordFile(path, channel);
+        try {
+            if (channel.size() < SECTOR_SIZE) {
+                file.initialise();
+            } else {
+                file.readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return file;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void initialise() throws IOException {
+        usedSectors.set(0);
+        directory = writeSectors(encodeDirectory());
+        writeHeader();
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(20);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a Millénaire record file: " + path);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported record file version " + version + ": " + path);
+        }
+        directory = new Entry(header.getInt(), header.getInt(), header.getInt());
+        checkBounds(directory, "directory");
+
+        usedSectors.set(0);
+        usedSectors.set(directory.sector, directory.sector + directory.sectors);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(readEntry(directory)));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Entry entry = new Entry(in.readInt(), in.readInt(), in.readInt());
+            checkBounds(entry, key);
+            entries.put(key, entry);
+            usedSectors.set(entry.sector, entry.sector + entry.sectors);
+        }
+    }
+
+    private void checkBounds(Entry entry, String name) throws IOException {
+        long end = (long) (entry.sector + entry.sectors) * SECTOR_SIZE;
+        if (entry.sector < 1 || entry.sectors < 1 || entry.length > entry.sectors * SECTOR_SIZE || end > channel.size()) {
+            throw new IOException("Corrupt record '" + name + "' in " + path);
+        }
+    }
+
+    public synchronized Set<String> keys() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Inhalt eines Datensatzes oder null
+     */
+    public synchronized byte[] read(String key) throws IOException {
+        Entry entry = entries.get(key);
+        return entry == null ? null : readEntry(entry);
+    }
+
+    /**
+     * Alle Datensätze in Schreibreihenfolge
+     */
+    public synchronized Map<String, byte[]> readAll() throws IOException {
+        Map<String, byte[]> records = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            records.put(entry.getKey(), readEntry(entry.getValue()));
+        }
+        return records;
+    }
+
+    public synchronized void write(String key, byte[] data) throws IOException {
+        update(Map.of(key, data), Set.of());
+    }
+
+    /**
+     * Schreibt und löscht mehrere Datensätze mit einem einzigen Umschalten des Kopfes
+     */
+    public synchronized void update(Map<String, byte[]> writes, Collection<String> removals) throws IOException {
+        if (writes.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> entriesBefore = new LinkedHashMap<>(entries);
+        BitSet usedBefore = (BitSet) usedSectors.clone();
+        Entry directoryBefore = directory;
+        try {
+            commit(writes, removals);
+        } catch (IOException e) {
+            // Kopf wurde nicht umgeschaltet - im Speicher wieder auf den Stand der Datei
+            entries.clear();
+            entries.putAll(entriesBefore);
+            usedSectors.clear();
+            usedSectors.or(usedBefore);
+            directory = directoryBefore;
+            throw e;
+        }
+    }
+
+    private void commit(Map<String, byte[]> writes, Collection<String> removals) throws IOException {
+        Map<String, Entry> previous = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> write : writes.entrySet()) {
+            Entry old = entries.put(write.getKey(), writeSectors(write.getValue()));
+            if (old != null) {
+                previous.put(write.getKey(), old);
+            }
+        }
+        for (String key : removals) {
+            if (!writes.containsKey(key)) {
+                Entry old = entries.remove(key);
+                if (old != null) {
+                    previous.put(key, old);
+                }
+            }
+        }
+
+        Entry oldDirectory = directory;
+        directory = writeSectors(encodeDirectory());
+        // Erst alle Daten auf die Platte, dann den Kopf umschalten
+        channel.force(false);
+        writeHeader();
+        channel.force(false);
+
+        for (Entry old : previous.values()) {
+            usedSectors.clear(old.sector, old.sector + old.sectors);
+        }
+        usedSectors.clear(oldDirectory.sector, oldDirectory.sector + oldDirectory.sectors);
+        try {
+            truncateFreeTail();
+        } catch (IOException e) {
+            // Nicht schlimm - die Datei bleibt nur größer als nötig
+        }
+    }
+
+    private byte[] encodeDirectory() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().sector);
+            out.writeInt(entry.getValue().sectors);
+            out.writeInt(entry.getValue().length);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(20);
+        header.putInt(MAGIC).putInt(VERSION).putInt(directory.sector).putInt(directory.sectors).putInt(directory.length);
+        header.flip();
+        writeFully(header, 0);
+    }
+
+    /**
+     * Legt Daten in die ersten freien, zusammenhängenden Sektoren
+     */
+    private Entry writeSectors(byte[] data) throws IOException {
+        int sectors = Math.max(1, (data.length + SECTOR_SIZE - 1) / SECTOR_SIZE);
+        int start = findFreeRun(sectors);
+        usedSectors.set(start, start + sectors);
+
+        ByteBuffer buffer = ByteBuffer.allocate(sectors * SECTOR_SIZE);
+        buffer.put(data);
+        buffer.rewind();
+        writeFully(buffer, (long) start * SECTOR_SIZE);
+        return new Entry(start, sectors, data.length);
+    }
+
+    private int findFreeRun(int sectors) {
+        int start = usedSectors.nextClearBit(1);
+        while (true) {
+            int nextUsed = usedSectors.nextSetBit(start);
+            if (nextUsed < 0 || nextUsed - start >= sectors) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    private void truncateFreeTail() throws IOException {
+        long size = (long) usedSectors.length() * SECTOR_SIZE;
+        if (size < channel.size()) {
+            channel.truncate(size);
+        }
+    }
+
+    private byte[] readEntry(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        readFully(buffer, (long) entry.sector * SECTOR_SIZE);
+        return buffer.array();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,378 @@
+package me.devupdates.millenaireReborn.common.persistence;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log-strukturierter Speicher für Datensätze mit long-Schlüssel (Ersatz für das komplette
+ * Neuschreiben von villagerRecords.gz)
+ *
+ * - jede Änderung wird als ein Eintrag an das Journal der aktuellen Generation angehängt;
+ *   force() bringt die neuen Einträge regelmäßig auf die Platte
+ * - compact() beginnt eine neue Generation; der Stand zu diesem Zeitpunkt wird danach (auch im
+ *   Hintergrund) als Snapshot geschrieben und erst dann werden die alten Journale gelöscht
+ * - beim Öffnen: Snapshot laden, dann alle Journale ab dessen Generation abspielen. Ein beim
+ *   Absturz halb geschriebener Eintrag am Ende wird an der Prüfsumme erkannt und abgeschnitten.
+ *
+ * Die Datensätze sind unveränderliche byte[], daher ist der Stand für den Snapshot eine flache Kopie.
+ */
+public class RecordJournal implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x4D564A53; // "MVJS"
+    private static final int VERSION = 1;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    // Eintrag: Länge, CRC32, Operation, Schlüssel, Daten
+    private static final int ENTRY_HEADER = 8;
+    private static final int MAX_ENTRY_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Stand für einen Snapshot, von compact() erzeugt
+     */
+    public static final class Compaction {
+        private final long generation;
+        private final Long2ObjectMap<byte[]> records;
+
+        private Compaction(long generation, Long2ObjectMap<byte[]> records) {
+            this.generation = generation;
+            this.records = records;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+    }
+
+    private final Path directory;
+    private final String name;
+    private final Long2ObjectMap<byte[]> records = new Long2ObjectOpenHashMap<>();
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel journal;
+    private long generation;
+    private long journalBytes;
+    private long snapshotBytes;
+    private boolean compacting;
+    // Einträge seit dem letzten force() - nur die überstehen einen Stromausfall noch nicht
+    private boolean unsynced;
+
+    private RecordJournal(Path directory, String name) {
+        this.directory = directory;
+        this.name = name;
+    }
+
+    /**
+     * Öffnet den Speicher und stellt den letzten Stand wieder her
+     *
+     * @param name Dateipräfix, z.B. "villagers"
+     */
+    public static RecordJournal open(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        RecordJournal store = new RecordJournal(directory, name);
+        store.recover();
+        return store;
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve(name + ".snapshot");
+    }
+
+    private Path journalFile(long gen) {
+        return directory.resolve(name + "." + gen + ".journal");
+    }
+
+    private void recover() throws IOException {
+        long snapshotGeneration = 0;
+        if (Files.exists(snapshotFile())) {
+            snapshotGeneration = readSnapshot(snapshotFile());
+            snapshotBytes = Files.size(snapshotFile());
+        }
+
+        List<Long> generations = journalGenerations();
+        long replayed = 0;
+        for (long gen : generations) {
+            if (gen < snapshotGeneration) {
+                // Schon im Snapshot enthalten, Löschen wurde nur nicht mehr fertig
+                Files.deleteIfExists(journalFile(gen));
+                continue;
+            }
+            replayed += replay(journalFile(gen));
+        }
+        generation = Math.max(snapshotGeneration, generations.isEmpty() ? 0 : generations.get(generations.size() - 1));
+        journal = FileChannel.open(journalFile(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        journalBytes = journal.size();
+        journal.position(journalBytes);
+
+        if (replayed > 0) {
+            MillenaireReborn.LOGGER.info("Recovered {} {} records, {} journal entries replayed", records.size(), name, replayed);
+        }
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        String prefix = name + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.journal")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(fileName.substring(prefix.length(), fileName.length() - ".journal".length())));
+                } catch (NumberFormatException e) {
+                    MillenaireReborn.LOGGER.warn("Ignoring unexpected journal file {}", file);
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private long readSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a Millénaire snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            long gen = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                records.put(key, data);
+            }
+            return gen;
+        }
+    }
+
+    /**
+     * Spielt ein Journal ab und schneidet es hinter dem letzten vollständigen Eintrag ab
+     *
+     * @return Anzahl abgespielter Einträge
+     */
+    private long replay(Path file) throws IOException {
+        long valid = 0;
+        long entries = 0;
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(raw);
+            byte[] header = new byte[ENTRY_HEADER];
+            while (in.readNBytes(header, 0, ENTRY_HEADER) == ENTRY_HEADER) {
+                ByteBuffer buffer = ByteBuffer.wrap(header);
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 9 || length > MAX_ENTRY_SIZE) {
+                    break;
+                }
+                byte[] body = in.readNBytes(length);
+                if (body.length != length || checksum(body) != checksum) {
+                    break;
+                }
+                apply(ByteBuffer.wrap(body));
+                valid += ENTRY_HEADER + length;
+                entries++;
+            }
+        }
+        if (valid < Files.size(file)) {
+            MillenaireReborn.LOGGER.warn("Discarding incomplete tail of {} ({} bytes)", file, Files.size(file) - valid);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        return entries;
+    }
+
+    private void apply(ByteBuffer body) {
+        byte op = body.get();
+        long key = body.getLong();
+        if (op == OP_PUT) {
+            byte[] data = new byte[body.remaining()];
+            body.get(data);
+            records.put(key, data);
+        } else if (op == OP_REMOVE) {
+            records.remove(key);
+        }
+    }
+
+    private int checksum(byte[] body) {
+        crc.reset();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    public synchronized byte[] get(long key) {
+        return records.get(key);
+    }
+
+    public synchronized boolean contains(long key) {
+        return records.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * Flache Kopie aller Datensätze
+     */
+    public synchronized Long2ObjectMap<byte[]> getAll() {
+        return new Long2ObjectOpenHashMap<>(records);
+    }
+
+    /**
+     * Speichert einen Datensatz - hängt genau einen Eintrag an das Journal an
+     */
+    public synchronized void put(long key, byte[] data) throws IOException {
+        append(OP_PUT, key, data);
+        records.put(key, data);
+    }
+
+    public synchronized void remove(long key) throws IOException {
+        if (records.containsKey(key)) {
+            append(OP_REMOVE, key, new byte[0]);
+            records.remove(key);
+        }
+    }
+
+    private void append(byte op, long key, byte[] data) throws IOException {
+        int length = 9 + data.length;
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(op).putLong(key).put(data);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER + length);
+        entry.putInt(length).putInt(checksum(body.array())).put(body.array());
+        entry.flip();
+        long start = journal.position();
+        try {
+            while (entry.hasRemaining()) {
+                journal.write(entry);
+            }
+        } catch (IOException e) {
+            // Halben Eintrag nicht stehen lassen, sonst gehen alle folgenden beim Abspielen verloren
+            journal.truncate(start);
+            journal.position(start);
+            throw e;
+        }
+        journalBytes += ENTRY_HEADER + length;
+        unsynced = true;
+    }
+
+    /**
+     * Journal deutlich größer als der letzte Snapshot - Verdichten lohnt sich
+     */
+    public synchronized boolean needsCompaction(long minJournalBytes) {
+        return !compacting && journalBytes > Math.max(minJournalBytes, snapshotBytes);
+    }
+
+    /**
+     * Beginnt eine neue Generation und liefert den Stand dafür
+     * Danach writeSnapshot() (darf auf einem anderen Thread laufen), bei null läuft schon eine.
+     */
+    public synchronized Compaction compact() throws IOException {
+        if (compacting) {
+            return null;
+        }
+        FileChannel next = FileChannel.open(journalFile(generation + 1), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        journal.force(false);
+        journal.close();
+        journal = next;
+        unsynced = false;
+        generation++;
+        journalBytes = 0;
+        compacting = true;
+        return new Compaction(generation, new Long2ObjectOpenHashMap<>(records));
+    }
+
+    /**
+     * Schreibt den Snapshot einer Compaction und löscht danach die überholten Journale
+     */
+    public void writeSnapshot(Compaction compaction) throws IOException {
+        try {
+            Path temp = snapshotFile().resolveSibling(name + ".snapshot.tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(compaction.generation);
+                out.writeInt(compaction.records.size());
+                for (Long2ObjectMap.Entry<byte[]> entry : compaction.records.long2ObjectEntrySet()) {
+                    out.writeLong(entry.getLongKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            // Erst vollständig auf der Platte, dann umbenennen
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, snapshotFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(snapshotFile());
+
+            for (long gen : journalGenerations()) {
+                if (gen < compaction.generation) {
+                    Files.deleteIfExists(journalFile(gen));
+                }
+            }
+            synchronized (this) {
+                snapshotBytes = size;
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Schreibt die neuen Einträge des Journals auf die Platte (ohne zu verdichten)
+     * Hält die Sperre nicht während des Schreibens, put() und remove() laufen weiter.
+     */
+    public void force() throws IOException {
+        FileChannel channel;
+        synchronized (this) {
+            if (!unsynced) {
+                return;
+            }
+            unsynced = false;
+            channel = journal;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Inzwischen von compact() oder close() geschlossen - beide schreiben vorher auf die Platte
+        } catch (IOException e) {
+            synchronized (this) {
+                unsynced = true;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        journal.force(false);
+        journal.close();
+        unsynced = false;
+    }
+}
@@ -0,0 +1,391 @@
+package me.devupdates.millenaireReborn.common.persistence;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.village.VillageTickScheduler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Speichert Dörfer gebäudeweise (Ersatz für Building.SaveWorker)
+ *
+ * Statt bei jedem requestSave() das ganze Dorf in eine neue .gz-Datei zu schreiben, meldet jedes
+ * Gebäude nur sich selbst als geändert. Alle SAVE_PERIOD Ticks werden die geänderten Gebäude auf
+ * dem Server-Thread nach NBT serialisiert (mehrfache Meldungen fallen dabei zusammen); Kompression
+ * und Schreiben übernimmt ein einzelner Speicher-Thread. Pro Dorf gibt es eine RecordFile unter
+ * <Welt>/millenaire/villages/, in der jedes Gebäude ein eigener Datensatz ist.
+ *
+ * markDirty/markRemoved/flush nur vom Server-Thread aufrufen, die Lesemethoden auch von anderen.
+ */
+public final class VillageSaveManager {
+    private static final int SAVE_PERIOD = 100;
+    private static final String FILE_EXTENSION = ".mvr";
+
+    private static VillageSaveManager instance;
+
+    /**
+     * Zustand eines Dorfes - dirty/removed gehören dem Server-Thread, pending dem Speicher-Thread
+     * (Zugriff nur unter dem Lock des Objekts)
+     */
+    private static final class VillageState {
+        final String villageKey;
+        final Map<String, Supplier<NbtCompound>> dirty = new LinkedHashMap<>();
+        final Set<String> removed = new HashSet<>();
+
+        final Map<String, NbtCompound> pendingWrites = new LinkedHashMap<>();
+        final Set<String> pendingRemovals = new HashSet<>();
+        boolean queued;
+        RecordFile file;
+
+        VillageState(String villageKey) {
+            this.villageKey = villageKey;
+        }
+
+        boolean hasPending() {
+            return !pendingWrites.isEmpty() || !pendingRemovals.isEmpty();
+        }
+
+        /**
+         * Nichts zu schreiben und keine Datei offen - nur unter dem Lock des Objekts aufrufen
+         */
+        boolean isIdle() {
+            return dirty.isEmpty() && removed.isEmpty() && !hasPending() && !queued && file == null;
+        }
+    }
+
+    private final Map<String, VillageState> villages = new ConcurrentHashMap<>();
+    private volatile Path directory;
+    private VillageTickScheduler.Job saveJob;
+
+    private VillageSaveManager() {
+    }
+
+    public static VillageSaveManager getInstance() {
+        if (instance == null) {
+            instance = new VillageSaveManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Start und Stopp beim Server
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> getInstance().start(server));
+        // Vor dem Entladen der Welten, damit noch alles geschrieben werden kann
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> getInstance().stop());
+    }
+
+    /**
+     * Beim Serverstart: Speicherordner festlegen und den periodischen Flush anmelden
+     */
+    private void start(MinecraftServer server) {
+        directory = server.getSavePath(WorldSavePath.ROOT).resolve("millenaire").resolve("villages");
+        saveJob = VillageTickScheduler.getInstance().schedule("save", this, SAVE_PERIOD, 1.0, this::flush);
+    }
+
+    /**
+     * Beim Serverstopp: alles Ausstehende synchron schreiben und die Dateien schließen
+     */
+    private void stop() {
+        if (saveJob != null) {
+            saveJob.cancel();
+            saveJob = null;
+        }
+        collectDirty();
+        for (VillageState state : villages.values()) {
+            synchronized (state) {
+                writePending(state);
+                closeFile(state);
+            }
+        }
+        villages.clear();
+        directory = null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Meldet einen Datensatz (meist ein Gebäude) als geändert
+     *
+     * @param writer erzeugt beim nächsten Flush den aktuellen Stand auf dem Server-Thread
+     */
+    public void markDirty(String villageKey, String recordKey, Supplier<NbtCompound> writer) {
+        // Innerhalb von compute, damit release() den Eintrag nicht gleichzeitig entfernt
+        villages.compute(villageKey, (key, state) -> {
+            VillageState target = state != null ? state : new VillageState(key);
+            target.removed.remove(recordKey);
+            target.dirty.put(recordKey, writer);
+            return target;
+        });
+    }
+
+    public void markRemoved(String villageKey, String recordKey) {
+        villages.compute(villageKey, (key, state) -> {
+            VillageState target = state != null ? state : new VillageState(key);
+            target.dirty.remove(recordKey);
+            target.removed.add(recordKey);
+            return target;
+        });
+    }
+
+    /**
+     * Serialisiert die geänderten Datensätze und übergibt sie dem Speicher-Thread
+     */
+    public void flush() {
+        if (directory == null) {
+            return;
+        }
+        collectDirty();
+        for (VillageState state : villages.values()) {
+            synchronized (state) {
+                if (state.queued || !state.hasPending()) {
+                    continue;
+                }
+                state.queued = true;
+            }
+            try {
+                MillExecutors.save().execute(() -> saveTask(state));
+            } catch (RejectedExecutionException e) {
+                // Warteschlange voll: beim nächsten Flush erneut
+                synchronized (state) {
+                    state.queued = false;
+                }
+            }
+        }
+    }
+
+    private void collectDirty() {
+        for (VillageState state : villages.values()) {
+            if (state.dirty.isEmpty() && state.removed.isEmpty()) {
+                continue;
+            }
+            long start = MillProfiler.start();
+            Map<String, NbtCompound> written = new LinkedHashMap<>();
+            for (Map.Entry<String, Supplier<NbtCompound>> entry : state.dirty.entrySet()) {
+                try {
+                    written.put(entry.getKey(), entry.getValue().get());
+                } catch (Exception e) {
+                    MillenaireReborn.LOGGER.error("Error while serializing {} of village {}", entry.getKey(), state.villageKey, e);
+                }
+            }
+            synchronized (state) {
+                state.pendingWrites.putAll(written);
+                state.pendingRemovals.removeAll(written.keySet());
+                for (String key : state.removed) {
+                    state.pendingWrites.remove(key);
+                    state.pendingRemovals.add(key);
+                }
+            }
+            state.dirty.clear();
+            state.removed.clear();
+            MillProfiler.stop(ProfilerSection.SAVE, state.villageKey, "serialize", start);
+        }
+    }
+
+    private void saveTask(VillageState state) {
+        synchronized (state) {
+            writePending(state);
+            state.queued = false;
+        }
+    }
+
+    /**
+     * Schreibt alles Ausstehende eines Dorfes - nur unter dem Lock des VillageState aufrufen
+     */
+    private void writePending(VillageState state) {
+        if (!state.hasPending() || directory == null) {
+            return;
+        }
+        long start = MillProfiler.start();
+        Map<String, NbtCompound> writes = new LinkedHashMap<>(state.pendingWrites);
+        Set<String> removals = new HashSet<>(state.pendingRemovals);
+        try {
+            Map<String, byte[]> encoded = new LinkedHashMap<>();
+            long bytes = 0;
+            for (Map.Entry<String, NbtCompound> entry : writes.entrySet()) {
+                byte[] data = compress(entry.getValue());
+                encoded.put(entry.getKey(), data);
+                bytes += data.length;
+            }
+            openFile(state).update(encoded, removals);
+            state.pendingWrites.keySet().removeAll(writes.keySet());
+            state.pendingRemovals.removeAll(removals);
+            MillProfiler.count(ProfilerSection.SAVE, "bytes written", bytes);
+            MillProfiler.count(ProfilerSection.SAVE, "records written", writes.size());
+        } catch (IOException e) {
+            // Bleibt ausstehend und wird beim nächsten Flush erneut versucht
+            MillenaireReborn.LOGGER.error("Error while saving village {}", state.villageKey, e);
+        }
+        MillProfiler.stop(ProfilerSection.SAVE, state.villageKey, "write", start);
+    }
+
+    private RecordFile openFile(VillageState state) throws IOException {
+        if (state.file == null) {
+            Path dir = directory;
+            if (dir == null) {
+                throw new IOException("Village storage is closed");
+            }
+            Files.createDirectories(dir);
+            state.file = RecordFile.open(dir.resolve(state.villageKey + FILE_EXTENSION));
+        }
+        return state.file;
+    }
+
+    private void closeFile(VillageState state) {
+        if (state.file != null) {
+            try {
+                state.file.close();
+            } catch (IOException e) {
+                MillenaireReborn.LOGGER.error("Error while closing save file of village {}", state.villageKey, e);
+            }
+            state.file = null;
+        }
+    }
+
+    /**
+     * Schlüssel aller Dörfer, für die eine Datei existiert
+     */
+    public List<String> listVillages() throws IOException {
+        List<String> keys = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return keys;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                keys.add(name.substring(0, name.length() - FILE_EXTENSION.length()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Liest einen einzelnen Datensatz eines Dorfes oder null
+     */
+    public NbtCompound loadRecord(String villageKey, String recordKey) throws IOException {
+        Path dir = directory;
+        if (dir == null) {
+            return null;
+        }
+        VillageState state = villages.computeIfAbsent(villageKey, VillageState::new);
+        try {
+            synchronized (state) {
+                if (state.file == null && !Files.exists(dir.resolve(villageKey + FILE_EXTENSION))) {
+                    return null;
+                }
+                // Beim Start werden alle Dateien kurz gelesen - nur offen halten, was schon offen war
+                boolean wasOpen = state.file != null;
+                try {
+                    byte[] data = openFile(state).read(recordKey);
+                    return data == null ? null : decompress(data);
+                } finally {
+                    if (!wasOpen) {
+                        closeFile(state);
+                    }
+                }
+            }
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Liest alle gespeicherten Datensätze eines Dorfes (leer, wenn es keine Datei gibt)
+     */
+    public Map<String, NbtCompound> load(String villageKey) throws IOException {
+        Map<String, NbtCompound> records = new LinkedHashMap<>();
+        // Kann nach dem Serverstopp noch aus dem Hintergrund kommen
+        Path dir = directory;
+        if (dir == null) {
+            return records;
+        }
+        VillageState state = villages.computeIfAbsent(villageKey, VillageState::new);
+        try {
+            synchronized (state) {
+                if (state.file == null && !Files.exists(dir.resolve(villageKey + FILE_EXTENSION))) {
+                    return records;
+                }
+                boolean wasOpen = state.file != null;
+                try {
+                    for (Map.Entry<String, byte[]> entry : openFile(state).readAll().entrySet()) {
+                        records.put(entry.getKey(), decompress(entry.getValue()));
+                    }
+                } finally {
+                    if (!wasOpen) {
+                        closeFile(state);
+                    }
+                }
+            }
+        } finally {
+            release(state);
+        }
+        return records;
+    }
+
+    /**
+     * Entfernt den Zustand eines Dorfes nach dem Lesen wieder, wenn nichts zu schreiben ist
+     * (sonst bliebe für jedes gelesene Dorf ein leerer Eintrag zurück)
+     */
+    private void release(VillageState state) {
+        villages.computeIfPresent(state.villageKey, (key, current) -> {
+            if (current != state) {
+                return current;
+            }
+            synchronized (current) {
+                return current.isIdle() ? null : current;
+            }
+        });
+    }
+
+    /**
+     * Entfernt ein Dorf samt Datei (z.B. wenn es zerstört wurde)
+     */
+    public void deleteVillage(String villageKey) throws IOException {
+        VillageState state = villages.remove(villageKey);
+        if (state != null) {
+            synchronized (state) {
+                state.pendingWrites.clear();
+                state.pendingRemovals.clear();
+                closeFile(state);
+            }
+        }
+        if (directory != null) {
+            Files.deleteIfExists(directory.resolve(villageKey + FILE_EXTENSION));
+        }
+    }
+
+    static byte[] compress(NbtCompound nbt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NbtIo.writeCompressed(nbt, bytes);
+        return bytes.toByteArray();
+    }
+
+    static NbtCompound decompress(byte[] data) throws IOException {
+        return NbtIo.readCompressed(new ByteArrayInputStream(data), NbtSizeTracker.ofUnlimitedBytes());
+    }
+}
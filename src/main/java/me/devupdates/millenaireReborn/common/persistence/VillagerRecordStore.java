@@ -0,0 +1,222 @@
+package me.devupdates.millenaireReborn.common.persistence;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.village.VillageTickScheduler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Villager-Records der Welt (Ersatz für MillWorldData.saveVillagerRecords/loadVillagerRecords)
+ *
+ * Geburt, Tod oder Umzug eines Dorfbewohners hängt genau einen Eintrag an das Journal an, statt
+ * alle Records neu zu schreiben. Alle COMPACTION_CHECK_PERIOD Ticks werden die neuen Einträge im
+ * Hintergrund auf die Platte geschrieben, bei einem Stromausfall gehen also höchstens die
+ * Änderungen dieses Zeitraums verloren. Ist das Journal größer als der letzte Snapshot, wird im
+ * Hintergrund verdichtet.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillagerRecordStore {
+    private static final String NAME = "villagers";
+    private static final int COMPACTION_CHECK_PERIOD = 200;
+    private static final long MIN_JOURNAL_BYTES = 256 * 1024;
+
+    private static VillagerRecordStore instance;
+
+    private RecordJournal journal;
+    private RecordJournal.Compaction pendingCompaction;
+    private VillageTickScheduler.Job compactionJob;
+
+    private VillagerRecordStore() {
+    }
+
+    public static VillagerRecordStore getInstance() {
+        if (instance == null) {
+            instance = new VillagerRecordStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Start und Stopp beim Server
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> getInstance().start(server));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> getInstance().stop());
+    }
+
+    private void start(MinecraftServer server) {
+        try {
+            journal = RecordJournal.open(server.getSavePath(WorldSavePath.ROOT).resolve("millenaire"), NAME);
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not open villager records", e);
+            return;
+        }
+        compactionJob = VillageTickScheduler.getInstance().schedule("villager journal", this,
+            COMPACTION_CHECK_PERIOD, 0.5, this::syncAndCompact);
+    }
+
+    private void stop() {
+        if (compactionJob != null) {
+            compactionJob.cancel();
+            compactionJob = null;
+        }
+        // Eine nicht mehr geschriebene Compaction schadet nicht - das Journal wird dann beim Start abgespielt
+        pendingCompaction = null;
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                MillenaireReborn.LOGGER.error("Error while closing villager records", e);
+            }
+            journal = null;
+        }
+    }
+
+    public boolean isLoaded() {
+        return journal != null;
+    }
+
+    /**
+     * Record eines Dorfbewohners oder null
+     */
+    public NbtCompound get(long villagerId) {
+        if (journal == null) {
+            return null;
+        }
+        byte[] data = journal.get(villagerId);
+        if (data == null) {
+            return null;
+        }
+        try {
+            return decode(data);
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Corrupt villager record {}", villagerId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Alle Records (z.B. beim Laden der Dörfer)
+     */
+    public Long2ObjectMap<NbtCompound> getAll() {
+        Long2ObjectMap<NbtCompound> result = new Long2ObjectOpenHashMap<>();
+        if (journal == null) {
+            return result;
+        }
+        for (Long2ObjectMap.Entry<byte[]> entry : journal.getAll().long2ObjectEntrySet()) {
+            try {
+                result.put(entry.getLongKey(), decode(entry.getValue()));
+            } catch (IOException e) {
+                MillenaireReborn.LOGGER.error("Corrupt villager record {}", entry.getLongKey(), e);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return journal == null ? 0 : journal.size();
+    }
+
+    /**
+     * Legt einen Record an oder ersetzt ihn
+     */
+    public void put(long villagerId, NbtCompound record) {
+        if (journal == null) {
+            return;
+        }
+        long start = MillProfiler.start();
+        try {
+            journal.put(villagerId, encode(record));
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not save villager record {}", villagerId, e);
+        }
+        MillProfiler.stop(ProfilerSection.SAVE, null, "villager record", start);
+    }
+
+    public void remove(long villagerId) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.remove(villagerId);
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not remove villager record {}", villagerId, e);
+        }
+    }
+
+    private void syncAndCompact() {
+        if (journal == null) {
+            return;
+        }
+        RecordJournal current = journal;
+        try {
+            MillExecutors.save().execute(() -> force(current));
+        } catch (RejectedExecutionException e) {
+            // Speicher-Thread ausgelastet: beim nächsten Durchlauf erneut
+        }
+        try {
+            if (pendingCompaction == null && journal.needsCompaction(MIN_JOURNAL_BYTES)) {
+                pendingCompaction = journal.compact();
+            }
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not start villager record compaction", e);
+            return;
+        }
+        if (pendingCompaction == null) {
+            return;
+        }
+        RecordJournal target = journal;
+        RecordJournal.Compaction compaction = pendingCompaction;
+        try {
+            MillExecutors.save().execute(() -> writeSnapshot(target, compaction));
+            pendingCompaction = null;
+        } catch (RejectedExecutionException e) {
+            // Speicher-Thread ausgelastet: beim nächsten Durchlauf erneut
+        }
+    }
+
+    private static void force(RecordJournal journal) {
+        try {
+            journal.force();
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not sync villager records", e);
+        }
+    }
+
+    private static void writeSnapshot(RecordJournal journal, RecordJournal.Compaction compaction) {
+        long start = MillProfiler.start();
+        try {
+            journal.writeSnapshot(compaction);
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not write villager record snapshot", e);
+        }
+        MillProfiler.stop(ProfilerSection.SAVE, null, "villager snapshot", start);
+    }
+
+    private static byte[] encode(NbtCompound record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        NbtIo.write(record, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static NbtCompound decode(byte[] data) throws IOException {
+        return NbtIo.readCompound(new DataInputStream(new ByteArrayInputStream(data)), NbtSizeTracker.ofUnlimitedBytes());
+    }
+}
@@ -0,0 +1,275 @@
+package me.devupdates.millenaireReborn.common.profiling;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeit-Messung der Mod-Teilsysteme (Ersatz für reportTime und die 20-Werte-Listen
+ * buildingsTime/villagersTime des alten Mods)
+ *
+ * Pro ProfilerSection ein Gesamt-Histogramm sowie je eines pro Dorf und pro Detail-Schlüssel
+ * (Ziel, Aufgabe, Priorität...). Dazu einfache Zähler. Alles sperrfrei und von jedem Thread aus
+ * nutzbar; bei abgeschaltetem Profiler kostet eine Messung nur eine Feld-Abfrage.
+ *
+ * Auslesen über /mill profile oder die JSON-Datei im millenaire-Ordner der Welt.
+ */
+public final class MillProfiler {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    // Begrenzt die Anzahl Schlüssel pro Teilsystem (z.B. bei dynamisch erzeugten Zielnamen)
+    private static final int MAX_KEYS = 512;
+    private static final String OVERFLOW_KEY = "(other)";
+    private static final String NO_VILLAGE = "(none)";
+
+    private static final class SectionStats {
+        final LatencyHistogram total = new LatencyHistogram();
+        final Map<Object, LatencyHistogram> byVillage = new ConcurrentHashMap<>();
+        final Map<String, LatencyHistogram> byDetail = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    }
+
+    private static volatile EnumMap<ProfilerSection, SectionStats> sections = createSections();
+    private static volatile long sinceMillis = System.currentTimeMillis();
+
+    private MillProfiler() {
+    }
+
+    /**
+     * Registriert den periodischen Export
+     */
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            int interval = MillConfig.profilerDumpIntervalMinutes * 60 * 20;
+            if (MillConfig.enableProfiler && interval > 0 && server.getTicks() % interval == 0) {
+                dumpAsync(server);
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> reset());
+    }
+
+    private static EnumMap<ProfilerSection, SectionStats> createSections() {
+        EnumMap<ProfilerSection, SectionStats> map = new EnumMap<>(ProfilerSection.class);
+        for (ProfilerSection section : ProfilerSection.values()) {
+            map.put(section, new SectionStats());
+        }
+        return map;
+    }
+
+    /**
+     * Startzeit einer Messung, 0 bei abgeschaltetem Profiler
+     */
+    public static long start() {
+        return MillConfig.enableProfiler ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Beendet eine mit start() begonnene Messung
+     *
+     * @param village Dorf (meist die Position des Rathauses) oder null
+     * @param detail  Unterschlüssel wie Ziel- oder Aufgabenname, oder null
+     */
+    public static void stop(ProfilerSection section, Object village, String detail, long startNanos) {
+        if (startNanos != 0) {
+            record(section, village, detail, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Trägt eine bereits gemessene Dauer ein
+     */
+    public static void record(ProfilerSection section, Object village, String detail, long nanos) {
+        if (!MillConfig.enableProfiler) {
+            return;
+        }
+        SectionStats stats = sections.get(section);
+        stats.total.record(nanos);
+        histogram(stats.byVillage, village != null ? village : NO_VILLAGE).record(nanos);
+        if (detail != null) {
+            histogram(stats.byDetail, detail).record(nanos);
+        }
+    }
+
+    /**
+     * Erhöht einen Zähler (z.B. verschickte Pakete, verworfene Anfragen)
+     */
+    public static void count(ProfilerSection section, String counter, long delta) {
+        if (!MillConfig.enableProfiler) {
+            return;
+        }
+        Map<String, LongAdder> counters = sections.get(section).counters;
+        LongAdder adder = counters.get(counter);
+        if (adder == null) {
+            adder = counters.size() < MAX_KEYS ? counters.computeIfAbsent(counter, k -> new LongAdder())
+                : counters.computeIfAbsent(OVERFLOW_KEY, k -> new LongAdder());
+        }
+        adder.add(delta);
+    }
+
+    private static <K> LatencyHistogram histogram(Map<K, LatencyHistogram> map, K key) {
+        LatencyHistogram histogram = map.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (map.size() >= MAX_KEYS) {
+            @SuppressWarnings("unchecked")
+            K overflow = (K) OVERFLOW_KEY;
+            return map.computeIfAbsent(overflow, k -> new LatencyHistogram());
+        }
+        return map.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    public static void reset() {
+        sections = createSections();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung: Teilsysteme, darunter die teuersten Dörfer und Schlüssel
+     *
+     * @param top Anzahl Einträge pro Aufschlüsselung
+     */
+    public static List<String> describe(int top) {
+        List<String> lines = new ArrayList<>();
+        long seconds = Math.max(1, (System.currentTimeMillis() - sinceMillis) / 1000);
+        lines.add("Millénaire profile over the last " + seconds + " s (total ms / count / p50 / p99 / max):");
+        for (Map.Entry<ProfilerSection, SectionStats> entry : sections.entrySet()) {
+            SectionStats stats = entry.getValue();
+            if (stats.total.getCount() == 0 && stats.counters.isEmpty()) {
+                continue;
+            }
+            lines.add(entry.getKey().getKey() + ": " + format(stats.total));
+            for (Map.Entry<Object, LatencyHistogram> village : topEntries(stats.byVillage, top)) {
+                lines.add("  village " + village.getKey() + ": " + format(village.getValue()));
+            }
+            for (Map.Entry<String, LatencyHistogram> detail : topEntries(stats.byDetail, top)) {
+                lines.add("  " + detail.getKey() + ": " + format(detail.getValue()));
+            }
+            for (Map.Entry<String, LongAdder> counter : stats.counters.entrySet()) {
+                lines.add("  #" + counter.getKey() + ": " + counter.getValue().sum());
+            }
+        }
+        return lines;
+    }
+
+    private static String format(LatencyHistogram histogram) {
+        return String.format("%.1f / %d / %.2f / %.2f / %.2f", histogram.getTotalNanos() / 1_000_000.0,
+            histogram.getCount(), histogram.percentileMillis(0.5), histogram.percentileMillis(0.99),
+            histogram.getMaxNanos() / 1_000_000.0);
+    }
+
+    private static <K> List<Map.Entry<K, LatencyHistogram>> topEntries(Map<K, LatencyHistogram> map, int top) {
+        List<Map.Entry<K, LatencyHistogram>> entries = new ArrayList<>(map.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<K, LatencyHistogram> e) -> e.getValue().getTotalNanos()).reversed());
+        return entries.subList(0, Math.min(top, entries.size()));
+    }
+
+    public static JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("since", sinceMillis);
+        root.addProperty("now", System.currentTimeMillis());
+        JsonObject sectionsJson = new JsonObject();
+        for (Map.Entry<ProfilerSection, SectionStats> entry : sections.entrySet()) {
+            SectionStats stats = entry.getValue();
+            JsonObject section = histogramJson(stats.total);
+
+            JsonArray villages = new JsonArray();
+            for (Map.Entry<Object, LatencyHistogram> village : topEntries(stats.byVillage, Integer.MAX_VALUE)) {
+                JsonObject json = histogramJson(village.getValue());
+                json.addProperty("village", village.getKey().toString());
+                villages.add(json);
+            }
+            section.add("villages", villages);
+
+            JsonArray details = new JsonArray();
+            for (Map.Entry<String, LatencyHistogram> detail : topEntries(stats.byDetail, Integer.MAX_VALUE)) {
+                JsonObject json = histogramJson(detail.getValue());
+                json.addProperty("key", detail.getKey());
+                details.add(json);
+            }
+            section.add("keys", details);
+
+            JsonObject counters = new JsonObject();
+            for (Map.Entry<String, LongAdder> counter : stats.counters.entrySet()) {
+                counters.addProperty(counter.getKey(), counter.getValue().sum());
+            }
+            section.add("counters", counters);
+            sectionsJson.add(entry.getKey().getKey(), section);
+        }
+        root.add("sections", sectionsJson);
+        return root;
+    }
+
+    private static JsonObject histogramJson(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", histogram.getCount());
+        json.addProperty("totalMs", histogram.getTotalNanos() / 1_000_000.0);
+        json.addProperty("meanMs", histogram.getMeanMillis());
+        json.addProperty("p50Ms", histogram.percentileMillis(0.5));
+        json.addProperty("p90Ms", histogram.percentileMillis(0.9));
+        json.addProperty("p99Ms", histogram.percentileMillis(0.99));
+        json.addProperty("maxMs", histogram.getMaxNanos() / 1_000_000.0);
+        return json;
+    }
+
+    /**
+     * Schreibt die aktuelle Auswertung nach <Welt>/millenaire/profile.json
+     *
+     * @return die geschriebene Datei
+     */
+    public static Path dump(MinecraftServer server) throws IOException {
+        return write(profileFile(server), GSON.toJson(toJson()));
+    }
+
+    /**
+     * Wie dump(), die Datei wird aber im Hintergrund geschrieben
+     */
+    public static void dumpAsync(MinecraftServer server) {
+        Path file = profileFile(server);
+        String json = GSON.toJson(toJson());
+        try {
+            MillExecutors.background().execute(() -> {
+                try {
+                    write(file, json);
+                } catch (IOException e) {
+                    MillenaireReborn.LOGGER.error("Failed to write profile to {}", file, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool ausgelastet: die nächste Runde schreibt wieder
+        }
+    }
+
+    private static Path profileFile(MinecraftServer server) {
+        return server.getSavePath(WorldSavePath.ROOT).resolve("millenaire").resolve("profile.json");
+    }
+
+    private static Path write(Path file, String json) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, json, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+}
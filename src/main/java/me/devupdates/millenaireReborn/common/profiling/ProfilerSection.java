@@ -0,0 +1,25 @@
+package me.devupdates.millenaireReborn.common.profiling;
+
+/**
+ * Teilsysteme, deren Laufzeiten der MillProfiler getrennt erfasst
+ */
+public enum ProfilerSection {
+    PATHING("pathing"),
+    GOAL_SELECTION("goals"),
+    QUESTS("quests"),
+    MAP_UPDATE("map"),
+    CONSTRUCTION("construction"),
+    VILLAGE_JOBS("jobs"),
+    NETWORKING("network"),
+    SAVE("save");
+
+    private final String key;
+
+    ProfilerSection(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,22 @@
+package me.devupdates.millenaireReborn.common.quest;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Ein Dorfbewohner, wie ihn die Quest-Suche braucht (Auszug aus dem VillagerRecord)
+ *
+ * @param houseKey Haus des Bewohners (für die Beziehung "samehouse")
+ * @param tags     questTags des Records, also mit der UUID des Spielers davor
+ */
+public record QuestCandidate(long villagerId, String villageKey, String houseKey, String culture, String type, BitSet tags) {
+
+    public static QuestCandidate of(long villagerId, String villageKey, String houseKey, String culture, String type,
+                                    Collection<String> tags) {
+        return new QuestCandidate(villagerId, villageKey, houseKey, culture, type, TagBits.of(tags));
+    }
+
+    String typeKey() {
+        return QuestCandidateIndex.typeKey(culture, type);
+    }
+}
@@ -0,0 +1,239 @@
+package me.devupdates.millenaireReborn.common.quest;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mögliche Quest-Bewohner nach Kultur/Typ und Dorf einsortiert (Ersatz für die verschachtelten
+ * Schleifen in Quest.testQuest)
+ *
+ * Die Suche prüft zuerst die Welt- und Profil-Tags als BitSet. Erst wenn diese passen, werden
+ * die Start-Bewohner aus dem Fach ihres Typs geholt und die übrigen Rollen aus den Fächern des
+ * jeweiligen Dorfes - ohne alle Dörfer und Records zu durchlaufen.
+ *
+ * Der Index selbst gilt für alle Spieler. Was vom Spieler abhängt (seine Tags auf den Bewohnern,
+ * Bewohner in seinen laufenden Quests, sein Ruf), kommt bei jeder Suche aus dem QuestContext.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public class QuestCandidateIndex {
+
+    /**
+     * Spieler und Dörfer, für die gesucht wird (UserProfile und MillWorldData)
+     */
+    public interface QuestContext {
+        UUID getProfileId();
+
+        /**
+         * Ist der Bewohner schon in einer Quest des Spielers? (villagersInQuests)
+         */
+        boolean isInQuest(long villagerId);
+
+        boolean isVillageActive(String villageKey);
+
+        int getReputation(String villageKey);
+
+        double getDistance(String villageKey, String otherVillageKey);
+    }
+
+    /**
+     * Gefundener Quest-Start mit der Besetzung aller Rollen
+     */
+    public record QuestMatch(QuestDefinition quest, QuestCandidate starter, Map<String, QuestCandidate> roles) {
+    }
+
+    private final Long2ObjectMap<QuestCandidate> byId = new Long2ObjectOpenHashMap<>();
+    private final Map<String, Long2ObjectMap<QuestCandidate>> byType = new HashMap<>();
+    private final Map<String, Map<String, Long2ObjectMap<QuestCandidate>>> byVillage = new HashMap<>();
+
+    static String typeKey(String culture, String type) {
+        return culture + "/" + type;
+    }
+
+    /**
+     * Nimmt einen Bewohner auf oder aktualisiert ihn (Geburt, Umzug, neue Tags)
+     */
+    public void put(QuestCandidate candidate) {
+        remove(candidate.villagerId());
+        byId.put(candidate.villagerId(), candidate);
+        byType.computeIfAbsent(candidate.typeKey(), k -> new Long2ObjectOpenHashMap<>())
+            .put(candidate.villagerId(), candidate);
+        byVillage.computeIfAbsent(candidate.villageKey(), k -> new HashMap<>())
+            .computeIfAbsent(candidate.typeKey(), k -> new Long2ObjectOpenHashMap<>())
+            .put(candidate.villagerId(), candidate);
+    }
+
+    public void remove(long villagerId) {
+        QuestCandidate old = byId.remove(villagerId);
+        if (old == null) {
+            return;
+        }
+        removeFrom(byType, old.typeKey(), villagerId);
+        Map<String, Long2ObjectMap<QuestCandidate>> village = byVillage.get(old.villageKey());
+        if (village != null) {
+            removeFrom(village, old.typeKey(), villagerId);
+            if (village.isEmpty()) {
+                byVillage.remove(old.villageKey());
+            }
+        }
+    }
+
+    private static void removeFrom(Map<String, Long2ObjectMap<QuestCandidate>> buckets, String typeKey, long villagerId) {
+        Long2ObjectMap<QuestCandidate> bucket = buckets.get(typeKey);
+        if (bucket != null) {
+            bucket.remove(villagerId);
+            if (bucket.isEmpty()) {
+                buckets.remove(typeKey);
+            }
+        }
+    }
+
+    /**
+     * Entfernt alle Bewohner eines Dorfes (Dorf entladen oder zerstört)
+     */
+    public void removeVillage(String villageKey) {
+        Map<String, Long2ObjectMap<QuestCandidate>> village = byVillage.get(villageKey);
+        if (village == null) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Long2ObjectMap<QuestCandidate> bucket : village.values()) {
+            ids.addAll(bucket.keySet());
+        }
+        for (long id : ids) {
+            remove(id);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Alle Quests, die dieser Spieler jetzt beginnen könnte (UserProfile.testQuests)
+     */
+    public List<QuestMatch> findStartable(Collection<QuestDefinition> quests, BitSet globalTags, BitSet profileTags,
+                                          QuestContext context, Random random) {
+        long start = MillProfiler.start();
+        List<QuestMatch> matches = new ArrayList<>();
+        for (QuestDefinition quest : quests) {
+            if (!quest.tagsMatch(globalTags, profileTags)) {
+                continue;
+            }
+            QuestMatch match = findStart(quest, context, random);
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        MillProfiler.stop(ProfilerSection.QUESTS, null, "matching", start);
+        return matches;
+    }
+
+    /**
+     * Zufällige vollständige Besetzung einer Quest oder null (Tags müssen schon geprüft sein)
+     *
+     * Wie Quest.testQuest: alle Start-Bewohner in aktiven Dörfern mit genug Ruf kommen in Frage,
+     * jede weitere Rolle wird zufällig unter den passenden Bewohnern besetzt, am Ende wird eine
+     * der möglichen Besetzungen zufällig gewählt.
+     */
+    public QuestMatch findStart(QuestDefinition quest, QuestContext context, Random random) {
+        List<Map<String, QuestCandidate>> options = new ArrayList<>();
+        for (QuestCandidate starter : candidates(quest.starter().typeKeys(), byType)) {
+            if (!context.isVillageActive(starter.villageKey())
+                || context.getReputation(starter.villageKey()) < quest.minReputation()
+                || !quest.starter().accepts(starter, context)) {
+                continue;
+            }
+            Map<String, QuestCandidate> roles = assignRoles(quest, starter, context, random);
+            if (roles != null) {
+                options.add(roles);
+            }
+        }
+        if (options.isEmpty()) {
+            return null;
+        }
+        Map<String, QuestCandidate> roles = options.get(random.nextInt(options.size()));
+        return new QuestMatch(quest, roles.get(quest.starter().key()), roles);
+    }
+
+    private Map<String, QuestCandidate> assignRoles(QuestDefinition quest, QuestCandidate starter, QuestContext context,
+                                                    Random random) {
+        Map<String, QuestCandidate> roles = new LinkedHashMap<>();
+        roles.put(quest.starter().key(), starter);
+        for (QuestRole role : quest.related()) {
+            QuestCandidate related = roles.get(role.relatedTo());
+            if (related == null || role.relation() == QuestRole.Relation.NONE) {
+                return null;
+            }
+            List<QuestCandidate> found = new ArrayList<>();
+            switch (role.relation()) {
+                case SAME_VILLAGE, SAME_HOUSE -> {
+                    Map<String, Long2ObjectMap<QuestCandidate>> village = byVillage.get(related.villageKey());
+                    if (village == null) {
+                        return null;
+                    }
+                    boolean sameHouse = role.relation() == QuestRole.Relation.SAME_HOUSE;
+                    for (QuestCandidate candidate : candidates(role.typeKeys(), village)) {
+                        if (Objects.equals(candidate.houseKey(), related.houseKey()) == sameHouse
+                            && !roles.containsValue(candidate) && role.accepts(candidate, context)) {
+                            found.add(candidate);
+                        }
+                    }
+                }
+                case NEARBY_VILLAGE, ANY_VILLAGE -> {
+                    // Abstand wie im alten Mod vom Dorf des Start-Bewohners aus
+                    boolean nearby = role.relation() == QuestRole.Relation.NEARBY_VILLAGE;
+                    for (QuestCandidate candidate : candidates(role.typeKeys(), byType)) {
+                        if (!candidate.villageKey().equals(starter.villageKey())
+                            && (!nearby || context.getDistance(starter.villageKey(), candidate.villageKey())
+                                < QuestRole.Relation.NEARBY_DISTANCE)
+                            && !roles.containsValue(candidate) && role.accepts(candidate, context)) {
+                            found.add(candidate);
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+            if (found.isEmpty()) {
+                return null;
+            }
+            roles.put(role.key(), found.get(random.nextInt(found.size())));
+        }
+        return roles;
+    }
+
+    /**
+     * Bewohner der erlaubten Typen aus den Fächern, bei leerer Typliste alle
+     */
+    private static Iterable<QuestCandidate> candidates(Set<String> typeKeys, Map<String, Long2ObjectMap<QuestCandidate>> buckets) {
+        List<QuestCandidate> result = new ArrayList<>();
+        if (typeKeys.isEmpty()) {
+            for (Long2ObjectMap<QuestCandidate> bucket : buckets.values()) {
+                result.addAll(bucket.values());
+            }
+            return result;
+        }
+        for (String typeKey : typeKeys) {
+            Long2ObjectMap<QuestCandidate> bucket = buckets.get(typeKey);
+            if (bucket != null) {
+                result.addAll(bucket.values());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package me.devupdates.millenaireReborn.common.quest;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Startbedingungen einer Quest (Auszug aus Quest)
+ *
+ * @param minReputation Ruf, den der Spieler im Dorf des Start-Bewohners mindestens braucht
+ * @param starter       Rolle des Bewohners, der die Quest vergibt
+ * @param related       weitere beteiligte Bewohner, in der Reihenfolge der Quest-Datei
+ */
+public record QuestDefinition(String key, BitSet requiredGlobalTags, BitSet forbiddenGlobalTags,
+                              BitSet requiredProfileTags, BitSet forbiddenProfileTags, int minReputation,
+                              QuestRole starter, List<QuestRole> related) {
+
+    /**
+     * Welt- und Profil-Tags erfüllt - wird vor jeder Suche nach Bewohnern geprüft
+     */
+    public boolean tagsMatch(BitSet globalTags, BitSet profileTags) {
+        return TagBits.matches(globalTags, requiredGlobalTags, forbiddenGlobalTags)
+            && TagBits.matches(profileTags, requiredProfileTags, forbiddenProfileTags);
+    }
+}
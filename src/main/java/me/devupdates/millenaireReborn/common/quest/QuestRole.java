@@ -0,0 +1,71 @@
+package me.devupdates.millenaireReborn.common.quest;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Anforderung an einen an der Quest beteiligten Bewohner (Ersatz für QuestVillager)
+ *
+ * @param key           Name der Rolle in der Quest
+ * @param typeKeys      erlaubte "Kultur/Typ"-Kombinationen, leer für jeden Typ
+ * @param requiredTags  Tags ohne Spieler-Präfix, geprüft wird uuid + "_" + tag
+ * @param relation      Beziehung zum Bewohner der Rolle relatedTo (NONE für den Start-Bewohner)
+ */
+public record QuestRole(String key, Set<String> typeKeys, List<String> requiredTags, List<String> forbiddenTags,
+                        Relation relation, String relatedTo) {
+
+    /**
+     * Wo der Bewohner gesucht wird (relation im alten Quest-Format)
+     */
+    public enum Relation {
+        NONE,
+        // Im Dorf von relatedTo, aber nicht in dessen Haus
+        SAME_VILLAGE,
+        // Im Haus von relatedTo
+        SAME_HOUSE,
+        // In einem anderen Dorf näher als NEARBY_DISTANCE am Dorf des Start-Bewohners
+        NEARBY_VILLAGE,
+        // In irgendeinem anderen Dorf
+        ANY_VILLAGE;
+
+        public static final double NEARBY_DISTANCE = 2000;
+
+        /**
+         * Aus dem Quest-Format ("samevillage", "samehouse", "nearbyvillage", "anyvillage"), sonst null
+         */
+        public static Relation parse(String value) {
+            return switch (value) {
+                case "samevillage" -> SAME_VILLAGE;
+                case "samehouse" -> SAME_HOUSE;
+                case "nearbyvillage" -> NEARBY_VILLAGE;
+                case "anyvillage" -> ANY_VILLAGE;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * QuestVillager.testVillager: nicht schon in einer Quest des Spielers, passender Typ und
+     * die Tags des Spielers
+     */
+    public boolean accepts(QuestCandidate candidate, QuestCandidateIndex.QuestContext context) {
+        if (context.isInQuest(candidate.villagerId())) {
+            return false;
+        }
+        if (!typeKeys.isEmpty() && !typeKeys.contains(candidate.typeKey())) {
+            return false;
+        }
+        String prefix = context.getProfileId() + "_";
+        for (String tag : requiredTags) {
+            if (!candidate.tags().get(TagBits.bit(prefix + tag))) {
+                return false;
+            }
+        }
+        for (String tag : forbiddenTags) {
+            if (candidate.tags().get(TagBits.bit(prefix + tag))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
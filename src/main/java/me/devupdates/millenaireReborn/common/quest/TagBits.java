@@ -0,0 +1,41 @@
+package me.devupdates.millenaireReborn.common.quest;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vergibt jedem Tag (Welt-, Profil- oder Bewohner-Tag) eine feste Bitnummer, damit
+ * Bedingungen als BitSet-Vergleich statt als Listen-Suche geprüft werden können
+ */
+public final class TagBits {
+    private static final Map<String, Integer> BITS = new HashMap<>();
+
+    private TagBits() {
+    }
+
+    public static synchronized int bit(String tag) {
+        return BITS.computeIfAbsent(tag, t -> BITS.size());
+    }
+
+    public static BitSet of(Collection<String> tags) {
+        BitSet bits = new BitSet();
+        for (String tag : tags) {
+            bits.set(bit(tag));
+        }
+        return bits;
+    }
+
+    /**
+     * Alle geforderten Bits gesetzt und keines der verbotenen
+     */
+    public static boolean matches(BitSet tags, BitSet required, BitSet forbidden) {
+        if (forbidden.intersects(tags)) {
+            return false;
+        }
+        BitSet missing = (BitSet) required.clone();
+        missing.andNot(tags);
+        return missing.isEmpty();
+    }
+}
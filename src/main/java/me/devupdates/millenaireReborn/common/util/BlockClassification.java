@@ -0,0 +1,236 @@
+package me.devupdates.millenaireReborn.common.util;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.registry.MillBlocks;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.FluidBlock;
+import net.minecraft.block.LeavesBlock;
+import net.minecraft.block.PaneBlock;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.EmptyBlockView;
+
+/**
+ * Vorberechnete Eigenschaften aller BlockStates (Ersatz für die Namens-/Material-Prüfungen
+ * aus BlockItemUtilities)
+ *
+ * Pro Raw-ID eines BlockStates wird eine Bitmaske abgelegt. Die Tabelle wird nach dem
+ * Einfrieren der Registries beim Serverstart aufgebaut und nach jedem Datapack-Reload neu
+ * berechnet, da sich Tags ändern können. Danach ist jede Abfrage ein Array-Zugriff ohne
+ * Allokation - die Tabelle wird nur als Ganzes ausgetauscht und darf von Worker-Threads
+ * gelesen werden.
+ */
+public final class BlockClassification {
+    /** Boden, auf dem gebaut werden kann bzw. über den Erreichbarkeit geprüft wird */
+    public static final int GROUND = 1;
+    /** Blockiert den Bau bzw. darf nicht überbaut werden */
+    public static final int FORBIDDEN = 1 << 1;
+    /** Kann betreten werden (Dorfbewohner stehen darauf) */
+    public static final int SOLID = 1 << 2;
+    public static final int LIQUID = 1 << 3;
+    public static final int WATER = 1 << 4;
+    public static final int DANGER = 1 << 5;
+    /** Blockiert keine Bewegung */
+    public static final int PASSABLE = 1 << 6;
+    /** Holztür oder Zauntor - von Dorfbewohnern passierbar */
+    public static final int DOOR = 1 << 7;
+    public static final int LADDER = 1 << 8;
+    /** Natürliche (zerfallende) Blätter, die entfernt werden dürfen */
+    public static final int LEAF = 1 << 9;
+    /** Zaun, Mauer oder Gitter - darauf kann nicht gelaufen werden */
+    public static final int FENCE = 1 << 10;
+    /** Baumstamm (für die Baum-Markierung der Dorfkarte) */
+    public static final int LOG = 1 << 11;
+    /** Weg-Block */
+    public static final int PATH = 1 << 12;
+
+    private static volatile short[] table = new short[0];
+
+    private BlockClassification() {
+    }
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> rebuild());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            if (success) {
+                rebuild();
+            }
+        });
+    }
+
+    /**
+     * Berechnet die Tabelle für alle registrierten BlockStates neu
+     */
+    public static void rebuild() {
+        long startTime = System.nanoTime();
+        int size = Block.STATE_IDS.size();
+        short[] flags = new short[size];
+        for (int id = 0; id < size; id++) {
+            BlockState state = Block.STATE_IDS.get(id);
+            if (state != null) {
+                flags[id] = (short) classify(state);
+            }
+        }
+        table = flags;
+        MillenaireReborn.LOGGER.info("Classified {} block states in {} ms", size, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * Bitmaske eines BlockStates
+     */
+    public static int get(BlockState state) {
+        short[] flags = table;
+        int id = Block.getRawIdFromState(state);
+        if (id >= 0 && id < flags.length) {
+            return flags[id];
+        }
+        // Vor dem ersten Aufbau (oder unbekannter State): direkt berechnen
+        return classify(state);
+    }
+
+    public static boolean is(BlockState state, int flag) {
+        return (get(state) & flag) != 0;
+    }
+
+    public static boolean isGround(BlockState state) {
+        return is(state, GROUND);
+    }
+
+    public static boolean isForbidden(BlockState state) {
+        return is(state, FORBIDDEN);
+    }
+
+    public static boolean isSolid(BlockState state) {
+        return is(state, SOLID);
+    }
+
+    public static boolean isLiquid(BlockState state) {
+        return is(state, LIQUID);
+    }
+
+    public static boolean isWater(BlockState state) {
+        return is(state, WATER);
+    }
+
+    public static boolean isDangerous(BlockState state) {
+        return is(state, DANGER);
+    }
+
+    /**
+     * Regeln aus der alten blocktypes.txt, übertragen auf Tags und Block-Eigenschaften
+     */
+    static int classify(BlockState state) {
+        if (state.isAir()) {
+            return PASSABLE;
+        }
+
+        int flags = 0;
+        boolean water = state.getFluidState().isIn(FluidTags.WATER);
+        boolean lava = state.getFluidState().isIn(FluidTags.LAVA);
+        boolean fluidBlock = state.getBlock() instanceof FluidBlock;
+
+        if (fluidBlock) {
+            flags |= LIQUID;
+        }
+        if ((fluidBlock && water) || state.isOf(Blocks.BUBBLE_COLUMN)) {
+            flags |= WATER;
+        }
+        if (matchesGround(state, fluidBlock)) {
+            flags |= GROUND;
+        }
+        if (matchesForbidden(state, fluidBlock)) {
+            flags |= FORBIDDEN;
+        }
+        if (matchesSolid(state)) {
+            flags |= SOLID;
+        }
+        if ((fluidBlock && lava) || state.isIn(BlockTags.FIRE) || state.isIn(BlockTags.CAMPFIRES)
+            || state.isOf(Blocks.TNT) || state.isOf(Blocks.CACTUS) || state.isOf(Blocks.MAGMA_BLOCK)
+            || state.isOf(Blocks.SWEET_BERRY_BUSH) || state.isOf(Blocks.POWDER_SNOW) || state.isOf(Blocks.WITHER_ROSE)) {
+            flags |= DANGER;
+        }
+        if (!state.blocksMovement()) {
+            flags |= PASSABLE;
+        }
+        if (state.isIn(BlockTags.WOODEN_DOORS) || state.isIn(BlockTags.FENCE_GATES)) {
+            flags |= DOOR;
+        }
+        if (state.isIn(BlockTags.CLIMBABLE)) {
+            flags |= LADDER;
+        }
+        if (state.getBlock() instanceof LeavesBlock
+            && (!state.contains(LeavesBlock.PERSISTENT) || !state.get(LeavesBlock.PERSISTENT))) {
+            flags |= LEAF;
+        }
+        if (state.isIn(BlockTags.FENCES) || state.isIn(BlockTags.WALLS) || state.isOf(Blocks.IRON_BARS)) {
+            flags |= FENCE;
+        }
+        if (state.isIn(BlockTags.LOGS)) {
+            flags |= LOG;
+        }
+        if (state.isOf(Blocks.DIRT_PATH)) {
+            flags |= PATH;
+        }
+        return flags;
+    }
+
+    // ground_materials=grass,ground,rock,sand,crafted_snow,clay
+    private static boolean matchesGround(BlockState state, boolean fluidBlock) {
+        if (fluidBlock) {
+            return false;
+        }
+        return state.isIn(BlockTags.DIRT) || state.isIn(BlockTags.SAND) || state.isIn(BlockTags.TERRACOTTA)
+            || state.isIn(BlockTags.BASE_STONE_OVERWORLD) || state.isIn(BlockTags.BASE_STONE_NETHER)
+            || state.isIn(BlockTags.STONE_BRICKS) || state.isIn(BlockTags.COAL_ORES) || state.isIn(BlockTags.IRON_ORES)
+            || state.isIn(BlockTags.COPPER_ORES) || state.isIn(BlockTags.GOLD_ORES) || state.isIn(BlockTags.REDSTONE_ORES)
+            || state.isIn(BlockTags.LAPIS_ORES) || state.isIn(BlockTags.DIAMOND_ORES) || state.isIn(BlockTags.EMERALD_ORES)
+            || state.isOf(Blocks.GRAVEL) || state.isOf(Blocks.CLAY) || state.isOf(Blocks.SNOW_BLOCK)
+            || state.isOf(Blocks.SANDSTONE) || state.isOf(Blocks.RED_SANDSTONE) || state.isOf(Blocks.COBBLESTONE)
+            || state.isOf(Blocks.MOSSY_COBBLESTONE) || state.isOf(Blocks.FARMLAND) || state.isOf(Blocks.DIRT_PATH);
+    }
+
+    // forbidden_materials=iron,anvil,sponge,glass,circuits,redstone_light,ice,packed_ice,dragon_egg,portal,water,lava,tnt
+    // forbidden_blocks=minecraft:cobblestone,minecraft:brick_block,millenaire:*_deco,minecraft:planks
+    private static boolean matchesForbidden(BlockState state, boolean fluidBlock) {
+        if (fluidBlock || state.hasBlockEntity()) {
+            return true;
+        }
+        if (state.isIn(BlockTags.IMPERMEABLE) || state.getBlock() instanceof PaneBlock || state.isIn(BlockTags.ICE)
+            || state.isIn(BlockTags.PORTALS) || state.isIn(BlockTags.ANVIL) || state.isIn(BlockTags.RAILS)
+            || state.isIn(BlockTags.BUTTONS) || state.isIn(BlockTags.PRESSURE_PLATES) || state.isIn(BlockTags.PLANKS)) {
+            return true;
+        }
+        if (state.isOf(Blocks.IRON_BLOCK) || state.isOf(Blocks.IRON_DOOR) || state.isOf(Blocks.IRON_TRAPDOOR)
+            || state.isOf(Blocks.SPONGE) || state.isOf(Blocks.WET_SPONGE) || state.isOf(Blocks.REDSTONE_LAMP)
+            || state.isOf(Blocks.REDSTONE_WIRE) || state.isOf(Blocks.REPEATER) || state.isOf(Blocks.LEVER)
+            || state.isOf(Blocks.DRAGON_EGG) || state.isOf(Blocks.TNT) || state.isOf(Blocks.COBBLESTONE)
+            || state.isOf(Blocks.BRICKS)) {
+            return true;
+        }
+        return isMillDecoration(state);
+    }
+
+    private static boolean isMillDecoration(BlockState state) {
+        return (MillBlocks.NORMAN_BRICKS != null && state.isOf(MillBlocks.NORMAN_BRICKS))
+            || (MillBlocks.NORMAN_COBBLESTONE != null && state.isOf(MillBlocks.NORMAN_COBBLESTONE))
+            || (MillBlocks.BYZANTINE_TILES != null && state.isOf(MillBlocks.BYZANTINE_TILES))
+            || (MillBlocks.BYZANTINE_SANDSTONE_ORNAMENT != null && state.isOf(MillBlocks.BYZANTINE_SANDSTONE_ORNAMENT))
+            || (MillBlocks.INDIAN_STONE_ORNAMENT != null && state.isOf(MillBlocks.INDIAN_STONE_ORNAMENT));
+    }
+
+    // Volle Blöcke und alles mit fester Oberseite, dazu Glas, Stufen, Treppen, Zäune und Ackerland
+    private static boolean matchesSolid(BlockState state) {
+        if (state.isFullCube(EmptyBlockView.INSTANCE, BlockPos.ORIGIN)
+            || state.isSideSolidFullSquare(EmptyBlockView.INSTANCE, BlockPos.ORIGIN, Direction.UP)) {
+            return true;
+        }
+        return state.isIn(BlockTags.IMPERMEABLE) || state.getBlock() instanceof PaneBlock || state.isIn(BlockTags.SLABS)
+            || state.isIn(BlockTags.STAIRS) || state.isIn(BlockTags.FENCES) || state.isOf(Blocks.FARMLAND)
+            || state.isOf(Blocks.DIRT_PATH);
+    }
+}
@@ -0,0 +1,125 @@
+package me.devupdates.millenaireReborn.common.util;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gemeinsame, begrenzte Thread-Pools für Hintergrundarbeit
+ * Ersetzt die einzelnen Threads des alten Mods (RegionMapperThread, SaveWorker...).
+ *
+ * Die Warteschlangen sind begrenzt: ist sie voll, wirft execute() eine
+ * RejectedExecutionException und der Aufrufer versucht es später erneut.
+ */
+public final class MillExecutors {
+    private static final int BACKGROUND_QUEUE_SIZE = 64;
+    private static final int SAVE_QUEUE_SIZE = 16;
+
+    private static ThreadPoolExecutor background;
+    private static ForkJoinPool placement;
+    private static ThreadPoolExecutor save;
+
+    private MillExecutors() {
+    }
+
+    /**
+     * Beendet die Pools beim Serverstopp, beim nächsten Start werden sie neu angelegt
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> shutdown());
+    }
+
+    /**
+     * Pool für rechenintensive Dorf-Aufgaben (z.B. RegionMapper-Updates)
+     */
+    public static synchronized ExecutorService background() {
+        if (background == null) {
+            int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 4));
+            background = newBoundedExecutor("Millenaire Background", threads, BACKGROUND_QUEUE_SIZE);
+        }
+        return background;
+    }
+
+    /**
+     * Fork/Join-Pool für parallel aufgeteilte Suchen (z.B. Gebäudeplatzierung)
+     * Lässt einen Kern für den Server-Thread frei.
+     */
+    public static synchronized ForkJoinPool placement() {
+        if (placement == null) {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+            AtomicInteger counter = new AtomicInteger();
+            placement = new ForkJoinPool(threads, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Millenaire Placement #" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }, null, false);
+        }
+        return placement;
+    }
+
+    /**
+     * Einzelner Thread für Schreibzugriffe auf die Speicherdateien
+     * Ein Thread genügt und hält die Schreibreihenfolge pro Datei stabil.
+     */
+    public static synchronized ExecutorService save() {
+        if (save == null) {
+            save = newBoundedExecutor("Millenaire Save", 1, SAVE_QUEUE_SIZE);
+        }
+        return save;
+    }
+
+    /**
+     * Legt einen Pool mit fester Thread-Anzahl und begrenzter Warteschlange an
+     */
+    public static ThreadPoolExecutor newBoundedExecutor(String name, int threads, int queueSize) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + " #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    static synchronized void shutdown() {
+        if (background != null) {
+            background.shutdownNow();
+            try {
+                if (!background.awaitTermination(5, TimeUnit.SECONDS)) {
+                    MillenaireReborn.LOGGER.warn("Background tasks did not finish within 5 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            background = null;
+        }
+        if (placement != null) {
+            placement.shutdownNow();
+            placement = null;
+        }
+        if (save != null) {
+            // Laufende Schreibvorgänge nicht abbrechen, sonst bleiben halbe Sektoren liegen
+            save.shutdown();
+            try {
+                if (!save.awaitTermination(10, TimeUnit.SECONDS)) {
+                    MillenaireReborn.LOGGER.warn("Save tasks did not finish within 10 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            save = null;
+        }
+    }
+}
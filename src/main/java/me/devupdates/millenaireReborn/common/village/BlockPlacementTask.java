@@ -0,0 +1,19 @@
+package me.devupdates.millenaireReborn.common.village;
+
+/**
+ * Bau eines Gebäudes, der über mehrere Ticks verteilt Blöcke setzt (Ersatz für den Aufruf von
+ * BuildingPlan.build in einem Stück)
+ *
+ * Die Blöcke gehen gesammelt über den BulkBlockWriter, der Aufrufer ruft danach finish() auf.
+ * Wird nur vom Server-Thread aufgerufen.
+ */
+@FunctionalInterface
+public interface BlockPlacementTask {
+
+    /**
+     * Setzt Blöcke, bis der Bau fertig ist oder deadline (System.nanoTime) erreicht ist
+     *
+     * @return true, wenn alle Blöcke gesetzt sind
+     */
+    boolean place(BulkBlockWriter writer, long deadline);
+}
@@ -0,0 +1,177 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.Set;
+
+/**
+ * Position und Ausdehnung eines Gebäudes im Dorf (portiert vom alten Mod)
+ *
+ * Bisher nur der geometrische Teil, den Dorfkarte und Platzsuche benötigen -
+ * plan- und kulturbezogene Felder folgen mit dem BuildingPlan-Port.
+ */
+public class BuildingLocation implements Cloneable {
+    public String planKey;
+    public int level;
+    public int orientation;
+    public int length;
+    public int width;
+    public boolean isCustomBuilding = false;
+    // Gebäude auf Grundgestein-Höhe (z.B. Minen): kein Freiräumen
+    public boolean bedrocklevel = false;
+    public Point pos;
+
+    public int minx, maxx;
+    public int miny, maxy;
+    public int minz, maxz;
+    public int minxMargin, maxxMargin;
+    public int minyMargin, maxyMargin;
+    public int minzMargin, maxzMargin;
+
+    private int variation;
+    // Tags des Plans (klein geschrieben) - vor dem Eintragen in die Dorfkarte setzen
+    private Set<String> planTags = Set.of();
+
+    public BuildingLocation() {
+    }
+
+    public BuildingLocation(String planKey, Point pos, int orientation, int length, int width) {
+        this.planKey = planKey;
+        this.pos = pos;
+        this.orientation = orientation;
+        this.length = length;
+        this.width = width;
+    }
+
+    @Override
+    public BuildingLocation clone() {
+        try {
+            return (BuildingLocation) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Berechnet die Ausdehnung aus Position, Ausrichtung und Plan-Höhen (initialisePlan im alten Mod)
+     */
+    public void initialiseBounds(int startLevel, int nbFloors) {
+        Point op1 = adjustForOrientation(length / 2, width / 2);
+        Point op2 = adjustForOrientation(-length / 2, -width / 2);
+        minx = Math.min(op1.x, op2.x);
+        maxx = Math.max(op1.x, op2.x);
+        minz = Math.min(op1.z, op2.z);
+        maxz = Math.max(op1.z, op2.z);
+        miny = pos.y + startLevel;
+        maxy = miny + nbFloors;
+        computeMargins();
+    }
+
+    private Point adjustForOrientation(int xoffset, int zoffset) {
+        return new Point(worldX(xoffset, zoffset), pos.y, worldZ(xoffset, zoffset));
+    }
+
+    /**
+     * Welt-x eines Plan-Versatzes zur Gebäudemitte, gedreht nach orientation
+     */
+    public int worldX(int xoffset, int zoffset) {
+        return switch (orientation) {
+            case 1 -> pos.x + zoffset;
+            case 2 -> pos.x - xoffset - 1;
+            case 3 -> pos.x - zoffset - 1;
+            default -> pos.x + xoffset;
+        };
+    }
+
+    /**
+     * Welt-z eines Plan-Versatzes zur Gebäudemitte, gedreht nach orientation
+     */
+    public int worldZ(int xoffset, int zoffset) {
+        return switch (orientation) {
+            case 1 -> pos.z - xoffset - 1;
+            case 2 -> pos.z - zoffset - 1;
+            case 3 -> pos.z + xoffset;
+            default -> pos.z + zoffset;
+        };
+    }
+
+    /**
+     * Berechnet die Randzone um das Gebäude, in der nicht gebaut werden darf
+     */
+    public void computeMargins() {
+        minxMargin = minx - MillConfig.minDistanceBetweenBuildings + 1;
+        minzMargin = minz - MillConfig.minDistanceBetweenBuildings + 1;
+        minyMargin = miny - 3;
+        maxyMargin = maxy + 1;
+        maxxMargin = maxx + MillConfig.minDistanceBetweenBuildings + 1;
+        maxzMargin = maxz + MillConfig.minDistanceBetweenBuildings + 1;
+    }
+
+    public int getVariation() {
+        return variation;
+    }
+
+    public void setVariation(int variation) {
+        this.variation = variation;
+    }
+
+    public Set<String> getPlanTags() {
+        return planTags;
+    }
+
+    public void setPlanTags(Set<String> planTags) {
+        this.planTags = Set.copyOf(planTags);
+    }
+
+    public boolean containsPlanTag(String tag) {
+        return planTags.contains(tag);
+    }
+
+    public boolean isInside(Point p) {
+        return minx < p.x && p.x <= maxx && miny < p.y && p.y <= maxy && minz < p.z && p.z <= maxz;
+    }
+
+    public boolean isInsidePlanar(Point p) {
+        return minx < p.x && p.x <= maxx && minz < p.z && p.z <= maxz;
+    }
+
+    public boolean isInsideZone(Point p) {
+        return minxMargin <= p.x && p.x <= maxxMargin && minyMargin <= p.y && p.y <= maxyMargin
+            && minzMargin <= p.z && p.z <= maxzMargin;
+    }
+
+    public boolean isLocationSamePlace(BuildingLocation l) {
+        if (l == null) {
+            return false;
+        }
+        return pos.equals(l.pos) && orientation == l.orientation && variation == l.variation;
+    }
+
+    public boolean isSameLocation(BuildingLocation l) {
+        if (l == null) {
+            return false;
+        }
+        boolean samePlanKey = planKey == null ? l.planKey == null : planKey.equals(l.planKey);
+        return isLocationSamePlace(l) && samePlanKey && isCustomBuilding == l.isCustomBuilding;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BuildingLocation bl)) {
+            return false;
+        }
+        return planKey.equals(bl.planKey) && level == bl.level && pos.equals(bl.pos)
+            && orientation == bl.orientation && variation == bl.variation;
+    }
+
+    @Override
+    public int hashCode() {
+        return (planKey + "_" + level + " at " + pos + "/" + orientation + "/" + variation).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return planKey + "_" + (char) ('A' + variation) + level + " at " + pos + "/" + orientation;
+    }
+}
@@ -0,0 +1,138 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Räumlicher Index der BuildingLocations eines Dorfes nach Plan-Tag
+ * (für die farFromTag-/closeToTag-Bedingungen der Platzsuche)
+ *
+ * Pro Tag ein gleichmäßiges Raster mit 16er-Zellen; eine Abfrage prüft nur die Zellen im
+ * Umkreis statt aller Gebäude des Dorfes. Wird von VillageMapInfo zusammen mit
+ * addBuildingLocationToMap/removeBuildingLocation gepflegt.
+ *
+ * Nur vom Server-Thread verändern; copy() liefert einen unabhängigen Stand für andere Threads.
+ */
+public class BuildingLocationIndex {
+    private static final int CELL_SHIFT = 4;
+
+    private final Map<String, Long2ObjectMap<List<BuildingLocation>>> cellsByTag;
+
+    public BuildingLocationIndex() {
+        this.cellsByTag = new HashMap<>();
+    }
+
+    private BuildingLocationIndex(Map<String, Long2ObjectMap<List<BuildingLocation>>> cellsByTag) {
+        this.cellsByTag = cellsByTag;
+    }
+
+    private static long cellKey(int x, int z) {
+        return ChunkPos.toLong(x >> CELL_SHIFT, z >> CELL_SHIFT);
+    }
+
+    public void add(BuildingLocation bl) {
+        if (bl.pos == null) {
+            return;
+        }
+        long key = cellKey(bl.pos.x, bl.pos.z);
+        for (String tag : bl.getPlanTags()) {
+            cellsByTag.computeIfAbsent(tag, t -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(key, k -> new ArrayList<>(2))
+                .add(bl);
+        }
+    }
+
+    public void remove(BuildingLocation bl) {
+        if (bl.pos == null) {
+            return;
+        }
+        long key = cellKey(bl.pos.x, bl.pos.z);
+        for (String tag : bl.getPlanTags()) {
+            Long2ObjectMap<List<BuildingLocation>> cells = cellsByTag.get(tag);
+            if (cells == null) {
+                continue;
+            }
+            List<BuildingLocation> cell = cells.get(key);
+            if (cell != null && cell.remove(bl) && cell.isEmpty()) {
+                cells.remove(key);
+                if (cells.isEmpty()) {
+                    cellsByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        cellsByTag.clear();
+    }
+
+    /**
+     * Gibt es ein Gebäude mit diesem Tag, das horizontal näher als distance an (x, z) liegt?
+     */
+    public boolean isTagWithin(String tag, int x, int z, int distance) {
+        Long2ObjectMap<List<BuildingLocation>> cells = cellsByTag.get(tag);
+        if (cells == null || distance <= 0) {
+            return false;
+        }
+        long maxSquared = (long) distance * distance;
+        int reach = distance - 1;
+        for (int cx = (x - reach) >> CELL_SHIFT; cx <= (x + reach) >> CELL_SHIFT; cx++) {
+            for (int cz = (z - reach) >> CELL_SHIFT; cz <= (z + reach) >> CELL_SHIFT; cz++) {
+                List<BuildingLocation> cell = cells.get(ChunkPos.toLong(cx, cz));
+                if (cell == null) {
+                    continue;
+                }
+                for (BuildingLocation bl : cell) {
+                    long dx = bl.pos.x - x;
+                    long dz = bl.pos.z - z;
+                    if (dx * dx + dz * dz < maxSquared) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prüft die farFromTag-Bedingungen eines Plans (Tag -> Mindestabstand)
+     */
+    public boolean isFarFromTags(Map<String, Integer> farFromTag, int x, int z) {
+        for (Map.Entry<String, Integer> entry : farFromTag.entrySet()) {
+            if (isTagWithin(entry.getKey(), x, z, entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft die closeToTag-Bedingungen eines Plans (Tag -> Höchstabstand)
+     */
+    public boolean isCloseToTags(Map<String, Integer> closeToTag, int x, int z) {
+        for (Map.Entry<String, Integer> entry : closeToTag.entrySet()) {
+            if (!isTagWithin(entry.getKey(), x, z, entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public BuildingLocationIndex copy() {
+        Map<String, Long2ObjectMap<List<BuildingLocation>>> copy = new HashMap<>();
+        for (Map.Entry<String, Long2ObjectMap<List<BuildingLocation>>> entry : cellsByTag.entrySet()) {
+            Long2ObjectMap<List<BuildingLocation>> cells = new Long2ObjectOpenHashMap<>(entry.getValue().size());
+            for (Long2ObjectMap.Entry<List<BuildingLocation>> cell : entry.getValue().long2ObjectEntrySet()) {
+                cells.put(cell.getLongKey(), new ArrayList<>(cell.getValue()));
+            }
+            copy.put(entry.getKey(), cells);
+        }
+        return new BuildingLocationIndex(copy);
+    }
+}
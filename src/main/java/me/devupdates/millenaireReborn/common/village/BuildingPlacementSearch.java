@@ -0,0 +1,211 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.pathing.RegionMapper;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suche nach einem Bauplatz um ein Zentrum (Ersatz für BuildingPlan.findBuildingLocation)
+ *
+ * Die Felder werden in derselben Reihenfolge wie im alten Mod erzeugt (quadratische Ringe mit
+ * wachsendem Radius) und in Blöcken zu je BATCH_SIZE Feldern parallel auf dem Placement-Pool
+ * geprüft. Gewinner ist immer das erste gültige Feld in dieser Reihenfolge - also dasselbe
+ * wie bei der seriellen Suche, unabhängig von Thread-Anzahl und Timing.
+ *
+ * Gearbeitet wird auf einem unveränderlichen Snapshot der Karte, dem Gebäude-Index und einem
+ * fertigen RegionMapper; SpotTest-Implementierungen dürfen nur diese lesen. Die geprüften Felder
+ * (früher winfo.buildTested) gehören zur einzelnen Suche.
+ */
+public class BuildingPlacementSearch {
+    private static final int BATCH_SIZE = 512;
+    // Darunter lohnt sich das Aufteilen nicht
+    private static final int PARALLEL_THRESHOLD = 64;
+    private static final int TASK_SIZE = 32;
+
+    /**
+     * Prüfung eines einzelnen Feldes (Kartenkoordinaten) - muss thread-sicher und frei von
+     * Seiteneffekten sein, sonst ist das Ergebnis nicht reproduzierbar
+     */
+    @FunctionalInterface
+    public interface SpotTest {
+        LocationReturn test(BuildingPlacementSearch search, int x, int z);
+    }
+
+    private final VillageMapLayers map;
+    private final BuildingLocationIndex locationIndex;
+    private final RegionMapper regionMapper;
+    private final Point centre;
+    private final long[] tested;
+
+    private final int[] cells = new int[BATCH_SIZE];
+    private int cellCount;
+    private LocationReturn result;
+
+    /**
+     * @param map          Snapshot der Dorfkarte (VillageMapInfo.snapshot())
+     * @param regionMapper fertiger RegionMapper des Dorfes oder null (keine Erreichbarkeitsprüfung)
+     * @param centre       Zentrum der Suche (Weltkoordinaten), meist das Rathaus
+     */
+    public BuildingPlacementSearch(VillageMapLayers map, BuildingLocationIndex locationIndex, RegionMapper regionMapper, Point centre) {
+        if (!map.isReadOnly()) {
+            throw new IllegalArgumentException("Placement search needs a village map snapshot");
+        }
+        this.map = map;
+        this.locationIndex = locationIndex;
+        this.regionMapper = regionMapper;
+        this.centre = centre;
+        this.tested = new long[(map.getLength() * map.getWidth() + 63) >> 6];
+    }
+
+    public VillageMapLayers getMap() {
+        return map;
+    }
+
+    public BuildingLocationIndex getLocationIndex() {
+        return locationIndex;
+    }
+
+    public RegionMapper getRegionMapper() {
+        return regionMapper;
+    }
+
+    public Point getCentre() {
+        return centre;
+    }
+
+    /**
+     * Wurde das Feld (Kartenkoordinaten) in dieser Suche geprüft?
+     */
+    public boolean wasTested(int x, int z) {
+        int i = x * map.getWidth() + z;
+        return (tested[i >> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Sucht ab startRadius bis (exklusive) maxRadius nach dem ersten gültigen Feld
+     *
+     * @return die gefundene Position oder null
+     */
+    public BuildingLocation find(int startRadius, int maxRadius, SpotTest test) {
+        long startTime = System.nanoTime();
+        int ci = centre.x - map.getMapStartX();
+        int cj = centre.z - map.getMapStartZ();
+        int length = map.getLength();
+        int width = map.getWidth();
+        result = null;
+        cellCount = 0;
+
+        for (int radius = startRadius; radius < maxRadius && result == null; radius++) {
+            int mini = Math.max(0, ci - radius);
+            int maxi = Math.min(length - 1, ci + radius);
+            int minj = Math.max(0, cj - radius);
+            int maxj = Math.min(width - 1, cj + radius);
+
+            for (int k = mini; k < maxi && result == null; k++) {
+                if (cj - radius == minj) {
+                    addCell(k, minj, test);
+                }
+                if (cj + radius == maxj) {
+                    addCell(k, maxj, test);
+                }
+            }
+            for (int j = minj; j < maxj && result == null; j++) {
+                if (ci - radius == mini) {
+                    addCell(mini, j, test);
+                }
+                if (ci + radius == maxi) {
+                    addCell(maxi, j, test);
+                }
+            }
+        }
+        if (result == null && cellCount > 0) {
+            evaluateBatch(test);
+        }
+
+        MillProfiler.record(ProfilerSection.CONSTRUCTION, centre, "placement search", System.nanoTime() - startTime);
+        if (MillConfig.enableDebugMode) {
+            MillenaireReborn.LOGGER.debug("Location search around {} took {} ms ({})", centre,
+                (System.nanoTime() - startTime) / 1_000_000.0, result != null ? result.location : "nothing found");
+        }
+        return result != null ? result.location : null;
+    }
+
+    private void addCell(int x, int z, SpotTest test) {
+        cells[cellCount++] = x * map.getWidth() + z;
+        if (cellCount == cells.length) {
+            evaluateBatch(test);
+        }
+    }
+
+    private void evaluateBatch(SpotTest test) {
+        int count = cellCount;
+        cellCount = 0;
+        LocationReturn[] found = new LocationReturn[count];
+        AtomicInteger winner = new AtomicInteger(count);
+
+        if (count < PARALLEL_THRESHOLD) {
+            testRange(test, 0, count, found, winner);
+        } else {
+            MillExecutors.placement().invoke(new BatchTask(test, 0, count, found, winner));
+        }
+
+        // Wie bei der seriellen Suche gilt alles bis einschließlich des Gewinners als geprüft
+        int last = Math.min(winner.get(), count - 1);
+        for (int i = 0; i <= last; i++) {
+            int cell = cells[i];
+            tested[cell >> 6] |= 1L << cell;
+        }
+        if (winner.get() < count) {
+            result = found[winner.get()];
+        }
+    }
+
+    private void testRange(SpotTest test, int from, int to, LocationReturn[] found, AtomicInteger winner) {
+        int width = map.getWidth();
+        for (int i = from; i < to; i++) {
+            // Ein früheres Feld hat schon gewonnen - der Rest dieses Abschnitts ist egal
+            if (i > winner.get()) {
+                return;
+            }
+            int cell = cells[i];
+            LocationReturn lr = test.test(this, cell / width, cell % width);
+            if (lr.location != null) {
+                found[i] = lr;
+                winner.accumulateAndGet(i, Math::min);
+                return;
+            }
+        }
+    }
+
+    private final class BatchTask extends RecursiveAction {
+        private final SpotTest test;
+        private final int from, to;
+        private final LocationReturn[] found;
+        private final AtomicInteger winner;
+
+        BatchTask(SpotTest test, int from, int to, LocationReturn[] found, AtomicInteger winner) {
+            this.test = test;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+            this.winner = winner;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_SIZE) {
+                testRange(test, from, to, found, winner);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(test, from, middle, found, winner), new BatchTask(test, middle, to, found, winner));
+        }
+    }
+}
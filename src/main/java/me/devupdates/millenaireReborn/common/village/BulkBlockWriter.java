@@ -0,0 +1,170 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Setzt viele Blöcke auf einmal direkt in die Chunk-Sektionen (Dorf-Generierung und
+ * rushCurrentConstructions - statt BuildingBlock.build mit vollen Updates pro Block)
+ *
+ * - keine Nachbar- und Form-Updates, wie bei der Strukturgenerierung von Minecraft
+ * - Licht: Himmelslicht-Quellen werden sofort nachgeführt, jede geänderte Stelle wird nur
+ *   einmal, gesammelt in finish() geprüft; der Leer-Status jeder berührten Sektion geht nur
+ *   einmal an Licht-Engine und Chunk-Manager
+ * - POIs und Pfad-Snapshots werden wie bei World.setBlockState pro Block benachrichtigt
+ * - Clients: die Stellen werden pro Sektion gesammelt und am Tick-Ende von Minecraft als ein
+ *   Paket pro Sektion verschickt
+ * - Blöcke mit Block-Entity (Truhen, Schilder...) und Stellen in nicht geladenen Chunks werden
+ *   in finish() normal über die Welt gesetzt
+ *
+ * Nach dem letzten set() immer finish() aufrufen. Nur vom Server-Thread verwenden.
+ */
+public class BulkBlockWriter {
+    private static final Heightmap.Type[] HEIGHTMAPS = {
+        Heightmap.Type.MOTION_BLOCKING,
+        Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+        Heightmap.Type.OCEAN_FLOOR,
+        Heightmap.Type.WORLD_SURFACE
+    };
+
+    private record Deferred(BlockPos pos, BlockState state) {
+    }
+
+    private final ServerWorld world;
+    private final ServerChunkManager chunkManager;
+    private final LongOpenHashSet lightChecks = new LongOpenHashSet();
+    private final LongOpenHashSet touchedSections = new LongOpenHashSet();
+    private final LongOpenHashSet emptySections = new LongOpenHashSet();
+    private final List<Deferred> deferred = new ArrayList<>();
+
+    // Zuletzt benutzter Chunk - aufeinanderfolgende Blöcke liegen fast immer im selben
+    private WorldChunk chunk;
+    private int chunkX;
+    private int chunkZ;
+
+    private int written;
+
+    public BulkBlockWriter(ServerWorld world) {
+        this.world = world;
+        this.chunkManager = world.getChunkManager();
+    }
+
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        WorldChunk target = getChunk(pos.getX() >> 4, pos.getZ() >> 4);
+        return target != null ? target.getBlockState(pos) : world.getBlockState(pos);
+    }
+
+    /**
+     * Setzt einen Block, ohne Nachbarn zu benachrichtigen
+     */
+    public void set(BlockPos pos, BlockState state) {
+        WorldChunk target = getChunk(pos.getX() >> 4, pos.getZ() >> 4);
+        if (target == null || state.hasBlockEntity()) {
+            deferred.add(new Deferred(pos.toImmutable(), state));
+            return;
+        }
+        int y = pos.getY();
+        if (target.isOutOfHeightLimit(y)) {
+            return;
+        }
+        ChunkSection section = target.getSection(target.getSectionIndex(y));
+        long sectionPos = ChunkSectionPos.asLong(pos.getX() >> 4, y >> 4, pos.getZ() >> 4);
+        if (touchedSections.add(sectionPos) && section.isEmpty()) {
+            emptySections.add(sectionPos);
+        }
+
+        int x = pos.getX() & 15;
+        int z = pos.getZ() & 15;
+        BlockState old = section.setBlockState(x, y & 15, z, state);
+        if (old == state) {
+            return;
+        }
+        if (old.hasBlockEntity()) {
+            target.removeBlockEntity(pos);
+        }
+        for (Heightmap.Type type : HEIGHTMAPS) {
+            target.getHeightmap(type).trackUpdate(x, y, z, state);
+        }
+        if (LightingProvider.needsLightUpdate(old, state)) {
+            // Himmelslicht-Quellen der Spalte sofort, wie WorldChunk.setBlockState
+            target.getChunkSkyLight().isSkyLightAccessible(target, x, y, z);
+            lightChecks.add(pos.asLong());
+        }
+        target.markNeedsSaving();
+        chunkManager.markForUpdate(pos);
+        // POIs (Betten, Arbeitsblöcke) und die Pfad-Snapshots (über ServerWorldMixin)
+        world.onBlockChanged(pos, old, state);
+        written++;
+    }
+
+    /**
+     * Anzahl der bisher direkt gesetzten Blöcke
+     */
+    public int getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * Meldet Licht und Sektionen und setzt die zurückgestellten Blöcke
+     */
+    public void finish() {
+        LightingProvider lighting = chunkManager.getLightingProvider();
+        for (LongIterator it = touchedSections.iterator(); it.hasNext(); ) {
+            long sectionPos = it.nextLong();
+            int sectionX = ChunkSectionPos.unpackX(sectionPos);
+            int sectionY = ChunkSectionPos.unpackY(sectionPos);
+            int sectionZ = ChunkSectionPos.unpackZ(sectionPos);
+            WorldChunk target = getChunk(sectionX, sectionZ);
+            if (target == null) {
+                continue;
+            }
+            boolean empty = target.getSection(target.sectionCoordToIndex(sectionY)).isEmpty();
+            if (empty != emptySections.contains(sectionPos)) {
+                lighting.setSectionStatus(ChunkSectionPos.from(sectionX, sectionY, sectionZ), empty);
+                chunkManager.onSectionStatusChanged(sectionX, sectionY, sectionZ, empty);
+            }
+        }
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (LongIterator it = lightChecks.iterator(); it.hasNext(); ) {
+            long packed = it.nextLong();
+            lighting.checkBlock(pos.set(BlockPos.unpackLongX(packed), BlockPos.unpackLongY(packed), BlockPos.unpackLongZ(packed)));
+        }
+
+        // Block-Entities und Chunks außerhalb: mit den normalen Updates
+        for (Deferred block : deferred) {
+            world.setBlockState(block.pos(), block.state());
+        }
+
+        lightChecks.clear();
+        touchedSections.clear();
+        emptySections.clear();
+        deferred.clear();
+        chunk = null;
+    }
+
+    private WorldChunk getChunk(int x, int z) {
+        if (chunk == null || chunkX != x || chunkZ != z) {
+            chunk = chunkManager.getWorldChunk(x, z);
+            chunkX = x;
+            chunkZ = z;
+        }
+        return chunk;
+    }
+}
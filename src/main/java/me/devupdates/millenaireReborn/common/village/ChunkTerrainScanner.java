@@ -0,0 +1,255 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.util.BlockClassification;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.Arrays;
+
+/**
+ * Gelände-Scanner der Dorfkarte (Ersatz für die Spalten-Schleife aus VillageMapInfo.updateChunk)
+ *
+ * Statt pro Block chunk.getBlockState() aufzurufen, werden die Chunk-Sektionen im Höhenfenster
+ * einmal durchlaufen und die BlockClassification-Flags aller Blöcke in einen Puffer geschrieben:
+ * - leere Sektionen und alles oberhalb der Heightmap werden ohne Blockzugriff als Luft gefüllt
+ * - Sektionen mit nur einem BlockState (z.B. Stein) werden über die Palette erkannt und am Stück gefüllt
+ * Die Auswertung pro Spalte (gleiche Regeln wie im alten Mod) läuft danach nur noch auf dem Puffer.
+ *
+ * Hält Puffer zwischen den Aufrufen - pro Thread eine eigene Instanz verwenden.
+ */
+public class ChunkTerrainScanner {
+    // Suchfenster um die Grundhöhe des Dorfes
+    public static final int SCAN_RANGE = 25;
+
+    // Spalten-Flags im Ergebnis
+    public static final byte WATER = 0x1;
+    public static final byte DANGER = 0x2;
+    public static final byte TREE = 0x4;
+    public static final byte PATH = 0x8;
+    public static final byte FORBIDDEN = 0x10;
+
+    /**
+     * Ergebnis für die 256 Spalten eines Chunks, Index (x << 4) | z
+     */
+    public static final class Result {
+        public final short[] topGround = new short[256];
+        public final byte[] spaceAbove = new byte[256];
+        public final byte[] flags = new byte[256];
+    }
+
+    private int[] blockFlags = new int[0];
+    private final int[] surfaces = new int[256];
+    private int windowHeight;
+    private int windowLow;
+
+    /**
+     * Scannt einen geladenen Chunk - nur auf dem Server-Thread aufrufen
+     *
+     * @param yBaseline Grundhöhe des Dorfes, gesucht wird in yBaseline +/- SCAN_RANGE
+     */
+    public void scan(WorldChunk chunk, int yBaseline, Result result) {
+        int worldMinY = chunk.getBottomY() + 1;
+        int miny = Math.max(yBaseline - SCAN_RANGE, worldMinY);
+        int maxy = Math.min(yBaseline + SCAN_RANGE, chunk.getTopYInclusive() - 1);
+
+        // Das Fenster reicht einen Block über maxy (Kopffreiheit) und zwei unter miny (Boden der untersten Position)
+        fillWindow(chunk, miny - 2, maxy + 1);
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                surfaces[(x << 4) | z] = chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z);
+            }
+        }
+        evaluate(surfaces, miny, maxy, worldMinY, result);
+    }
+
+    /**
+     * Wertet vorgegebene Block-Flags ohne Chunk aus (für den Vergleich mit der alten Spalten-Schleife)
+     *
+     * @param flags    BlockClassification-Flags, Index column * (maxy - miny + 4) + y - (miny - 2)
+     * @param surfaces WORLD_SURFACE-Heightmap pro Spalte
+     */
+    void scanFlags(int[] flags, int[] surfaces, int miny, int maxy, int worldMinY, Result result) {
+        blockFlags = flags;
+        windowLow = miny - 2;
+        windowHeight = maxy - miny + 4;
+        evaluate(surfaces, miny, maxy, worldMinY, result);
+    }
+
+    private void evaluate(int[] surfaces, int miny, int maxy, int worldMinY, Result result) {
+        for (int column = 0; column < 256; column++) {
+            // Oberhalb der Heightmap ist nur Luft; ohne Boden im Fenster endet die Suche bei miny - 1
+            scanColumn(column, Math.max(miny - 1, Math.min(maxy, surfaces[column])), miny, maxy, worldMinY, result);
+        }
+    }
+
+    private void fillWindow(WorldChunk chunk, int low, int high) {
+        windowLow = low;
+        windowHeight = high - low + 1;
+        if (blockFlags.length < windowHeight * 256) {
+            blockFlags = new int[windowHeight * 256];
+        }
+
+        int airFlags = BlockClassification.get(Blocks.AIR.getDefaultState());
+
+        // Höchster Block des Chunks: darüber ist alles Luft
+        int chunkSurface = Integer.MIN_VALUE;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                chunkSurface = Math.max(chunkSurface, chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z));
+            }
+        }
+
+        for (int sectionY = low >> 4; sectionY <= high >> 4; sectionY++) {
+            int y0 = Math.max(low, sectionY << 4);
+            int y1 = Math.min(high, (sectionY << 4) + 15);
+            int index = chunk.sectionCoordToIndex(sectionY);
+
+            ChunkSection section = index >= 0 && index < chunk.countVerticalSections() ? chunk.getSection(index) : null;
+            if (section == null || section.isEmpty() || y0 > chunkSurface) {
+                fillLayers(y0, y1, airFlags);
+                continue;
+            }
+
+            PalettedContainer<BlockState> container = section.getBlockStateContainer();
+            BlockState first = container.get(0, 0, 0);
+            if (!container.hasAny(state -> state != first)) {
+                fillLayers(y0, y1, BlockClassification.get(first));
+                continue;
+            }
+
+            int solidTop = Math.min(y1, chunkSurface);
+            for (int y = y0; y <= solidTop; y++) {
+                int layer = y - low;
+                int localY = y & 15;
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        blockFlags[((x << 4) | z) * windowHeight + layer] = BlockClassification.get(container.get(x, localY, z));
+                    }
+                }
+            }
+            if (solidTop < y1) {
+                fillLayers(solidTop + 1, y1, airFlags);
+            }
+        }
+    }
+
+    private void fillLayers(int y0, int y1, int flags) {
+        for (int column = 0; column < 256; column++) {
+            int base = column * windowHeight - windowLow;
+            Arrays.fill(blockFlags, base + y0, base + y1 + 1, flags);
+        }
+    }
+
+    private int flagsAt(int column, int y) {
+        return blockFlags[column * windowHeight + y - windowLow];
+    }
+
+    private boolean has(int column, int y, int flag) {
+        return (flagsAt(column, y) & flag) != 0;
+    }
+
+    /**
+     * Auswertung einer Spalte nach den Regeln des alten updateChunk
+     *
+     * @param start höchste Position, ab der nach Boden gesucht wird (Heightmap, höchstens maxy)
+     */
+    private void scanColumn(int column, int start, int miny, int maxy, int worldMinY, Result result) {
+        boolean forbidden = false;
+
+        // Von oben bis zum ersten Bodenblock
+        int y = start;
+        while (y >= miny && !has(column, y, BlockClassification.GROUND)) {
+            if (has(column, y, BlockClassification.FORBIDDEN)) {
+                forbidden = true;
+            }
+            y--;
+        }
+
+        // Über Boden, Flüssigkeiten und alles darauf Gebaute nach oben
+        if (y <= maxy && y > worldMinY) {
+            boolean onGround = true;
+            int lastLiquid = -1;
+            while (y <= maxy && y > worldMinY) {
+                int flags = flagsAt(column, y);
+                boolean liquid = (flags & BlockClassification.LIQUID) != 0;
+                boolean solid = (flags & BlockClassification.SOLID) != 0;
+                if (!solid && !liquid && onGround) {
+                    break;
+                }
+                if ((flags & BlockClassification.FORBIDDEN) != 0) {
+                    forbidden = true;
+                }
+                if (liquid) {
+                    onGround = false;
+                    lastLiquid = y;
+                } else if (solid) {
+                    onGround = true;
+                }
+                y++;
+            }
+            if (!onGround) {
+                y = lastLiquid;
+            }
+        }
+
+        // Zwei freie Blöcke zum Stehen
+        while (y <= maxy && y > worldMinY
+            && (has(column, y, BlockClassification.SOLID) || has(column, y + 1, BlockClassification.SOLID))) {
+            y++;
+        }
+        y = Math.max(worldMinY, y);
+
+        int soil = flagsAt(column, y - 1);
+        int block = flagsAt(column, y);
+        byte columnFlags = 0;
+        if ((block & BlockClassification.WATER) != 0) {
+            columnFlags |= WATER;
+        }
+        if ((soil & BlockClassification.LOG) != 0) {
+            columnFlags |= TREE;
+        }
+        if ((soil & BlockClassification.PATH) != 0) {
+            columnFlags |= PATH;
+        }
+
+        int spaceAbove = 0;
+        boolean blocked = (soil & BlockClassification.FENCE) != 0 || (block & BlockClassification.SOLID) != 0
+            || (soil & BlockClassification.WATER) != 0;
+        if (!blocked) {
+            spaceAbove = 1;
+        }
+        boolean danger = (block & BlockClassification.DANGER) != 0;
+        if ((block & BlockClassification.FORBIDDEN) != 0) {
+            forbidden = true;
+        }
+
+        // Kopffreiheit (bis 3) und verbotene Blöcke oberhalb
+        for (int above = y + 1; above < maxy; above++) {
+            int flags = flagsAt(column, above);
+            if (!blocked && spaceAbove < 3 && (flags & BlockClassification.SOLID) == 0) {
+                spaceAbove++;
+            } else {
+                blocked = true;
+            }
+            if ((flags & BlockClassification.FORBIDDEN) != 0) {
+                forbidden = true;
+            }
+        }
+
+        if (danger) {
+            columnFlags |= DANGER;
+            spaceAbove = 0;
+        }
+        if (forbidden) {
+            columnFlags |= FORBIDDEN;
+        }
+        result.topGround[column] = (short) y;
+        result.spaceAbove[column] = (byte) spaceAbove;
+        result.flags[column] = columnFlags;
+    }
+}
@@ -0,0 +1,466 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.CropBlock;
+import net.minecraft.block.FluidBlock;
+import net.minecraft.block.PlantBlock;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.util.BlockRotation;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Bau eines Gebäudes Block für Block, ohne die Blöcke vorher aufzulisten (Ersatz für
+ * BuildingPlan.getBuildingPoints und das BuildingBlock[]-Array in ConstructionIP)
+ *
+ * Der nächste Block wird bei Bedarf aus Plan, Standort und Ausrichtung berechnet. Der Stand
+ * besteht nur aus Durchgang und Index und lässt sich mit toNbt() speichern; nach einem Neustart
+ * geht es an derselben Stelle weiter.
+ *
+ * Durchgänge und Reihenfolge wie getBuildingPoints im alten Mod:
+ * 1. CLEAR: Baufläche samt Umgebung spaltenweise von nbFloors + 50 bis zur Grundhöhe freiräumen,
+ *    außerhalb des Gebäudes als Böschung; darunter nur Bäume fällen
+ * 2. FOUNDATION: unter der Baufläche bis foundationDepth Boden ergänzen
+ * 3. PRESERVE: Plan-Punkte "preserveground" und "allbuttrees"
+ * 4. DELETION: Luft-Blöcke des Plans, von oben nach unten
+ * 5. STRUCTURE: Rohbau, Stockwerk für Stockwerk (Keller von oben nach unten)
+ * 6. ATTACHED: Blöcke, die einen Nachbarn zum Anhängen brauchen
+ * CLEAR und FOUNDATION entfallen bei Ausbaustufen, Nebengebäuden und bedrocklevel.
+ *
+ * Nicht übernommen: Schilder, Truhen, Bilder und andere Sonderblöcke (kommen mit dem
+ * BuildingPlan-Port) sowie das automatische Ausrichten von Leitern, Türen und Treppen.
+ */
+public class ConstructionCursor implements BlockPlacementTask {
+    // Über der Grundhöhe wird so hoch (plus Stockwerke) freigeräumt
+    private static final int CLEAR_ABOVE = 50;
+
+    public enum Pass {
+        CLEAR,
+        FOUNDATION,
+        PRESERVE,
+        DELETION,
+        STRUCTURE,
+        ATTACHED,
+        DONE
+    }
+
+    /**
+     * Was an der Position zu tun ist (die special-Werte von BuildingBlock)
+     */
+    public enum Action {
+        // Block aus dem Plan setzen
+        BLOCK,
+        // CLEARGROUND: alles außer Pflanzen entfernen
+        CLEAR_GROUND,
+        // CLEARGROUNDOUTSIDEBUILDING: wie CLEAR_GROUND, Laub bleibt
+        CLEAR_OUTSIDE,
+        // CLEARGROUNDBORDER: Rand der Böschung, neben Wasser wird Boden gesetzt statt Luft
+        CLEAR_BORDER,
+        // CLEARTREE: nur Baumstämme entfernen
+        CLEAR_TREE,
+        // PRESERVEGROUNDDEPTH: fehlenden Boden ergänzen, vorhandenen natürlichen Boden lassen
+        PRESERVE_DEPTH,
+        // PRESERVEGROUNDSURFACE: Bodenoberfläche herstellen
+        PRESERVE_SURFACE
+    }
+
+    private final PlanBlockSource plan;
+    private final PlacementFootprint footprint;
+    private final BuildingLocation location;
+    private final BlockRotation rotation;
+    private final boolean prepareGround;
+
+    // Reihenfolge der x/z-Positionen wie im alten Mod: 8x8-Felder, darin in Schlangenlinien
+    private final short[] clearOrder;
+    private final short[] planOrder;
+    private final int clearHeight;
+    private final int foundationHeight;
+
+    private Pass pass = Pass.CLEAR;
+    private int index;
+
+    // Zuletzt von next() gelieferter Schritt
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+    private final BlockPos.Mutable neighbour = new BlockPos.Mutable();
+    private BlockState state;
+    private Action action;
+
+    public ConstructionCursor(PlanBlockSource plan, PlacementFootprint footprint, BuildingLocation location) {
+        this.plan = plan;
+        this.footprint = footprint;
+        this.location = location;
+        this.rotation = switch (location.orientation) {
+            case 1 -> BlockRotation.COUNTERCLOCKWISE_90;
+            case 2 -> BlockRotation.CLOCKWISE_180;
+            case 3 -> BlockRotation.CLOCKWISE_90;
+            default -> BlockRotation.NONE;
+        };
+        prepareGround = !footprint.isUpdate && !footprint.isSubBuilding && !location.bedrocklevel;
+        clearOrder = computeXZOrder(footprint.length + footprint.areaToClearLengthBefore + footprint.areaToClearLengthAfter,
+            footprint.width + footprint.areaToClearWidthBefore + footprint.areaToClearWidthAfter);
+        planOrder = computeXZOrder(footprint.length, footprint.width);
+        clearHeight = footprint.nbFloors + CLEAR_ABOVE + 1;
+        foundationHeight = Math.max(0, footprint.foundationDepth - footprint.startLevel);
+    }
+
+    /**
+     * Setzt einen gespeicherten Bau fort
+     */
+    public static ConstructionCursor fromNbt(PlanBlockSource plan, PlacementFootprint footprint, BuildingLocation location,
+                                             NbtCompound nbt) {
+        ConstructionCursor cursor = new ConstructionCursor(plan, footprint, location);
+        int passIndex = nbt.getInt("pass", 0);
+        cursor.pass = passIndex >= 0 && passIndex < Pass.values().length ? Pass.values()[passIndex] : Pass.CLEAR;
+        cursor.index = Math.max(0, nbt.getInt("index", 0));
+        return cursor;
+    }
+
+    public NbtCompound toNbt() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt("pass", pass.ordinal());
+        nbt.putInt("index", index);
+        return nbt;
+    }
+
+    public Pass getPass() {
+        return pass;
+    }
+
+    public boolean isFinished() {
+        return pass == Pass.DONE;
+    }
+
+    /**
+     * Geht zum nächsten Schritt weiter
+     *
+     * @return false, wenn der Bau fertig ist
+     */
+    public boolean next() {
+        while (pass != Pass.DONE) {
+            int size = passSize(pass);
+            while (index < size) {
+                if (compute(pass, index++)) {
+                    return true;
+                }
+            }
+            pass = Pass.values()[pass.ordinal() + 1];
+            index = 0;
+        }
+        state = null;
+        action = null;
+        return false;
+    }
+
+    /**
+     * Position des zuletzt gelieferten Schritts (wird von next() überschrieben)
+     */
+    public BlockPos getPos() {
+        return pos;
+    }
+
+    /**
+     * Block des Plans, nur bei Action.BLOCK
+     */
+    public BlockState getState() {
+        return state;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public boolean place(BulkBlockWriter writer, long deadline) {
+        while (next()) {
+            apply(writer);
+            if (System.nanoTime() >= deadline) {
+                return isFinished();
+            }
+        }
+        return true;
+    }
+
+    private int passSize(Pass pass) {
+        int planArea = footprint.length * footprint.width;
+        return switch (pass) {
+            case CLEAR -> prepareGround ? clearOrder.length / 2 * clearHeight : 0;
+            case FOUNDATION -> prepareGround ? clearOrder.length / 2 * foundationHeight : 0;
+            case PRESERVE, DELETION, STRUCTURE, ATTACHED -> planArea * footprint.nbFloors;
+            case DONE -> 0;
+        };
+    }
+
+    /**
+     * Berechnet den Schritt an Position i des Durchgangs
+     *
+     * @return false, wenn an dieser Stelle nichts zu tun ist
+     */
+    private boolean compute(Pass pass, int i) {
+        switch (pass) {
+            case CLEAR -> {
+                // Spaltenweise von oben nach unten
+                int column = i / clearHeight;
+                int deltaY = clearHeight - 1 - i % clearHeight;
+                int x = clearOrder[column * 2] - footprint.areaToClearLengthBefore;
+                int z = clearOrder[column * 2 + 1] - footprint.areaToClearWidthBefore;
+                int offset = slopeOffset(x, z);
+                Action clear;
+                if (deltaY < offset - 2) {
+                    clear = Action.CLEAR_TREE;
+                } else if (x >= 0 && z >= 0 && x <= footprint.length && z <= footprint.width) {
+                    clear = Action.CLEAR_GROUND;
+                } else if (deltaY == offset - 2 || deltaY == 0 || isClearAreaEdge(x, z)) {
+                    clear = Action.CLEAR_BORDER;
+                } else {
+                    clear = Action.CLEAR_OUTSIDE;
+                }
+                return set(x, deltaY, z, null, clear);
+            }
+            case FOUNDATION -> {
+                int column = i / foundationHeight;
+                int deltaY = footprint.startLevel - footprint.foundationDepth + i % foundationHeight;
+                int x = clearOrder[column * 2] - footprint.areaToClearLengthBefore;
+                int z = clearOrder[column * 2 + 1] - footprint.areaToClearWidthBefore;
+                int offset = slopeOffset(x, z);
+                Action fill = -deltaY > offset ? Action.PRESERVE_DEPTH
+                    : -deltaY >= offset - 1 ? Action.PRESERVE_SURFACE
+                    : Action.CLEAR_TREE;
+                return set(x, deltaY, z, null, fill);
+            }
+            case PRESERVE -> {
+                int floor = adjustFloor(i / (footprint.length * footprint.width));
+                int column = i % (footprint.length * footprint.width);
+                int x = planOrder[column * 2];
+                int z = planOrder[column * 2 + 1];
+                if (plan.getBlock(floor, x, z) != null) {
+                    return false;
+                }
+                return switch (plan.getSpecial(floor, x, z)) {
+                    case PRESERVE_GROUND -> set(x, floor + footprint.startLevel, z, null,
+                        floor + footprint.startLevel < -1 ? Action.PRESERVE_DEPTH : Action.PRESERVE_SURFACE);
+                    case ALL_BUT_TREES -> set(x, floor + footprint.startLevel, z, null, Action.CLEAR_TREE);
+                    default -> false;
+                };
+            }
+            case DELETION -> {
+                // Von oben nach unten, ohne die Keller-Spiegelung
+                int floor = footprint.nbFloors - 1 - i / (footprint.length * footprint.width);
+                int column = i % (footprint.length * footprint.width);
+                int x = planOrder[column * 2];
+                int z = planOrder[column * 2 + 1];
+                BlockState block = plan.getBlock(floor, x, z);
+                if (block == null || !block.isAir()) {
+                    return false;
+                }
+                return set(x, floor + footprint.startLevel, z, block, Action.BLOCK);
+            }
+            case STRUCTURE, ATTACHED -> {
+                int floor = adjustFloor(i / (footprint.length * footprint.width));
+                int column = i % (footprint.length * footprint.width);
+                int x = planOrder[column * 2];
+                int z = planOrder[column * 2 + 1];
+                BlockState block = plan.getBlock(floor, x, z);
+                if (block == null) {
+                    // "empty" wird mit dem Rohbau zu Luft
+                    if (pass == Pass.STRUCTURE && !footprint.isUpdate && !footprint.isSubBuilding
+                        && plan.getSpecial(floor, x, z) == PlanBlockSource.Special.EMPTY) {
+                        return set(x, floor + footprint.startLevel, z, Blocks.AIR.getDefaultState(), Action.BLOCK);
+                    }
+                    return false;
+                }
+                if (block.isAir() || plan.isSecondPass(block) != (pass == Pass.ATTACHED)) {
+                    return false;
+                }
+                return set(x, floor + footprint.startLevel, z, block.rotate(rotation), Action.BLOCK);
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stockwerke unter der Oberfläche werden von oben nach unten gebaut
+     */
+    private int adjustFloor(int floor) {
+        return floor + footprint.startLevel < 0 ? -floor - footprint.startLevel - 1 : floor;
+    }
+
+    /**
+     * Abstand zum Gebäude für die Böschung beim Freiräumen (wie prepareGround im alten Mod)
+     */
+    private int slopeOffset(int x, int z) {
+        int offsetX = x < 0 ? -x : x >= footprint.length - 1 ? x - footprint.length + 1 : 0;
+        int offsetZ = z < 0 ? -z : z >= footprint.width - 1 ? z - footprint.width + 1 : 0;
+        int offset = Math.max(offsetX, offsetZ);
+        if (Math.abs(offsetX - offsetZ) < 3) {
+            offset++;
+        }
+        return offset - 1;
+    }
+
+    private boolean isClearAreaEdge(int x, int z) {
+        return x == -footprint.areaToClearLengthBefore || z == -footprint.areaToClearWidthBefore
+            || x == footprint.length + footprint.areaToClearLengthAfter - 1
+            || z == footprint.width + footprint.areaToClearWidthAfter - 1;
+    }
+
+    private boolean set(int x, int level, int z, BlockState block, Action step) {
+        int xoffset = x - footprint.length / 2;
+        int zoffset = z - footprint.width / 2;
+        pos.set(location.worldX(xoffset, zoffset), location.pos.y + level, location.worldZ(xoffset, zoffset));
+        state = block;
+        action = step;
+        return true;
+    }
+
+    /**
+     * Führt den aktuellen Schritt aus (BuildingBlock.build)
+     */
+    private void apply(BulkBlockWriter writer) {
+        BlockState current = writer.getBlockState(pos);
+        switch (action) {
+            case BLOCK -> {
+                if (current != state && !(current.isOf(Blocks.GRASS_BLOCK) && state.isOf(Blocks.DIRT))) {
+                    writer.set(pos, state);
+                }
+            }
+            case CLEAR_GROUND, CLEAR_OUTSIDE, CLEAR_BORDER -> clearGround(writer, current);
+            case CLEAR_TREE -> {
+                if (current.isIn(BlockTags.LOGS)) {
+                    writer.set(pos, Blocks.AIR.getDefaultState());
+                    coverGroundBelow(writer);
+                }
+            }
+            case PRESERVE_DEPTH, PRESERVE_SURFACE -> preserveGround(writer, current, action == Action.PRESERVE_SURFACE);
+        }
+    }
+
+    private void clearGround(BulkBlockWriter writer, BlockState current) {
+        if (!current.isAir() && !isDecorativePlant(current)) {
+            boolean leaves = current.isIn(BlockTags.LEAVES);
+            if (action == Action.CLEAR_BORDER && !leaves) {
+                // Am Wasser wird die Böschung mit Boden geschlossen, damit nichts ausläuft
+                BlockState target = Blocks.AIR.getDefaultState();
+                if (isNextToLiquid(writer)) {
+                    target = getValidGround(writer.getBlockState(neighbour.set(pos).move(0, -1, 0)), true);
+                    if (target == null) {
+                        target = Blocks.DIRT.getDefaultState();
+                    }
+                }
+                if (!current.isOf(target.getBlock())) {
+                    writer.set(pos, target);
+                }
+            } else if (action == Action.CLEAR_GROUND || !leaves) {
+                writer.set(pos, Blocks.AIR.getDefaultState());
+            }
+        }
+        coverGroundBelow(writer);
+    }
+
+    /**
+     * Freigelegter Boden unter der Position bekommt die Oberflächenschicht (Gras)
+     */
+    private void coverGroundBelow(BulkBlockWriter writer) {
+        neighbour.set(pos).move(0, -1, 0);
+        BlockState below = writer.getBlockState(neighbour);
+        BlockState ground = getValidGround(below, true);
+        BlockState surface = plan.getSurfaceBlock();
+        if (ground != null && ground.isOf(Blocks.DIRT) && below != surface) {
+            writer.set(neighbour, surface);
+        }
+    }
+
+    private void preserveGround(BulkBlockWriter writer, BlockState current, boolean surface) {
+        if (!surface && isNaturalGround(current)) {
+            return;
+        }
+        BlockState target = getValidGround(current, surface);
+        if (target == null) {
+            // Boden der Umgebung von weiter unten übernehmen
+            int bottom = writer.getWorld().getBottomY();
+            neighbour.set(pos);
+            while (target == null && neighbour.getY() > bottom) {
+                neighbour.move(0, -1, 0);
+                target = getValidGround(writer.getBlockState(neighbour), surface);
+            }
+            if (target == null) {
+                target = plan.getGroundBlock();
+            }
+        }
+        if (surface && target.isOf(Blocks.DIRT)) {
+            target = plan.getSurfaceBlock();
+        }
+        if (target == current || (current.isOf(Blocks.GRASS_BLOCK) && target.isOf(Blocks.DIRT))) {
+            return;
+        }
+        writer.set(pos, target);
+    }
+
+    private boolean isNextToLiquid(BulkBlockWriter writer) {
+        return writer.getBlockState(neighbour.set(pos).move(1, 0, 0)).getBlock() instanceof FluidBlock
+            || writer.getBlockState(neighbour.set(pos).move(-1, 0, 0)).getBlock() instanceof FluidBlock
+            || writer.getBlockState(neighbour.set(pos).move(0, 0, 1)).getBlock() instanceof FluidBlock
+            || writer.getBlockState(neighbour.set(pos).move(0, 0, -1)).getBlock() instanceof FluidBlock;
+    }
+
+    /**
+     * Blumen, Gras, Setzlinge... bleiben beim Freiräumen stehen, Feldfrüchte nicht
+     */
+    private static boolean isDecorativePlant(BlockState state) {
+        return state.getBlock() instanceof PlantBlock && !(state.getBlock() instanceof CropBlock);
+    }
+
+    /**
+     * Natürlicher Boden, der in der Tiefe nicht ersetzt wird (Erde, Stein, Sand, Ton)
+     */
+    private static boolean isNaturalGround(BlockState state) {
+        return state.isIn(BlockTags.DIRT) || state.isIn(BlockTags.BASE_STONE_OVERWORLD) || state.isIn(BlockTags.SAND)
+            || state.isIn(BlockTags.TERRACOTTA) || state.isOf(Blocks.GRAVEL) || state.isOf(Blocks.CLAY);
+    }
+
+    /**
+     * Passender Bodenblock für einen vorhandenen Block oder null (WorldUtilities.getBlockStateValidGround)
+     *
+     * @param surface an der Oberfläche: Stein wird zu Erde, Sandstein zu Sand
+     */
+    static BlockState getValidGround(BlockState state, boolean surface) {
+        if (state.isOf(Blocks.BEDROCK) || state.isOf(Blocks.GRASS_BLOCK)) {
+            return Blocks.DIRT.getDefaultState();
+        }
+        if (state.isOf(Blocks.STONE)) {
+            return surface ? Blocks.DIRT.getDefaultState() : state;
+        }
+        if (state.isOf(Blocks.SANDSTONE)) {
+            return surface ? Blocks.SAND.getDefaultState() : state;
+        }
+        if (state.isOf(Blocks.DIRT) || state.isOf(Blocks.GRAVEL) || state.isOf(Blocks.SAND) || state.isOf(Blocks.TERRACOTTA)) {
+            return state;
+        }
+        return null;
+    }
+
+    /**
+     * x/z-Reihenfolge in 8x8-Feldern, innerhalb eines Feldes in Schlangenlinien
+     * (getBuildingPoints_computeXZCoords), als Paare x, z
+     */
+    private static short[] computeXZOrder(int length, int width) {
+        short[] order = new short[length * width * 2];
+        int pos = 0;
+        for (int partX = 0; partX < length / 8 + 1; partX++) {
+            int partMaxX = Math.min(8, length - partX * 8);
+            for (int partZ = 0; partZ < width / 8 + 1; partZ++) {
+                int partMaxZ = Math.min(8, width - partZ * 8);
+                for (int withinX = 0; withinX < partMaxX; withinX++) {
+                    for (int withinZ = 0; withinZ < partMaxZ; withinZ++) {
+                        int adjustedZ = withinX % 2 == 0 ? withinZ : partMaxZ - withinZ - 1;
+                        order[pos++] = (short) (partX * 8 + withinX);
+                        order[pos++] = (short) (partZ * 8 + adjustedZ);
+                    }
+                }
+            }
+        }
+        return order;
+    }
+}
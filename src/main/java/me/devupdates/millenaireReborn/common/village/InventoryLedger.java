@@ -0,0 +1,124 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMaps;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Warenbestand eines Gebäudes über alle Truhen, Öfen und Feuerstellen (Ersatz für
+ * Building.calculateInventoryCache/countGoods)
+ *
+ * Pro Behälter wird der letzte bekannte Inhalt jedes Slots gehalten. Änderungen kommen als
+ * Slot-Deltas (onSlotChanged) oder als Abgleich eines einzelnen Behälters (sync) herein; die
+ * Summen pro Item werden dabei direkt angepasst, statt alles neu zu zählen.
+ */
+public class InventoryLedger {
+
+    private static final class Container {
+        final Item[] items;
+        final int[] counts;
+
+        Container(int size) {
+            items = new Item[size];
+            counts = new int[size];
+        }
+    }
+
+    private final Map<Point, Container> containers = new HashMap<>();
+    private final Reference2IntOpenHashMap<Item> totals = new Reference2IntOpenHashMap<>();
+
+    /**
+     * Nimmt einen Behälter auf oder gleicht ihn vollständig ab
+     */
+    public void sync(Point pos, Inventory inventory) {
+        Container container = containers.get(pos);
+        if (container == null || container.items.length != inventory.size()) {
+            removeContainer(pos);
+            container = new Container(inventory.size());
+            containers.put(pos, container);
+        }
+        for (int slot = 0; slot < inventory.size(); slot++) {
+            setSlot(container, slot, inventory.getStack(slot));
+        }
+    }
+
+    /**
+     * Übernimmt den neuen Inhalt eines einzelnen Slots
+     */
+    public void onSlotChanged(Point pos, int slot, ItemStack stack) {
+        Container container = containers.get(pos);
+        if (container != null && slot >= 0 && slot < container.items.length) {
+            setSlot(container, slot, stack);
+        }
+    }
+
+    /**
+     * Behälter abgebaut oder nicht mehr Teil des Gebäudes
+     */
+    public void removeContainer(Point pos) {
+        Container container = containers.remove(pos);
+        if (container == null) {
+            return;
+        }
+        for (int slot = 0; slot < container.items.length; slot++) {
+            if (container.items[slot] != null) {
+                add(container.items[slot], -container.counts[slot]);
+            }
+        }
+    }
+
+    private void setSlot(Container container, int slot, ItemStack stack) {
+        Item item = stack.isEmpty() ? null : stack.getItem();
+        int count = stack.isEmpty() ? 0 : stack.getCount();
+        Item oldItem = container.items[slot];
+        int oldCount = container.counts[slot];
+        if (item == oldItem && count == oldCount) {
+            return;
+        }
+        if (oldItem != null) {
+            add(oldItem, -oldCount);
+        }
+        if (item != null) {
+            add(item, count);
+        }
+        container.items[slot] = item;
+        container.counts[slot] = count;
+    }
+
+    private void add(Item item, int delta) {
+        int total = totals.addTo(item, delta) + delta;
+        if (total <= 0) {
+            totals.removeInt(item);
+        }
+    }
+
+    /**
+     * Anzahl eines Items über alle Behälter (countGoods)
+     */
+    public int count(Item item) {
+        return totals.getInt(item);
+    }
+
+    /**
+     * Alle Bestände (nur lesen)
+     */
+    public Reference2IntMap<Item> getTotals() {
+        return Reference2IntMaps.unmodifiable(totals);
+    }
+
+    public boolean hasContainer(Point pos) {
+        return containers.containsKey(pos);
+    }
+
+    public void clear() {
+        containers.clear();
+        totals.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+
+/**
+ * Ergebnis der Prüfung eines Bauplatzes (portiert aus BuildingPlan.LocationReturn)
+ * Entweder eine gültige BuildingLocation oder ein Fehlercode mit der Position des Problems.
+ */
+public class LocationReturn {
+    public static final int OUTSIDE_RADIUS = 1;
+    public static final int LOCATION_CLASH = 2;
+    public static final int CONSTRUCTION_FORBIDEN = 3;
+    public static final int WRONG_ALTITUDE = 4;
+    public static final int DANGER = 5;
+    public static final int NOT_REACHABLE = 6;
+    public static final int TOO_CLOSE_TO_TAG = 7;
+    public static final int TOO_FAR_FROM_TAG = 8;
+
+    public final BuildingLocation location;
+    public final int errorCode;
+    public final Point errorPos;
+
+    public LocationReturn(BuildingLocation location) {
+        this.location = location;
+        this.errorCode = 0;
+        this.errorPos = null;
+    }
+
+    public LocationReturn(int errorCode, Point errorPos) {
+        this.location = null;
+        this.errorCode = errorCode;
+        this.errorPos = errorPos;
+    }
+}
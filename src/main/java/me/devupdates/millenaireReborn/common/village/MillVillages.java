@@ -0,0 +1,37 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.persistence.VillageSaveManager;
+import me.devupdates.millenaireReborn.common.persistence.VillagerRecordStore;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+/**
+ * Einstiegspunkt der Dorf-Logik
+ */
+public class MillVillages {
+
+    /**
+     * Registriert die Tick- und Lifecycle-Hooks
+     */
+    public static void init() {
+        // Periodische Aufgaben aller Dörfer innerhalb des Tick-Budgets
+        ServerTickEvents.END_SERVER_TICK.register(server -> VillageTickScheduler.getInstance().tick());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> VillageTickScheduler.getInstance().clear());
+
+        // Gebäudeweises Speichern, Villager-Records im Journal
+        VillageSaveManager.init();
+        VillagerRecordStore.init();
+
+        // Dorf-Stubs beim Start, vollständiges Laden in Spielernähe
+        VillageRegistry.init();
+
+        // Geladene Dorfbewohner über Entity-Events
+        VillagerRegistry.init();
+
+        // Neue Dörfer: Scan, Planung im Hintergrund, Bau über mehrere Ticks
+        VillageGenerationPipeline.init();
+
+        MillenaireReborn.LOGGER.info("Village system initialized");
+    }
+}
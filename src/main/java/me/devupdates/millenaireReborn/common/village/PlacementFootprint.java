@@ -0,0 +1,156 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.pathing.RegionMapper;
+import me.devupdates.millenaireReborn.common.util.Point;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Platzbedarf und Standort-Regeln eines Gebäudeplans (Teil von BuildingPlan im alten Mod)
+ * Enthält die Platzprüfung testSpot(), die von der BuildingPlacementSearch aufgerufen wird.
+ *
+ * Nach dem Befüllen nicht mehr verändern - die Prüfung läuft parallel auf mehreren Threads.
+ */
+public class PlacementFootprint {
+    public String planKey;
+    public int length;
+    public int width;
+    public int areaToClearLengthBefore;
+    public int areaToClearLengthAfter;
+    public int areaToClearWidthBefore;
+    public int areaToClearWidthAfter;
+    public int buildingOrientation;
+    public int fixedOrientation = -1;
+    public int altitudeOffset;
+    public int startLevel;
+    public int nbFloors;
+    // So tief wird unter der Baufläche Boden ergänzt
+    public int foundationDepth = 10;
+    // Ausbaustufe (level > 0) bzw. Nebengebäude: kein Freiräumen, "empty" bleibt stehen
+    public boolean isUpdate;
+    public boolean isSubBuilding;
+    public float minDistance;
+    public float maxDistance = 1.0f;
+    public Map<String, Integer> farFromTag = new HashMap<>();
+    public Map<String, Integer> closeToTag = new HashMap<>();
+
+    public static int computeOrientation(int buildingX, int buildingZ, Point facingPos) {
+        int relx = buildingX - facingPos.x;
+        int relz = buildingZ - facingPos.z;
+        if (relx * relx > relz * relz) {
+            return relx > 0 ? 0 : 2;
+        }
+        return relz > 0 ? 3 : 1;
+    }
+
+    /**
+     * Sucht einen Bauplatz im Radius des Dorfes (findBuildingLocation im alten Mod)
+     *
+     * @param orientation feste Ausrichtung oder -1 (zum Zentrum hin bzw. fixedOrientation)
+     */
+    public BuildingLocation find(BuildingPlacementSearch search, int villageRadius, int orientation) {
+        int porientation = orientation == -1 ? fixedOrientation : orientation;
+        int radius = (int) (villageRadius * minDistance);
+        int maxRadius = (int) (villageRadius * maxDistance);
+        return search.find(radius, maxRadius, (s, x, z) -> testSpot(s, x, z, porientation, false));
+    }
+
+    /**
+     * Prüft, ob das Gebäude mit Mittelpunkt auf dem Feld (Kartenkoordinaten) gebaut werden kann
+     */
+    public LocationReturn testSpot(BuildingPlacementSearch search, int x, int z, int porientation, boolean ignoreExtraConstraints) {
+        VillageMapLayers map = search.getMap();
+        int worldX = x + map.getMapStartX();
+        int worldZ = z + map.getMapStartZ();
+        if (x < 0 || map.getLength() <= x || z < 0 || map.getWidth() <= z) {
+            return new LocationReturn(LocationReturn.OUTSIDE_RADIUS, new Point(worldX, 64, worldZ));
+        }
+
+        BuildingLocationIndex index = search.getLocationIndex();
+        if (!ignoreExtraConstraints && !index.isFarFromTags(farFromTag, worldX, worldZ)) {
+            return new LocationReturn(LocationReturn.TOO_CLOSE_TO_TAG, new Point(worldX, 64, worldZ));
+        }
+        if (!ignoreExtraConstraints && !index.isCloseToTags(closeToTag, worldX, worldZ)) {
+            return new LocationReturn(LocationReturn.TOO_FAR_FROM_TAG, new Point(worldX, 64, worldZ));
+        }
+
+        int orientation = porientation == -1 ? computeOrientation(worldX, worldZ, search.getCentre()) : porientation;
+        orientation = (orientation + buildingOrientation) % 4;
+
+        int xwidth, zwidth;
+        if (orientation == 0 || orientation == 2) {
+            xwidth = length + areaToClearLengthBefore + areaToClearLengthAfter + 2;
+            zwidth = width + areaToClearWidthBefore + areaToClearWidthAfter + 2;
+        } else {
+            xwidth = width + areaToClearWidthBefore + areaToClearWidthAfter + 2;
+            zwidth = length + areaToClearLengthBefore + areaToClearLengthAfter + 2;
+        }
+
+        int altitudeTotal = 0;
+        int nbPoints = 0;
+        int nbError = 0;
+        int allowedErrors = 10;
+        boolean hugeBuilding = false;
+        if (xwidth * zwidth > 2000) {
+            allowedErrors = xwidth * zwidth / 10;
+            hugeBuilding = true;
+        } else if (xwidth * zwidth > 200) {
+            allowedErrors = xwidth * zwidth / 20;
+        }
+
+        RegionMapper regionMapper = search.getRegionMapper();
+        boolean reachable = false;
+        for (int i = 0; i <= xwidth / 2; i++) {
+            for (int j = 0; j <= zwidth / 2; j++) {
+                for (int k = 0; k < 4; k++) {
+                    int ci = k == 0 || k == 3 ? x + i : x - i;
+                    int cj = k == 0 || k == 1 ? z + j : z - j;
+
+                    if (ci < 0 || cj < 0 || ci >= map.getLength() || cj >= map.getWidth()) {
+                        return new LocationReturn(LocationReturn.OUTSIDE_RADIUS, mapPoint(map, ci, cj));
+                    }
+                    if (map.getBuildingLocRef(ci, cj) != null) {
+                        return new LocationReturn(LocationReturn.LOCATION_CLASH, mapPoint(map, ci, cj));
+                    }
+                    if (map.isBuildingForbidden(ci, cj)) {
+                        if (!hugeBuilding || nbError > allowedErrors) {
+                            return new LocationReturn(LocationReturn.CONSTRUCTION_FORBIDEN, mapPoint(map, ci, cj));
+                        }
+                        nbError++;
+                    } else if (map.isDanger(ci, cj)) {
+                        if (nbError > allowedErrors) {
+                            return new LocationReturn(LocationReturn.DANGER, mapPoint(map, ci, cj));
+                        }
+                        nbError++;
+                    } else if (!map.canBuild(ci, cj)) {
+                        if (nbError > allowedErrors) {
+                            return new LocationReturn(LocationReturn.WRONG_ALTITUDE, mapPoint(map, ci, cj));
+                        }
+                        nbError++;
+                    }
+
+                    // Wie im alten Mod zählt das zuletzt geprüfte Feld
+                    if (regionMapper != null) {
+                        reachable = regionMapper.getRegion(ci + map.getMapStartX(), cj + map.getMapStartZ()) == regionMapper.getThRegion();
+                    }
+                    altitudeTotal += map.getTopGround(ci, cj);
+                    nbPoints++;
+                }
+            }
+        }
+
+        if (!ignoreExtraConstraints && regionMapper != null && !reachable) {
+            return new LocationReturn(LocationReturn.NOT_REACHABLE, search.getCentre());
+        }
+
+        int altitude = Math.round(altitudeTotal * 1.0f / nbPoints) + altitudeOffset;
+        BuildingLocation location = new BuildingLocation(planKey, new Point(worldX, altitude, worldZ), orientation, length, width);
+        location.initialiseBounds(startLevel, nbFloors);
+        return new LocationReturn(location);
+    }
+
+    private static Point mapPoint(VillageMapLayers map, int x, int z) {
+        return new Point(x + map.getMapStartX(), 64, z + map.getMapStartZ());
+    }
+}
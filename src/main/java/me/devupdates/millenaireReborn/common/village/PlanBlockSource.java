@@ -0,0 +1,60 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+
+/**
+ * Inhalt eines Gebäudeplans, blockweise abrufbar (die Ebenen aus den Bildern von BuildingPlan)
+ *
+ * Muss ohne Nebenwirkungen sein, der ConstructionCursor fragt dieselbe Stelle mehrmals ab.
+ * Koordinaten relativ zum Plan: x entlang length, z entlang width, floor ab startLevel.
+ */
+public interface PlanBlockSource {
+
+    /**
+     * Punkttypen ohne festen Block
+     */
+    enum Special {
+        NONE,
+        // "empty": wird zu Luft, außer bei Ausbaustufen und Nebengebäuden
+        EMPTY,
+        // "preserveground": natürlicher Boden bleibt bzw. wird ergänzt
+        PRESERVE_GROUND,
+        // "allbuttrees": nur Baumstämme werden entfernt
+        ALL_BUT_TREES
+    }
+
+    /**
+     * Block an der Stelle oder null, wenn der Plan dort nichts vorgibt (Luft ist ein Block)
+     */
+    BlockState getBlock(int floor, int x, int z);
+
+    /**
+     * Punkttyp an Stellen ohne Block
+     */
+    default Special getSpecial(int floor, int x, int z) {
+        return Special.NONE;
+    }
+
+    /**
+     * Muss der Block nach dem Rohbau gesetzt werden? (Fackeln, Leitern, Türen... brauchen
+     * einen Block zum Anhängen)
+     */
+    default boolean isSecondPass(BlockState state) {
+        return false;
+    }
+
+    /**
+     * Oberste Bodenschicht beim Auffüllen und Freiräumen (Gras bei der Dorf-Generierung, sonst Erde)
+     */
+    default BlockState getSurfaceBlock() {
+        return Blocks.GRASS_BLOCK.getDefaultState();
+    }
+
+    /**
+     * Tiefere Bodenschichten beim Auffüllen, wenn darunter kein passender Boden gefunden wird
+     */
+    default BlockState getGroundBlock() {
+        return Blocks.DIRT.getDefaultState();
+    }
+}
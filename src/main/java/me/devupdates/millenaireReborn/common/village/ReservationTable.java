@@ -0,0 +1,146 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.item.Item;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vorgemerkte Waren eines Gebäudes (Ersatz für die Schleifen in Building.nbGoodAvailable)
+ *
+ * Jede Quelle - ein Bauprojekt, ein Laden, ein Bewohner - meldet ihren Bedarf einmal an, wenn
+ * er sich ändert. Die Summen pro Item und Art werden dabei nachgeführt, sodass eine Abfrage nur
+ * noch ein paar Map-Zugriffe kostet.
+ *
+ * Welche Arten abgezogen werden, hängt wie im alten Mod von den Schaltern forConstruction,
+ * forExport und forShop ab (siehe getAvailable).
+ */
+public class ReservationTable {
+
+    /**
+     * Wofür Waren zurückgelegt sind
+     */
+    public enum Type {
+        // Noch fehlende Baukosten der Bauprojekte (nur Rathaus), zählen immer
+        CONSTRUCTION,
+        // reservedQuantity der Handelswaren (Rathaus oder Laden, der die Ware verkauft)
+        TRADE_RESERVED,
+        // targetQuantity der Handelswaren, zählt nur beim Export
+        TRADE_TARGET,
+        // requiredFoodAndGoods der Bewohner
+        RESIDENTS;
+
+        public final int bit = 1 << ordinal();
+
+        public static int mask(Type... types) {
+            int mask = 0;
+            for (Type type : types) {
+                mask |= type.bit;
+            }
+            return mask;
+        }
+    }
+
+    private static final int MASK_CONSTRUCTION = Type.mask(Type.CONSTRUCTION);
+    private static final int MASK_EXPORT = Type.mask(Type.CONSTRUCTION, Type.TRADE_TARGET, Type.RESIDENTS);
+    private static final int MASK_DEFAULT = Type.mask(Type.CONSTRUCTION, Type.TRADE_RESERVED, Type.RESIDENTS);
+
+    private record Source(Type type, Reference2IntMap<Item> amounts) {
+    }
+
+    private final Map<String, Source> sources = new HashMap<>();
+    private final EnumMap<Type, Reference2IntOpenHashMap<Item>> totals = new EnumMap<>(Type.class);
+    // Was der Laden selbst braucht (shopNeeds der Kultur), gibt er nie ab
+    private final Set<Item> shopNeeds = new ReferenceOpenHashSet<>();
+
+    public ReservationTable() {
+        for (Type type : Type.values()) {
+            totals.put(type, new Reference2IntOpenHashMap<>());
+        }
+    }
+
+    /**
+     * Setzt den Bedarf einer Quelle, ersetzt den bisherigen
+     *
+     * @param key z.B. "project:<Plan>", "shop:<Gebäude>", "resident:<ID>"
+     */
+    public void set(String key, Type type, Map<Item, Integer> amounts) {
+        remove(key);
+        if (amounts.isEmpty()) {
+            return;
+        }
+        Reference2IntOpenHashMap<Item> copy = new Reference2IntOpenHashMap<>();
+        Reference2IntOpenHashMap<Item> total = totals.get(type);
+        for (Map.Entry<Item, Integer> entry : amounts.entrySet()) {
+            if (entry.getValue() > 0) {
+                copy.put(entry.getKey(), (int) entry.getValue());
+                total.addTo(entry.getKey(), entry.getValue());
+            }
+        }
+        sources.put(key, new Source(type, copy));
+    }
+
+    public void remove(String key) {
+        Source source = sources.remove(key);
+        if (source == null) {
+            return;
+        }
+        Reference2IntOpenHashMap<Item> total = totals.get(source.type);
+        for (Reference2IntMap.Entry<Item> entry : source.amounts.reference2IntEntrySet()) {
+            if (total.addTo(entry.getKey(), -entry.getIntValue()) - entry.getIntValue() <= 0) {
+                total.removeInt(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Setzt die Waren, die der Laden des Gebäudes selbst braucht
+     */
+    public void setShopNeeds(Set<Item> items) {
+        shopNeeds.clear();
+        shopNeeds.addAll(items);
+    }
+
+    /**
+     * Zurückgelegte Menge eines Items
+     *
+     * @param types Arten, die zählen (Type.mask)
+     */
+    public int getReserved(Item item, int types) {
+        int reserved = 0;
+        for (Map.Entry<Type, Reference2IntOpenHashMap<Item>> entry : totals.entrySet()) {
+            if ((types & entry.getKey().bit) != 0) {
+                reserved += entry.getValue().getInt(item);
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Verfügbare Menge nach Abzug der Vormerkungen (nbGoodAvailable)
+     *
+     * - forConstruction: nur die Baukosten werden abgezogen
+     * - forExport: Handelswaren bis zur targetQuantity statt reservedQuantity
+     * - forShop: was der Laden selbst braucht, ist nie verfügbar
+     */
+    public int getAvailable(InventoryLedger ledger, Item item, boolean forConstruction, boolean forExport, boolean forShop) {
+        if (forShop && shopNeeds.contains(item)) {
+            return 0;
+        }
+        int types = forConstruction ? MASK_CONSTRUCTION : forExport ? MASK_EXPORT : MASK_DEFAULT;
+        return Math.max(0, ledger.count(item) - getReserved(item, types));
+    }
+
+    public void clear() {
+        sources.clear();
+        shopNeeds.clear();
+        for (Reference2IntOpenHashMap<Item> total : totals.values()) {
+            total.clear();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generierung neuer Dörfer in Stufen (Ersatz für WorldGenVillage.generate, das alles
+ * während der Chunk-Generierung in einem Stück erledigte)
+ *
+ * 1. Scan: die Dorfkarte wird chunkweise im Zeitbudget gelesen (Server-Thread)
+ * 2. Planung: alle Bauplätze werden im Hintergrund auf der fertigen Karte gesucht
+ * 3. Bau: die Gebäude setzen ihre Blöcke verteilt über mehrere Ticks, ebenfalls im Zeitbudget
+ *
+ * Statt den Stack nach WorldGenVillage abzusuchen, merkt sich die Pipeline, ob sie gerade Blöcke
+ * setzt (isPlacing) - Anfragen aus der dabei ausgelösten Chunk-Generierung werden abgelehnt.
+ *
+ * Solange ein Auftrag läuft, hält ein Chunk-Ticket das Dorfgebiet geladen (wie der
+ * BuildingChunkLoader des alten Mods), sonst würden Chunks am Rand der erkundeten Welt nie
+ * geladen und während des Baus wieder entladen.
+ *
+ * Das Dorf wird erst nach dem letzten Block in der VillageRegistry angemeldet und gespeichert.
+ * Ein durch den Serverstopp abgebrochener Bau hinterlässt so kein halbfertiges Dorf, nur die
+ * bis dahin gesetzten Blöcke.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillageGenerationPipeline {
+    // Solange darf das Laden der Chunks im Dorfgebiet dauern, danach wird abgebrochen
+    private static final int MAX_SCAN_TICKS = 1200;
+
+    // Lädt nur, ohne die Chunks zu ticken; läuft nicht ab und wird nicht gespeichert
+    private static final ChunkTicketType TICKET_TYPE = Registry.register(Registries.TICKET_TYPE,
+        Identifier.of(MillenaireReborn.MOD_ID, "village_generation"),
+        new ChunkTicketType(0L, false, ChunkTicketType.Use.LOADING));
+
+    private static VillageGenerationPipeline instance;
+
+    /**
+     * Was generiert wird (aus Kultur und Dorftyp)
+     */
+    public interface VillageLayout {
+        int getRadius();
+
+        /**
+         * Die zu platzierenden Gebäude, das Rathaus zuerst
+         */
+        List<PlacementFootprint> getBuildings();
+
+        /**
+         * Stub des neuen Dorfes an der Stelle des Rathauses
+         */
+        VillageStub createStub(BuildingLocation townHall);
+
+        BlockPlacementTask createConstruction(BuildingLocation location);
+
+        /**
+         * Nach der Planung, bevor der erste Block gesetzt wird (der Stub ist noch nicht angemeldet)
+         */
+        default void onPlanned(VillageStub stub, VillageMapInfo map, List<BuildingLocation> locations) {
+        }
+
+        default void onCompleted(VillageStub stub) {
+        }
+    }
+
+    private enum Stage {
+        SCANNING,
+        PLANNING,
+        PLACING
+    }
+
+    private static final class GenerationJob {
+        final ServerWorld world;
+        final Point centre;
+        final VillageLayout layout;
+        // Gehört während der Planung allein dem Hintergrund-Thread
+        final VillageMapInfo map = new VillageMapInfo();
+        final ArrayDeque<BlockPlacementTask> constructions = new ArrayDeque<>();
+        final ChunkPos ticketPos;
+        // Die Karte reicht ein paar Blöcke über den Radius hinaus, dazu ein Chunk Reserve
+        final int ticketRadius;
+        Stage stage = Stage.SCANNING;
+        int scanTicks;
+        VillageStub stub;
+
+        GenerationJob(ServerWorld world, Point centre, VillageLayout layout) {
+            this.world = world;
+            this.centre = centre;
+            this.layout = layout;
+            this.ticketPos = new ChunkPos(centre.x >> 4, centre.z >> 4);
+            this.ticketRadius = (layout.getRadius() >> 4) + 2;
+        }
+    }
+
+    private final List<GenerationJob> jobs = new ArrayList<>();
+    private MinecraftServer server;
+    private VillageTickScheduler.Job tickJob;
+    private boolean placing;
+
+    private VillageGenerationPipeline() {
+    }
+
+    public static VillageGenerationPipeline getInstance() {
+        if (instance == null) {
+            instance = new VillageGenerationPipeline();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Start und Stopp beim Server
+     */
+    static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> getInstance().start(server));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> getInstance().stop());
+    }
+
+    private void start(MinecraftServer server) {
+        this.server = server;
+        tickJob = VillageTickScheduler.getInstance().schedule("generation", this, 1,
+            MillConfig.generationTickBudgetMillis, this::tick);
+    }
+
+    private void stop() {
+        if (tickJob != null) {
+            tickJob.cancel();
+            tickJob = null;
+        }
+        // Laufende Planungen verwerfen ihr Ergebnis, da der Auftrag fehlt
+        for (GenerationJob job : new ArrayList<>(jobs)) {
+            finish(job);
+        }
+        server = null;
+    }
+
+    /**
+     * Beginnt die Generierung eines Dorfes, z.B. aus der Chunk-Generierung
+     *
+     * @param centre Mittelpunkt des Dorfes, y als Bezugshöhe der Karte
+     * @return false, wenn abgelehnt: die Pipeline setzt gerade selbst Blöcke oder ein anderes
+     * Dorf wird zu nah daneben generiert
+     */
+    public boolean request(ServerWorld world, Point centre, VillageLayout layout) {
+        if (placing || server == null) {
+            return false;
+        }
+        for (GenerationJob job : jobs) {
+            double dx = job.centre.x - centre.x;
+            double dz = job.centre.z - centre.z;
+            double minDistance = job.layout.getRadius() + layout.getRadius();
+            if (dx * dx + dz * dz < minDistance * minDistance) {
+                return false;
+            }
+        }
+        GenerationJob job = new GenerationJob(world, centre, layout);
+        job.map.prepare(world, centre, layout.getRadius());
+        world.getChunkManager().addTicket(TICKET_TYPE, job.ticketPos, job.ticketRadius);
+        jobs.add(job);
+        return true;
+    }
+
+    /**
+     * Beendet einen Auftrag und gibt das Dorfgebiet wieder frei
+     */
+    private void finish(GenerationJob job) {
+        if (jobs.remove(job)) {
+            job.world.getChunkManager().removeTicket(TICKET_TYPE, job.ticketPos, job.ticketRadius);
+        }
+    }
+
+    /**
+     * Setzt die Pipeline gerade Blöcke? (Ersatz für die Stack-Prüfung auf WorldGenVillage)
+     */
+    public boolean isPlacing() {
+        return placing;
+    }
+
+    public int getPendingCount() {
+        return jobs.size();
+    }
+
+    private void tick() {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + (long) (MillConfig.generationTickBudgetMillis * 1_000_000);
+        for (GenerationJob job : new ArrayList<>(jobs)) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            switch (job.stage) {
+                case SCANNING -> scan(job, deadline);
+                case PLACING -> place(job, deadline);
+                case PLANNING -> {
+                    // Läuft im Hintergrund
+                }
+            }
+        }
+    }
+
+    private void scan(GenerationJob job, long deadline) {
+        if (!job.map.scanPendingChunks(deadline)) {
+            if (++job.scanTicks > MAX_SCAN_TICKS) {
+                MillenaireReborn.LOGGER.warn("Village generation at {} abandoned, the area did not load", job.centre);
+                finish(job);
+            }
+            return;
+        }
+        startPlanning(job);
+    }
+
+    private void startPlanning(GenerationJob job) {
+        MinecraftServer server = this.server;
+        job.stage = Stage.PLANNING;
+        try {
+            MillExecutors.background().execute(() -> {
+                List<BuildingLocation> locations;
+                try {
+                    locations = plan(job);
+                } catch (Exception e) {
+                    MillenaireReborn.LOGGER.error("Error while planning village at {}", job.centre, e);
+                    locations = null;
+                }
+                List<BuildingLocation> result = locations;
+                server.execute(() -> finishPlanning(job, result));
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool ausgelastet: die Karte ist fertig, im nächsten Tick erneut
+            job.stage = Stage.SCANNING;
+        }
+    }
+
+    /**
+     * Sucht die Bauplätze aller Gebäude nacheinander, jedes Gebäude sieht die vor ihm geplanten
+     * (Hintergrund-Thread)
+     *
+     * @return die Bauplätze, das Rathaus zuerst, oder null, wenn das Rathaus keinen Platz findet
+     */
+    private static List<BuildingLocation> plan(GenerationJob job) {
+        long start = MillProfiler.start();
+        List<BuildingLocation> locations = new ArrayList<>();
+        for (PlacementFootprint footprint : job.layout.getBuildings()) {
+            BuildingLocation location = footprint.find(job.map.createPlacementSearch(null, job.centre), job.layout.getRadius(), -1);
+            if (location == null) {
+                if (locations.isEmpty()) {
+                    return null;
+                }
+                if (MillConfig.enableDebugMode) {
+                    MillenaireReborn.LOGGER.debug("No location found for {} in village at {}", footprint.planKey, job.centre);
+                }
+                continue;
+            }
+            job.map.addBuildingLocationToMap(location);
+            locations.add(location);
+        }
+        MillProfiler.stop(ProfilerSection.CONSTRUCTION, null, "village planning", start);
+        return locations;
+    }
+
+    private void finishPlanning(GenerationJob job, List<BuildingLocation> locations) {
+        // Inzwischen gestoppt
+        if (!jobs.contains(job)) {
+            return;
+        }
+        if (locations == null) {
+            MillenaireReborn.LOGGER.debug("No town hall location found for village at {}", job.centre);
+            finish(job);
+            return;
+        }
+        // Während der Planung kann daneben ein anderes Dorf entstanden sein
+        String dimension = job.world.getRegistryKey().getValue().toString();
+        if (!VillageRegistry.getInstance().getSpatialIndex().withinRadius(job.centre.x, job.centre.z, job.layout.getRadius(),
+            stub -> stub.getDimension().equals(dimension)).isEmpty()) {
+            finish(job);
+            return;
+        }
+        try {
+            job.stub = job.layout.createStub(locations.get(0));
+            job.layout.onPlanned(job.stub, job.map, locations);
+            for (BuildingLocation location : locations) {
+                job.constructions.add(job.layout.createConstruction(location));
+            }
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Could not create village at {}", job.centre, e);
+            finish(job);
+            return;
+        }
+        job.stage = Stage.PLACING;
+    }
+
+    private void place(GenerationJob job, long deadline) {
+        long start = MillProfiler.start();
+        BulkBlockWriter writer = new BulkBlockWriter(job.world);
+        placing = true;
+        try {
+            while (!job.constructions.isEmpty() && System.nanoTime() < deadline) {
+                boolean done;
+                try {
+                    done = job.constructions.peek().place(writer, deadline);
+                } catch (Exception e) {
+                    MillenaireReborn.LOGGER.error("Error while building village {}", job.stub, e);
+                    done = true;
+                }
+                if (done) {
+                    job.constructions.poll();
+                }
+            }
+        } finally {
+            // Auch die zurückgestellten Blöcke können Chunks laden, daher noch innerhalb von placing
+            try {
+                writer.finish();
+            } finally {
+                placing = false;
+            }
+        }
+        MillProfiler.stop(ProfilerSection.CONSTRUCTION, job.stub.getKey(), "village generation", start);
+
+        if (job.constructions.isEmpty()) {
+            finish(job);
+            try {
+                VillageRegistry.getInstance().register(job.stub);
+                job.layout.onCompleted(job.stub);
+            } catch (Exception e) {
+                MillenaireReborn.LOGGER.error("Error after generating village {}", job.stub, e);
+            }
+            MillenaireReborn.LOGGER.info("Generated village {}", job.stub);
+        }
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung (für Log und Debug-Befehle)
+     */
+    public List<String> describe() {
+        int scanning = 0;
+        int planning = 0;
+        int building = 0;
+        for (GenerationJob job : jobs) {
+            switch (job.stage) {
+                case SCANNING -> scanning++;
+                case PLANNING -> planning++;
+                case PLACING -> building++;
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Village generation: %d scanning, %d planning, %d building", scanning, planning, building));
+        return lines;
+    }
+}
@@ -0,0 +1,443 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.pathing.RegionMapper;
+import me.devupdates.millenaireReborn.common.pathing.RegionMapperUpdater;
+import me.devupdates.millenaireReborn.common.pathing.TerrainGrid;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Karte des Dorfgebiets: Bodenhöhe, Kopffreiheit, Wasser, Gefahren und Bauflächen pro Spalte
+ * (portiert vom alten Mod)
+ *
+ * Die Karte wird chunkweise reihum aktualisiert (updateNextChunk), der Scan selbst läuft über
+ * den ChunkTerrainScanner. Geänderte Chunks werden an den RegionMapperUpdater des Dorfes gemeldet.
+ * Die Daten selbst liegen flach in VillageMapLayers; snapshot() ist dadurch ohne Kopie möglich.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public class VillageMapInfo implements Cloneable, TerrainGrid {
+    private static final int MAP_MARGIN = 5;
+    private static final int VALID_HEIGHT_DIFF = 10;
+    public static final int UPDATE_FREQUENCY = 1000;
+
+    // Wird nur auf dem Server-Thread benutzt
+    private static final ChunkTerrainScanner SCANNER = new ChunkTerrainScanner();
+    private static final ChunkTerrainScanner.Result SCAN_RESULT = new ChunkTerrainScanner.Result();
+
+    public int length = 0;
+    public int width = 0;
+    public int chunkStartX = 0, chunkStartZ = 0;
+    public int mapStartX = 0, mapStartZ = 0;
+    public int yBaseline = 0;
+
+    private VillageMapLayers layers = new VillageMapLayers(0, 0, 0, 0);
+
+    public int frequency = 10;
+    private List<BuildingLocation> buildingLocations = new ArrayList<>();
+    private BuildingLocationIndex locationIndex = new BuildingLocationIndex();
+    public ServerWorld world;
+    public int lastUpdatedX;
+    public int lastUpdatedZ;
+    private int updateCounter;
+    // Nächster noch nicht gescannter Chunk nach prepare() (Index in der Reihenfolge von createWorldInfo)
+    private int pendingChunk;
+
+    private RegionMapperUpdater regionMapperUpdater;
+
+    /**
+     * Meldet künftig geänderte Chunks an den RegionMapper des Dorfes
+     */
+    public void setRegionMapperUpdater(RegionMapperUpdater regionMapperUpdater) {
+        this.regionMapperUpdater = regionMapperUpdater;
+    }
+
+    public void addBuildingLocationToMap(BuildingLocation bl) {
+        if (MillConfig.enableDebugMode) {
+            MillenaireReborn.LOGGER.debug("Registering building location: {}", bl);
+        }
+        buildingLocations.add(bl);
+        locationIndex.add(bl);
+        int sx = Math.max(bl.minxMargin - mapStartX, 0);
+        int sz = Math.max(bl.minzMargin - mapStartZ, 0);
+        int ex = Math.min(bl.maxxMargin - mapStartX, length);
+        int ez = Math.min(bl.maxzMargin - mapStartZ, width);
+        if (sx < ex && sz < ez) {
+            layers.setBuildingLocRef(sx, sz, ex, ez, bl);
+        }
+        markAreaDirty(bl);
+    }
+
+    @Override
+    public VillageMapInfo clone() throws CloneNotSupportedException {
+        VillageMapInfo o = (VillageMapInfo) super.clone();
+        o.layers = layers.mutableCopy();
+        o.buildingLocations = new ArrayList<>(buildingLocations);
+        o.locationIndex = locationIndex.copy();
+        o.regionMapperUpdater = null;
+        return o;
+    }
+
+    /**
+     * Legt die Karte für ein neu zu generierendes Dorf an, ohne die Chunks zu lesen - der Scan
+     * läuft danach über scanPendingChunks() verteilt auf mehrere Ticks
+     */
+    public void prepare(ServerWorld world, Point centre, int radius) {
+        this.world = world;
+        this.yBaseline = centre.y;
+        createWorldInfo(List.of(), centre.x - radius - MAP_MARGIN, centre.z - radius - MAP_MARGIN,
+            centre.x + radius + MAP_MARGIN, centre.z + radius + MAP_MARGIN, false);
+    }
+
+    /**
+     * Scannt die nach prepare() noch ausstehenden Chunks, bis deadline (System.nanoTime) erreicht ist
+     * Ein nicht geladener Chunk hält den Scan an, bis er geladen ist.
+     *
+     * @return true, wenn die Karte vollständig ist
+     */
+    public boolean scanPendingChunks(long deadline) {
+        int chunksZ = width >> 4;
+        int total = (length >> 4) * chunksZ;
+        while (pendingChunk < total) {
+            if (!updateChunk((pendingChunk / chunksZ) << 4, (pendingChunk % chunksZ) << 4)) {
+                return false;
+            }
+            pendingChunk++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return pendingChunk >= total;
+    }
+
+    private void createWorldInfo(List<BuildingLocation> locations, int pstartX, int pstartZ, int endX, int endZ) {
+        createWorldInfo(locations, pstartX, pstartZ, endX, endZ, true);
+    }
+
+    private void createWorldInfo(List<BuildingLocation> locations, int pstartX, int pstartZ, int endX, int endZ, boolean scan) {
+        chunkStartX = pstartX >> 4;
+        chunkStartZ = pstartZ >> 4;
+        mapStartX = chunkStartX << 4;
+        mapStartZ = chunkStartZ << 4;
+        length = ((endX >> 4) + 1 << 4) - mapStartX;
+        width = ((endZ >> 4) + 1 << 4) - mapStartZ;
+        frequency = (int) Math.max(1000.0 / (length * width / 256), 10.0);
+
+        if (MillConfig.enableDebugMode) {
+            MillenaireReborn.LOGGER.debug("Creating world info: {}/{}/{}/{}", mapStartX, mapStartZ, length, width);
+        }
+
+        layers = new VillageMapLayers(mapStartX, mapStartZ, length, width);
+        buildingLocations = new ArrayList<>();
+        locationIndex = new BuildingLocationIndex();
+
+        for (BuildingLocation location : locations) {
+            addBuildingLocationToMap(location);
+        }
+        pendingChunk = 0;
+        if (scan) {
+            for (int i = 0; i < length; i += 16) {
+                for (int j = 0; j < width; j += 16) {
+                    updateChunk(i, j);
+                }
+            }
+            pendingChunk = (length >> 4) * (width >> 4);
+        }
+        lastUpdatedX = 0;
+        lastUpdatedZ = 0;
+
+        if (regionMapperUpdater != null) {
+            regionMapperUpdater.requestFullRebuild();
+        }
+    }
+
+    public List<BuildingLocation> getBuildingLocations() {
+        return buildingLocations;
+    }
+
+    /**
+     * Räumlicher Index der Gebäude nach Plan-Tag (farFromTag/closeToTag)
+     */
+    public BuildingLocationIndex getLocationIndex() {
+        return locationIndex;
+    }
+
+    /**
+     * Neue Bauplatz-Suche auf dem aktuellen Stand der Karte - die Karte darf danach weiter aktualisiert werden
+     *
+     * @param regionMapper fertiger RegionMapper des Dorfes oder null
+     */
+    public BuildingPlacementSearch createPlacementSearch(RegionMapper regionMapper, Point centre) {
+        return new BuildingPlacementSearch(snapshot(), locationIndex.copy(), regionMapper, centre);
+    }
+
+    public boolean isConstructionForbiddenHere(Point p) {
+        if (p.x < mapStartX || p.z < mapStartZ || p.x >= mapStartX + length || p.z >= mapStartZ + width) {
+            return false;
+        }
+        return layers.isBuildingForbidden(p.x - mapStartX, p.z - mapStartZ);
+    }
+
+    public void removeBuildingLocation(BuildingLocation bl) {
+        BuildingLocation registered = null;
+        for (BuildingLocation l : buildingLocations) {
+            if (l.isLocationSamePlace(bl)) {
+                registered = l;
+                buildingLocations.remove(l);
+                locationIndex.remove(l);
+                break;
+            }
+        }
+        if (registered != null) {
+            layers.removeBuildingLocRef(registered);
+        } else {
+            int sx = Math.max(bl.minxMargin - mapStartX, 0);
+            int sz = Math.max(bl.minzMargin - mapStartZ, 0);
+            int ex = Math.min(bl.maxxMargin - mapStartX, length);
+            int ez = Math.min(bl.maxzMargin - mapStartZ, width);
+            if (sx < ex && sz < ez) {
+                layers.setBuildingLocRef(sx, sz, ex, ez, null);
+            }
+        }
+        markAreaDirty(bl);
+    }
+
+    private void markAreaDirty(BuildingLocation bl) {
+        if (regionMapperUpdater != null) {
+            regionMapperUpdater.markAreaDirty(bl.minxMargin, bl.minzMargin, bl.maxxMargin, bl.maxzMargin);
+        }
+    }
+
+    /**
+     * Passt die Karte an die Gebäude des Dorfes an und aktualisiert den nächsten Chunk
+     *
+     * @return true, wenn die Karte komplett neu angelegt wurde
+     */
+    public boolean update(ServerWorld world, List<BuildingLocation> locations, Point centre, int radius) {
+        this.world = world;
+        this.yBaseline = centre.y;
+
+        if (buildingLocations != null && !buildingLocations.isEmpty() && buildingLocations.size() == locations.size()) {
+            if (!isSameLocationList(locations)) {
+                locationIndex.clear();
+                for (BuildingLocation location : locations) {
+                    locationIndex.add(location);
+                }
+            }
+            buildingLocations = new ArrayList<>(locations);
+            updateNextChunk();
+            return false;
+        }
+
+        int startX = centre.x, startZ = centre.z, endX = centre.x, endZ = centre.z;
+        for (BuildingLocation location : locations) {
+            if (location == null) {
+                continue;
+            }
+            startX = Math.min(startX, location.pos.x - location.length / 2);
+            endX = Math.max(endX, location.pos.x + location.length / 2);
+            startZ = Math.min(startZ, location.pos.z - location.width / 2);
+            endZ = Math.max(endZ, location.pos.z + location.width / 2);
+        }
+
+        startX = Math.min(startX - MAP_MARGIN, centre.x - radius - MAP_MARGIN);
+        startZ = Math.min(startZ - MAP_MARGIN, centre.z - radius - MAP_MARGIN);
+        endX = Math.max(endX + MAP_MARGIN, centre.x + radius + MAP_MARGIN);
+        endZ = Math.max(endZ + MAP_MARGIN, centre.z + radius + MAP_MARGIN);
+
+        int mapStartXTemp = (startX >> 4) << 4;
+        int mapStartZTemp = (startZ >> 4) << 4;
+        int lengthTemp = ((endX >> 4) + 1 << 4) - mapStartXTemp;
+        int widthTemp = ((endZ >> 4) + 1 << 4) - mapStartZTemp;
+
+        if (lengthTemp != length || widthTemp != width) {
+            createWorldInfo(locations, startX, startZ, endX, endZ);
+            return true;
+        }
+
+        // Gebäudeliste hat sich geändert: Referenzen neu eintragen
+        for (BuildingLocation location : new ArrayList<>(buildingLocations)) {
+            removeBuildingLocation(location);
+        }
+        buildingLocations = new ArrayList<>();
+        for (BuildingLocation location : locations) {
+            addBuildingLocationToMap(location);
+        }
+        updateNextChunk();
+        return false;
+    }
+
+    private boolean isSameLocationList(List<BuildingLocation> locations) {
+        for (int i = 0; i < locations.size(); i++) {
+            if (locations.get(i) != buildingLocations.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scannt einen Chunk der Karte neu (Kartenkoordinaten der Chunk-Ecke)
+     *
+     * @return false, wenn der Chunk nicht geladen ist
+     */
+    private boolean updateChunk(int startX, int startZ) {
+        int chunkX = (startX + mapStartX) >> 4;
+        int chunkZ = (startZ + mapStartZ) >> 4;
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+        if (chunk == null) {
+            // Nicht geladen - wird beim nächsten Durchlauf nachgeholt
+            return false;
+        }
+
+        long start = MillProfiler.start();
+        SCANNER.scan(chunk, yBaseline, SCAN_RESULT);
+
+        boolean changed = false;
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                int column = (i << 4) | j;
+                int mx = i + startX;
+                int mz = j + startZ;
+                byte flags = SCAN_RESULT.flags[column];
+
+                short newTopGround = SCAN_RESULT.topGround[column];
+                short newSpaceAbove = SCAN_RESULT.spaceAbove[column];
+                boolean newDanger = (flags & ChunkTerrainScanner.DANGER) != 0;
+                boolean newWater = (flags & ChunkTerrainScanner.WATER) != 0;
+                boolean forbidden = (flags & ChunkTerrainScanner.FORBIDDEN) != 0;
+
+                BuildingLocation bl = layers.getBuildingLocRef(mx, mz);
+                layers.set(VillageMapLayers.CAN_BUILD, mx, mz, !newDanger && !forbidden && bl == null
+                    && newTopGround > yBaseline - VALID_HEIGHT_DIFF && newTopGround < yBaseline + VALID_HEIGHT_DIFF);
+                if (bl != null) {
+                    newTopGround = (short) bl.pos.y;
+                    newSpaceAbove = 3;
+                }
+                if (newDanger) {
+                    newSpaceAbove = 0;
+                }
+
+                changed |= layers.getTopGround(mx, mz) != newTopGround || layers.getSpaceAbove(mx, mz) != newSpaceAbove
+                    || layers.isDanger(mx, mz) != newDanger || layers.isWater(mx, mz) != newWater;
+
+                layers.setTopGround(mx, mz, newTopGround);
+                layers.setSpaceAbove(mx, mz, newSpaceAbove);
+                layers.set(VillageMapLayers.DANGER, mx, mz, newDanger);
+                layers.set(VillageMapLayers.WATER, mx, mz, newWater);
+                layers.set(VillageMapLayers.BUILDING_FORBIDDEN, mx, mz, forbidden);
+                layers.set(VillageMapLayers.TREE, mx, mz, (flags & ChunkTerrainScanner.TREE) != 0);
+                layers.set(VillageMapLayers.PATH, mx, mz, (flags & ChunkTerrainScanner.PATH) != 0);
+                layers.set(VillageMapLayers.TOP_ADJUSTED, mx, mz, false);
+            }
+        }
+
+        if (changed && regionMapperUpdater != null) {
+            regionMapperUpdater.markChunkDirty(chunkX, chunkZ);
+        }
+        MillProfiler.stop(ProfilerSection.MAP_UPDATE, null, "chunk scan", start);
+        return true;
+    }
+
+    /**
+     * Aktualisiert reihum einen Chunk, alle frequency Aufrufe
+     */
+    public void updateNextChunk() {
+        updateCounter = (updateCounter + 1) % frequency;
+        if (updateCounter != 0) {
+            return;
+        }
+        lastUpdatedX++;
+        if (lastUpdatedX * 16 >= length) {
+            lastUpdatedX = 0;
+            lastUpdatedZ++;
+        }
+        if (lastUpdatedZ * 16 >= width) {
+            lastUpdatedZ = 0;
+        }
+        updateChunk(lastUpdatedX << 4, lastUpdatedZ << 4);
+    }
+
+    /**
+     * Die Ebenen der Karte - Änderungen daran nur vom Server-Thread
+     */
+    public VillageMapLayers getLayers() {
+        return layers;
+    }
+
+    /**
+     * Konsistenter, unveränderlicher Stand der Karte für Worker-Threads (Copy-on-Write, ohne Kopie)
+     */
+    @Override
+    public VillageMapLayers snapshot() {
+        return layers.snapshot();
+    }
+
+    public boolean canBuild(int x, int z) {
+        return layers.canBuild(x, z);
+    }
+
+    public boolean isBuildingForbidden(int x, int z) {
+        return layers.isBuildingForbidden(x, z);
+    }
+
+    public boolean isTree(int x, int z) {
+        return layers.isTree(x, z);
+    }
+
+    public boolean isPath(int x, int z) {
+        return layers.isPath(x, z);
+    }
+
+    public BuildingLocation getBuildingLocRef(int x, int z) {
+        return layers.getBuildingLocRef(x, z);
+    }
+
+    @Override
+    public int getMapStartX() {
+        return mapStartX;
+    }
+
+    @Override
+    public int getMapStartZ() {
+        return mapStartZ;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getTopGround(int x, int z) {
+        return layers.getTopGround(x, z);
+    }
+
+    @Override
+    public int getSpaceAbove(int x, int z) {
+        return layers.getSpaceAbove(x, z);
+    }
+
+    @Override
+    public boolean isDanger(int x, int z) {
+        return layers.isDanger(x, z);
+    }
+
+    @Override
+    public boolean isWater(int x, int z) {
+        return layers.isWater(x, z);
+    }
+}
@@ -0,0 +1,286 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.pathing.TerrainGrid;
+
+import java.util.Arrays;
+
+/**
+ * Flache Speicherung der Dorfkarte (ersetzt die [length][width]-Arrays aus VillageMapInfo)
+ *
+ * - Höhen als short[], Kopffreiheit als byte[], Index jeweils x * width + z
+ * - alle Ja/Nein-Ebenen als Bitsets (long[]), ein Bit pro Spalte
+ * - Gebäude-Referenzen als short[] in eine kleine Tabelle der BuildingLocations (0 = keins)
+ *
+ * snapshot() liefert in O(1) eine unveränderliche Sicht für Worker-Threads (RegionMapper,
+ * Platzsuche): die Arrays werden geteilt und erst beim nächsten Schreibzugriff der Karte
+ * kopiert, und zwar nur die Ebene, die sich tatsächlich ändert.
+ */
+public final class VillageMapLayers implements TerrainGrid {
+    // Bit-Ebenen
+    public static final int DANGER = 0;
+    public static final int CAN_BUILD = 1;
+    public static final int BUILDING_FORBIDDEN = 2;
+    public static final int WATER = 3;
+    public static final int TREE = 4;
+    public static final int TOP_ADJUSTED = 5;
+    public static final int PATH = 6;
+    private static final int BIT_LAYERS = 7;
+
+    // Geteilt-Markierungen der übrigen Arrays (hinter den Bit-Ebenen)
+    private static final int TOP_GROUND_ARRAY = BIT_LAYERS;
+    private static final int SPACE_ABOVE_ARRAY = BIT_LAYERS + 1;
+    private static final int LOCATION_INDEX_ARRAY = BIT_LAYERS + 2;
+    private static final int LOCATION_TABLE_ARRAY = BIT_LAYERS + 3;
+    private static final int ALL_SHARED = (1 << (BIT_LAYERS + 4)) - 1;
+
+    private final int mapStartX, mapStartZ;
+    private final int length, width;
+    private final boolean readOnly;
+
+    private short[] topGround;
+    private byte[] spaceAbove;
+    private short[] locationIndex;
+    private final long[][] bits;
+    // Eintrag 0 bleibt frei (= kein Gebäude)
+    private BuildingLocation[] locationTable;
+    // Arrays, die noch mit einem Snapshot oder einer Kopie geteilt werden
+    private int sharedMask;
+
+    public VillageMapLayers(int mapStartX, int mapStartZ, int length, int width) {
+        this.mapStartX = mapStartX;
+        this.mapStartZ = mapStartZ;
+        this.length = length;
+        this.width = width;
+        this.readOnly = false;
+
+        int size = length * width;
+        this.topGround = new short[size];
+        this.spaceAbove = new byte[size];
+        this.locationIndex = new short[size];
+        this.bits = new long[BIT_LAYERS][(size + 63) >> 6];
+        this.locationTable = new BuildingLocation[8];
+    }
+
+    private VillageMapLayers(VillageMapLayers source, boolean readOnly) {
+        this.mapStartX = source.mapStartX;
+        this.mapStartZ = source.mapStartZ;
+        this.length = source.length;
+        this.width = source.width;
+        this.readOnly = readOnly;
+
+        this.topGround = source.topGround;
+        this.spaceAbove = source.spaceAbove;
+        this.locationIndex = source.locationIndex;
+        this.bits = source.bits.clone();
+        this.locationTable = source.locationTable;
+        this.sharedMask = ALL_SHARED;
+        source.sharedMask = ALL_SHARED;
+    }
+
+    /**
+     * Unveränderliche Sicht auf den aktuellen Stand - darf von jedem Thread gelesen werden
+     * Nur vom Besitzer-Thread der Karte aufrufen.
+     */
+    @Override
+    public VillageMapLayers snapshot() {
+        return readOnly ? this : new VillageMapLayers(this, true);
+    }
+
+    /**
+     * Veränderbare Kopie, die sich die Arrays bis zum ersten Schreibzugriff mit dieser Karte teilt
+     */
+    public VillageMapLayers mutableCopy() {
+        return new VillageMapLayers(this, false);
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private int index(int x, int z) {
+        return x * width + z;
+    }
+
+    /**
+     * Sorgt dafür, dass ein Array vor dem Schreiben nicht mehr geteilt ist
+     */
+    private void own(int array) {
+        if (readOnly) {
+            throw new IllegalStateException("Village map snapshot is read-only");
+        }
+        int mask = 1 << array;
+        if ((sharedMask & mask) == 0) {
+            return;
+        }
+        switch (array) {
+            case TOP_GROUND_ARRAY -> topGround = topGround.clone();
+            case SPACE_ABOVE_ARRAY -> spaceAbove = spaceAbove.clone();
+            case LOCATION_INDEX_ARRAY -> locationIndex = locationIndex.clone();
+            case LOCATION_TABLE_ARRAY -> locationTable = locationTable.clone();
+            default -> bits[array] = bits[array].clone();
+        }
+        sharedMask &= ~mask;
+    }
+
+    @Override
+    public int getMapStartX() {
+        return mapStartX;
+    }
+
+    @Override
+    public int getMapStartZ() {
+        return mapStartZ;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getTopGround(int x, int z) {
+        return topGround[index(x, z)];
+    }
+
+    public void setTopGround(int x, int z, int y) {
+        int i = index(x, z);
+        if (topGround[i] != y) {
+            own(TOP_GROUND_ARRAY);
+            topGround[i] = (short) y;
+        }
+    }
+
+    @Override
+    public int getSpaceAbove(int x, int z) {
+        return spaceAbove[index(x, z)];
+    }
+
+    public void setSpaceAbove(int x, int z, int space) {
+        int i = index(x, z);
+        if (spaceAbove[i] != space) {
+            own(SPACE_ABOVE_ARRAY);
+            spaceAbove[i] = (byte) space;
+        }
+    }
+
+    public boolean get(int layer, int x, int z) {
+        int i = index(x, z);
+        return (bits[layer][i >> 6] & (1L << i)) != 0;
+    }
+
+    public void set(int layer, int x, int z, boolean value) {
+        int i = index(x, z);
+        long word = bits[layer][i >> 6];
+        long updated = value ? word | (1L << i) : word & ~(1L << i);
+        if (updated != word) {
+            own(layer);
+            bits[layer][i >> 6] = updated;
+        }
+    }
+
+    /**
+     * Setzt eine Bit-Ebene komplett zurück
+     */
+    public void clear(int layer) {
+        if (readOnly) {
+            throw new IllegalStateException("Village map snapshot is read-only");
+        }
+        if ((sharedMask & (1 << layer)) != 0) {
+            bits[layer] = new long[bits[layer].length];
+            sharedMask &= ~(1 << layer);
+        } else {
+            Arrays.fill(bits[layer], 0L);
+        }
+    }
+
+    @Override
+    public boolean isDanger(int x, int z) {
+        return get(DANGER, x, z);
+    }
+
+    @Override
+    public boolean isWater(int x, int z) {
+        return get(WATER, x, z);
+    }
+
+    public boolean canBuild(int x, int z) {
+        return get(CAN_BUILD, x, z);
+    }
+
+    public boolean isBuildingForbidden(int x, int z) {
+        return get(BUILDING_FORBIDDEN, x, z);
+    }
+
+    public boolean isTree(int x, int z) {
+        return get(TREE, x, z);
+    }
+
+    public boolean isPath(int x, int z) {
+        return get(PATH, x, z);
+    }
+
+    /**
+     * Gebäude, dessen Randzone diese Spalte abdeckt, oder null
+     */
+    public BuildingLocation getBuildingLocRef(int x, int z) {
+        return locationTable[locationIndex[index(x, z)]];
+    }
+
+    /**
+     * Trägt ein Gebäude in den Bereich (Kartenkoordinaten, Ende exklusiv) ein
+     */
+    public void setBuildingLocRef(int minX, int minZ, int maxX, int maxZ, BuildingLocation bl) {
+        short id = bl == null ? 0 : registerLocation(bl);
+        own(LOCATION_INDEX_ARRAY);
+        for (int x = minX; x < maxX; x++) {
+            Arrays.fill(locationIndex, index(x, minZ), index(x, minZ) + maxZ - minZ, id);
+        }
+    }
+
+    /**
+     * Entfernt ein Gebäude aus der ganzen Karte (alle Spalten mit diesem Eintrag)
+     */
+    public void removeBuildingLocRef(BuildingLocation bl) {
+        for (int id = 1; id < locationTable.length; id++) {
+            if (locationTable[id] == bl) {
+                own(LOCATION_INDEX_ARRAY);
+                own(LOCATION_TABLE_ARRAY);
+                short shortId = (short) id;
+                for (int i = 0; i < locationIndex.length; i++) {
+                    if (locationIndex[i] == shortId) {
+                        locationIndex[i] = 0;
+                    }
+                }
+                locationTable[id] = null;
+                return;
+            }
+        }
+    }
+
+    private short registerLocation(BuildingLocation bl) {
+        int free = -1;
+        for (int id = 1; id < locationTable.length; id++) {
+            if (locationTable[id] == bl) {
+                return (short) id;
+            }
+            if (free < 0 && locationTable[id] == null) {
+                free = id;
+            }
+        }
+        own(LOCATION_TABLE_ARRAY);
+        if (free < 0) {
+            free = locationTable.length;
+            if (free > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many building locations in village map");
+            }
+            locationTable = Arrays.copyOf(locationTable, Math.min(free * 2, Short.MAX_VALUE + 1));
+        }
+        locationTable[free] = bl;
+        return (short) free;
+    }
+}
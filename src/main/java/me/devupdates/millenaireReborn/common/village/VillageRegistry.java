@@ -0,0 +1,245 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.persistence.VillageSaveManager;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+import me.devupdates.millenaireReborn.common.util.MillExecutors;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Alle Dörfer der Welt (Ersatz für den Dorf-Teil von MillWorldData.loadData)
+ *
+ * Beim Start werden nur die VillageStubs gelesen, parallel über alle Dateien. Die vollständigen
+ * Daten eines Dorfes werden erst geladen, wenn ein Spieler näher als keepActiveRadius kommt:
+ * das Lesen und Entpacken läuft im Hintergrund, das Aufbauen der Gebäude über den
+ * VillageHydrator auf dem Server-Thread.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillageRegistry {
+    private static final int ACTIVATION_PERIOD = 20;
+
+    private static VillageRegistry instance;
+
+    /**
+     * Baut aus den gespeicherten Datensätzen die vollständigen Dorf-Objekte auf (Server-Thread)
+     */
+    public interface VillageHydrator {
+        void hydrate(VillageStub stub, Map<String, NbtCompound> records);
+    }
+
+    private final Map<String, VillageStub> stubs = new LinkedHashMap<>();
+    private final Set<String> hydrated = new HashSet<>();
+    private final Set<String> loading = new HashSet<>();
+    private final VillageSpatialIndex spatialIndex = new VillageSpatialIndex();
+    private VillageHydrator hydrator;
+    private VillageTickScheduler.Job activationJob;
+
+    private VillageRegistry() {
+    }
+
+    public static VillageRegistry getInstance() {
+        if (instance == null) {
+            instance = new VillageRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert Start und Stopp beim Server - nach VillageSaveManager.init() aufrufen
+     */
+    static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> getInstance().start(server));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> getInstance().stop());
+    }
+
+    public void setHydrator(VillageHydrator hydrator) {
+        this.hydrator = hydrator;
+    }
+
+    private void start(MinecraftServer server) {
+        loadStubs();
+        activationJob = VillageTickScheduler.getInstance().schedule("activation", this, ACTIVATION_PERIOD, 0.2,
+            () -> activateNearPlayers(server));
+    }
+
+    private void stop() {
+        if (activationJob != null) {
+            activationJob.cancel();
+            activationJob = null;
+        }
+        stubs.clear();
+        hydrated.clear();
+        loading.clear();
+        spatialIndex.clear();
+    }
+
+    /**
+     * Liest die Stubs aller Dörfer parallel
+     */
+    private void loadStubs() {
+        long start = MillProfiler.start();
+        List<String> keys;
+        try {
+            keys = VillageSaveManager.getInstance().listVillages();
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Could not list saved villages", e);
+            return;
+        }
+        List<VillageStub> loaded;
+        try {
+            loaded = MillExecutors.placement().submit(() -> keys.parallelStream()
+                .map(VillageRegistry::readStub)
+                .filter(Objects::nonNull)
+                .toList()).get();
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Error while loading villages", e);
+            return;
+        }
+        for (VillageStub stub : loaded) {
+            stubs.put(stub.getKey(), stub);
+            spatialIndex.add(stub);
+            // Bewohner in den Spawn-Chunks sind schon vor dem Serverstart geladen
+            VillagerRegistry.getInstance().resolveOrphans(stub.getKey());
+        }
+        MillProfiler.stop(ProfilerSection.SAVE, null, "load villages", start);
+        MillenaireReborn.LOGGER.info("Loaded {} villages", stubs.size());
+    }
+
+    private static VillageStub readStub(String key) {
+        try {
+            NbtCompound nbt = VillageSaveManager.getInstance().loadRecord(key, VillageStub.RECORD_KEY);
+            if (nbt == null) {
+                MillenaireReborn.LOGGER.warn("Village file {} has no village record, ignoring it", key);
+                return null;
+            }
+            return VillageStub.fromNbt(key, nbt);
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Could not load village {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Meldet ein neu gegründetes Dorf oder einzelnes Gebäude an (registerVillageLocation,
+     * gilt sofort als vollständig geladen)
+     */
+    public void register(VillageStub stub) {
+        stubs.put(stub.getKey(), stub);
+        spatialIndex.add(stub);
+        hydrated.add(stub.getKey());
+        VillageSaveManager.getInstance().markDirty(stub.getKey(), VillageStub.RECORD_KEY, stub::toNbt);
+        VillagerRegistry.getInstance().resolveOrphans(stub.getKey());
+    }
+
+    /**
+     * Entfernt ein Dorf oder einzelnes Gebäude samt Speicherdatei (removeVillageOrLoneBuilding)
+     */
+    public void remove(String key) {
+        if (stubs.remove(key) == null) {
+            return;
+        }
+        hydrated.remove(key);
+        loading.remove(key);
+        spatialIndex.remove(key);
+        try {
+            VillageSaveManager.getInstance().deleteVillage(key);
+        } catch (IOException e) {
+            MillenaireReborn.LOGGER.error("Could not delete save file of village {}", key, e);
+        }
+    }
+
+    /**
+     * Räumlicher Index für Abstandsabfragen (nächstes Dorf, Dörfer im Umkreis...)
+     */
+    public VillageSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public VillageStub getStub(String key) {
+        return stubs.get(key);
+    }
+
+    public Collection<VillageStub> getStubs() {
+        return Collections.unmodifiableCollection(stubs.values());
+    }
+
+    public boolean isHydrated(String key) {
+        return hydrated.contains(key);
+    }
+
+    /**
+     * Lädt alle Dörfer im keepActiveRadius eines Spielers, die noch nicht geladen sind
+     */
+    private void activateNearPlayers(MinecraftServer server) {
+        if (hydrator == null || stubs.size() == hydrated.size()) {
+            return;
+        }
+        List<ServerPlayerEntity> players = server.getPlayerManager().getPlayerList();
+        if (players.isEmpty()) {
+            return;
+        }
+        Set<VillageStub> toLoad = new LinkedHashSet<>();
+        for (ServerPlayerEntity player : players) {
+            String dimension = player.getWorld().getRegistryKey().getValue().toString();
+            toLoad.addAll(spatialIndex.withinRadius(player.getX(), player.getZ(), MillConfig.keepActiveRadius,
+                stub -> stub.getDimension().equals(dimension) && !hydrated.contains(stub.getKey()) && !loading.contains(stub.getKey())));
+        }
+        for (VillageStub stub : toLoad) {
+            hydrateAsync(server, stub);
+        }
+    }
+
+    private void hydrateAsync(MinecraftServer server, VillageStub stub) {
+        loading.add(stub.getKey());
+        try {
+            MillExecutors.background().execute(() -> {
+                Map<String, NbtCompound> records;
+                try {
+                    records = VillageSaveManager.getInstance().load(stub.getKey());
+                } catch (Exception e) {
+                    MillenaireReborn.LOGGER.error("Could not load village {}", stub, e);
+                    server.execute(() -> loading.remove(stub.getKey()));
+                    return;
+                }
+                server.execute(() -> finishHydration(stub, records));
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool ausgelastet: beim nächsten Durchlauf erneut
+            loading.remove(stub.getKey());
+        }
+    }
+
+    private void finishHydration(VillageStub stub, Map<String, NbtCompound> records) {
+        // Inzwischen gestoppt oder entfernt
+        if (!loading.remove(stub.getKey()) || stubs.get(stub.getKey()) != stub) {
+            return;
+        }
+        long start = MillProfiler.start();
+        try {
+            hydrator.hydrate(stub, records);
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Could not activate village {}", stub, e);
+        }
+        // Auch bei Fehlern, sonst wird ein defektes Dorf jede Sekunde erneut geladen
+        hydrated.add(stub.getKey());
+        MillProfiler.stop(ProfilerSection.SAVE, stub.getKey(), "hydrate village", start);
+    }
+}
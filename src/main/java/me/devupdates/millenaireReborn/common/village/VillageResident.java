@@ -0,0 +1,17 @@
+package me.devupdates.millenaireReborn.common.village;
+
+/**
+ * Entity, die zu einem Dorf gehört (MillVillager) - damit erfasst sie das VillagerRegistry
+ */
+public interface VillageResident {
+
+    /**
+     * Eindeutige ID des Dorfbewohners (wie im VillagerRecord)
+     */
+    long getVillagerId();
+
+    /**
+     * Schlüssel des Dorfes (Rathaus), null wenn noch keinem Dorf zugeordnet
+     */
+    String getVillageKey();
+}
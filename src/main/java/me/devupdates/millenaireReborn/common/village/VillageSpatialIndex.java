@@ -0,0 +1,218 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Räumlicher Index aller Dörfer und einzelnen Gebäude der Welt (Ersatz für das lineare
+ * Durchsuchen von villagesList/loneBuildingsList)
+ *
+ * Raster mit CELL_SIZE großen Zellen; Suchen laufen ringweise von der Zelle des Suchpunkts
+ * nach außen und hören auf, sobald kein näherer Treffer mehr möglich ist. Die Kosten hängen
+ * damit von der Dichte um den Suchpunkt ab, nicht von der Gesamtzahl der Dörfer.
+ *
+ * Abstände horizontal (x/z). Nur vom Server-Thread verwenden.
+ */
+public class VillageSpatialIndex {
+    private static final int CELL_SHIFT = 8;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    private final Long2ObjectMap<List<VillageStub>> cells = new Long2ObjectOpenHashMap<>();
+    private final Map<String, VillageStub> entries = new HashMap<>();
+    // Belegter Bereich in Zellen (wächst nur), begrenzt die Suche ohne Treffer
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellZ = Integer.MAX_VALUE;
+    private int maxCellZ = Integer.MIN_VALUE;
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    public void add(VillageStub stub) {
+        remove(stub.getKey());
+        entries.put(stub.getKey(), stub);
+        int cellX = stub.getPosition().x >> CELL_SHIFT;
+        int cellZ = stub.getPosition().z >> CELL_SHIFT;
+        cells.computeIfAbsent(cellKey(cellX, cellZ), k -> new ArrayList<>()).add(stub);
+        minCellX = Math.min(minCellX, cellX);
+        maxCellX = Math.max(maxCellX, cellX);
+        minCellZ = Math.min(minCellZ, cellZ);
+        maxCellZ = Math.max(maxCellZ, cellZ);
+    }
+
+    public void remove(String key) {
+        VillageStub stub = entries.remove(key);
+        if (stub == null) {
+            return;
+        }
+        long cell = cellKey(stub.getPosition().x >> CELL_SHIFT, stub.getPosition().z >> CELL_SHIFT);
+        List<VillageStub> list = cells.get(cell);
+        if (list != null) {
+            list.remove(stub);
+            if (list.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+        minCellX = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        minCellZ = Integer.MAX_VALUE;
+        maxCellZ = Integer.MIN_VALUE;
+    }
+
+    private static double distanceSquared(VillageStub stub, double x, double z) {
+        double dx = stub.getPosition().x - x;
+        double dz = stub.getPosition().z - z;
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Nächstes Dorf oder einzelnes Gebäude, das den Filter erfüllt, oder null (getClosestVillage)
+     */
+    public VillageStub nearest(double x, double z, Predicate<VillageStub> filter) {
+        List<VillageStub> result = kNearest(x, z, 1, Double.MAX_VALUE, filter);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Die k nächsten Einträge innerhalb von maxDistance, nach Abstand sortiert
+     */
+    public List<VillageStub> kNearest(double x, double z, int k, double maxDistance, Predicate<VillageStub> filter) {
+        if (k <= 0 || entries.isEmpty()) {
+            return List.of();
+        }
+        // Max-Heap der bisher besten k
+        PriorityQueue<VillageStub> best = new PriorityQueue<>(
+            Comparator.comparingDouble((VillageStub stub) -> distanceSquared(stub, x, z)).reversed());
+        double maxSquared = maxDistance * maxDistance;
+        int centreX = (int) Math.floor(x) >> CELL_SHIFT;
+        int centreZ = (int) Math.floor(z) >> CELL_SHIFT;
+        int maxRing = maxRing(centreX, centreZ);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Kleinster möglicher Abstand zu Zellen dieses Rings
+            double ringDistance = Math.max(0, (ring - 1) * (double) CELL_SIZE);
+            if (ringDistance * ringDistance > maxSquared) {
+                break;
+            }
+            if (best.size() == k && ringDistance * ringDistance > distanceSquared(best.peek(), x, z)) {
+                break;
+            }
+            forEachInRing(centreX, centreZ, ring, stub -> {
+                double d = distanceSquared(stub, x, z);
+                if (d > maxSquared || (filter != null && !filter.test(stub))) {
+                    return;
+                }
+                if (best.size() < k) {
+                    best.add(stub);
+                } else if (d < distanceSquared(best.peek(), x, z)) {
+                    best.poll();
+                    best.add(stub);
+                }
+            });
+        }
+        List<VillageStub> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(stub -> distanceSquared(stub, x, z)));
+        return result;
+    }
+
+    /**
+     * Alle Einträge im Umkreis (z.B. Mindestabstand bei der Dorf-Generierung, Importe, Überfälle)
+     */
+    public List<VillageStub> withinRadius(double x, double z, double radius, Predicate<VillageStub> filter) {
+        List<VillageStub> result = new ArrayList<>();
+        double radiusSquared = radius * radius;
+        int minX = (int) Math.floor(x - radius) >> CELL_SHIFT;
+        int maxX = (int) Math.floor(x + radius) >> CELL_SHIFT;
+        int minZ = (int) Math.floor(z - radius) >> CELL_SHIFT;
+        int maxZ = (int) Math.floor(z + radius) >> CELL_SHIFT;
+        for (int cellX = Math.max(minX, minCellX); cellX <= Math.min(maxX, maxCellX); cellX++) {
+            for (int cellZ = Math.max(minZ, minCellZ); cellZ <= Math.min(maxZ, maxCellZ); cellZ++) {
+                List<VillageStub> list = cells.get(cellKey(cellX, cellZ));
+                if (list == null) {
+                    continue;
+                }
+                for (VillageStub stub : list) {
+                    if (distanceSquared(stub, x, z) <= radiusSquared && (filter == null || filter.test(stub))) {
+                        result.add(stub);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gibt es einen Eintrag näher als radius? (ohne Liste, für die Prüfung pro Chunk)
+     */
+    public boolean anyWithin(double x, double z, double radius) {
+        double radiusSquared = radius * radius;
+        int minX = (int) Math.floor(x - radius) >> CELL_SHIFT;
+        int maxX = (int) Math.floor(x + radius) >> CELL_SHIFT;
+        int minZ = (int) Math.floor(z - radius) >> CELL_SHIFT;
+        int maxZ = (int) Math.floor(z + radius) >> CELL_SHIFT;
+        for (int cellX = Math.max(minX, minCellX); cellX <= Math.min(maxX, maxCellX); cellX++) {
+            for (int cellZ = Math.max(minZ, minCellZ); cellZ <= Math.min(maxZ, maxCellZ); cellZ++) {
+                List<VillageStub> list = cells.get(cellKey(cellX, cellZ));
+                if (list == null) {
+                    continue;
+                }
+                for (VillageStub stub : list) {
+                    if (distanceSquared(stub, x, z) < radiusSquared) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ringweite, ab der keine belegte Zelle mehr erreicht wird
+     */
+    private int maxRing(int centreX, int centreZ) {
+        int dx = Math.max(Math.abs(centreX - minCellX), Math.abs(centreX - maxCellX));
+        int dz = Math.max(Math.abs(centreZ - minCellZ), Math.abs(centreZ - maxCellZ));
+        return Math.max(dx, dz);
+    }
+
+    private void forEachInRing(int centreX, int centreZ, int ring, Consumer<VillageStub> action) {
+        if (ring == 0) {
+            visitCell(centreX, centreZ, action);
+            return;
+        }
+        for (int i = -ring; i <= ring; i++) {
+            visitCell(centreX + i, centreZ - ring, action);
+            visitCell(centreX + i, centreZ + ring, action);
+        }
+        for (int i = -ring + 1; i <= ring - 1; i++) {
+            visitCell(centreX - ring, centreZ + i, action);
+            visitCell(centreX + ring, centreZ + i, action);
+        }
+    }
+
+    private void visitCell(int cellX, int cellZ, Consumer<VillageStub> action) {
+        List<VillageStub> list = cells.get(cellKey(cellX, cellZ));
+        if (list != null) {
+            list.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+import net.minecraft.nbt.NbtCompound;
+
+/**
+ * Leichtgewichtiger Eintrag eines Dorfes oder einzelnen Gebäudes, der ohne die Gebäude geladen wird
+ *
+ * Liegt als eigener Datensatz (RECORD_KEY) in der Speicherdatei des Dorfes, damit beim Start nur
+ * dieser gelesen werden muss.
+ */
+public class VillageStub {
+    public static final String RECORD_KEY = "village";
+    // Dörfer aus Speicherständen ohne Dimension liegen in der Oberwelt
+    public static final String DEFAULT_DIMENSION = "minecraft:overworld";
+
+    private final String key;
+    private final String dimension;
+    private final Point position;
+    private final String culture;
+    private final String type;
+    private final String name;
+    private final boolean loneBuilding;
+
+    /**
+     * @param dimension Id der Dimension (z.B. "minecraft:overworld")
+     */
+    public VillageStub(String key, String dimension, Point position, String culture, String type, String name, boolean loneBuilding) {
+        this.key = key;
+        this.dimension = dimension;
+        this.position = position;
+        this.culture = culture;
+        this.type = type;
+        this.name = name;
+        this.loneBuilding = loneBuilding;
+    }
+
+    public static VillageStub fromNbt(String key, NbtCompound nbt) {
+        Point position = new Point(nbt.getInt("x", 0), nbt.getInt("y", 0), nbt.getInt("z", 0));
+        return new VillageStub(key, nbt.getString("dimension", DEFAULT_DIMENSION), position, nbt.getString("culture", ""), nbt.getString("type", ""), nbt.getString("name", ""),
+            nbt.getBoolean("lone", false));
+    }
+
+    public NbtCompound toNbt() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("dimension", dimension);
+        nbt.putInt("x", position.x);
+        nbt.putInt("y", position.y);
+        nbt.putInt("z", position.z);
+        nbt.putString("culture", culture);
+        nbt.putString("type", type);
+        nbt.putString("name", name);
+        nbt.putBoolean("lone", loneBuilding);
+        return nbt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Position des Rathauses
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    public String getCulture() {
+        return culture;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Einzelnes Gebäude ohne Dorf (loneBuildingsList des alten Mods)
+     */
+    public boolean isLoneBuilding() {
+        return loneBuilding;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + culture + "/" + type + ") at " + position;
+    }
+}
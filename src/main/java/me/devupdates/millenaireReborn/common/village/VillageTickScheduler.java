@@ -0,0 +1,302 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import me.devupdates.millenaireReborn.common.config.MillConfig;
+import me.devupdates.millenaireReborn.common.profiling.MillProfiler;
+import me.devupdates.millenaireReborn.common.profiling.ProfilerSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Verteilt die periodischen Aufgaben der Dörfer auf die Server-Ticks (Ersatz für die serielle
+ * Schleife über alle Gebäude in MillWorldData.updateWorldServer und die verstreuten
+ * (worldTime + hashCode()) % N-Prüfungen)
+ *
+ * - jede Aufgabe (Gehege, Schilder, Bauwarteschlange, Kartenupdate, Überfälle, Speichern...)
+ *   wird einmal mit Periode und geschätzten Kosten angemeldet
+ * - beim Anmelden wird der Tick innerhalb der Periode gewählt, der bisher am wenigsten belegt ist
+ * - pro Tick laufen Aufgaben nur, solange das Zeitbudget reicht; was nicht passt, wird
+ *   verschoben und rückt mit jeder Verschiebung weiter nach vorne
+ * - hinkt der Server hinterher (Tick länger als 50 ms), wird das Budget verkleinert
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillageTickScheduler {
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final int WHEEL_SIZE = 1024;
+    // Nach so vielen Verschiebungen läuft eine Aufgabe im nächsten Tick als erste, egal wie teuer
+    private static final int MAX_DEFERRALS = 20;
+    // Jede Verschiebung zählt wie ein um so viele Ticks früherer Fälligkeitstermin
+    private static final int AGING_TICKS = 2;
+    private static final double MIN_BUDGET_MILLIS = 1.0;
+    private static final double COST_SMOOTHING = 0.2;
+
+    private static VillageTickScheduler instance;
+
+    /**
+     * Angemeldete Aufgabe - über cancel() wieder abmelden
+     */
+    public static final class Job {
+        private final String key;
+        private final Object owner;
+        private final int period;
+        private final Runnable task;
+        private double costMillis;
+        private long dueTick;
+        private int deferrals;
+        private boolean cancelled;
+        private long runs;
+        private long maxNanos;
+
+        private Job(String key, Object owner, int period, double costMillis, Runnable task) {
+            this.key = key;
+            this.owner = owner;
+            this.period = period;
+            this.costMillis = costMillis;
+            this.task = task;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getOwner() {
+            return owner;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        /**
+         * Aktuelle Kostenschätzung (gleitender Mittelwert der gemessenen Laufzeiten)
+         */
+        public double getCostMillis() {
+            return costMillis;
+        }
+
+        public int getDeferrals() {
+            return deferrals;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private long priority() {
+            return dueTick - (long) deferrals * AGING_TICKS;
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + owner;
+        }
+    }
+
+    private final PriorityQueue<Job> queue = new PriorityQueue<>(
+        Comparator.comparingLong(Job::priority).thenComparingInt(job -> job.period));
+    // Geschätzte Kosten pro Tick-Slot für die Verteilung neuer Aufgaben
+    private final double[] slotCost = new double[WHEEL_SIZE];
+    private final List<Job> deferred = new ArrayList<>();
+
+    private long currentTick = 0;
+    private long lastTickStart = 0;
+    private double budgetMillis = -1;
+
+    // Statistik
+    private long jobsRun = 0;
+    private long jobsDeferred = 0;
+    private long budgetExceeded = 0;
+    private double lastTickMillis = 0;
+
+    private VillageTickScheduler() {
+    }
+
+    public static VillageTickScheduler getInstance() {
+        if (instance == null) {
+            instance = new VillageTickScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Meldet eine periodische Aufgabe an
+     *
+     * @param key        Art der Aufgabe (z.B. "pens", "signs", "save") - für Log und Statistik
+     * @param owner      Dorf oder Gebäude, zu dem die Aufgabe gehört
+     * @param period     Abstand in Ticks (mindestens 1)
+     * @param costMillis geschätzte Laufzeit, wird mit den Messungen nachgeführt
+     */
+    public Job schedule(String key, Object owner, int period, double costMillis, Runnable task) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Job period must be at least one tick: " + period);
+        }
+        Job job = new Job(key, owner, period, Math.max(0.01, costMillis), task);
+        job.dueTick = currentTick + 1 + leastLoadedOffset(period);
+        slotCost[(int) (job.dueTick % WHEEL_SIZE)] += job.costMillis;
+        queue.add(job);
+        return job;
+    }
+
+    /**
+     * Versatz innerhalb der Periode, dessen Tick bisher die geringsten geschätzten Kosten hat
+     */
+    private int leastLoadedOffset(int period) {
+        int candidates = Math.min(period, WHEEL_SIZE);
+        int best = 0;
+        double bestCost = Double.MAX_VALUE;
+        for (int offset = 0; offset < candidates; offset++) {
+            double cost = slotCost[(int) ((currentTick + 1 + offset) % WHEEL_SIZE)];
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = offset;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Einmal pro Server-Tick aufrufen
+     */
+    public void tick() {
+        long tickStart = System.nanoTime();
+        currentTick++;
+        double budget = computeBudget(tickStart);
+        long deadline = tickStart + (long) (budget * 1_000_000);
+        boolean first = true;
+
+        while (!queue.isEmpty()) {
+            Job job = queue.peek();
+            if (job.cancelled) {
+                queue.poll();
+                continue;
+            }
+            if (job.dueTick > currentTick) {
+                break;
+            }
+            long now = System.nanoTime();
+            // Die erste Aufgabe läuft immer, damit es auch bei knappem Budget vorangeht
+            if (!first && now + (long) (job.costMillis * 1_000_000) > deadline) {
+                if (job.deferrals >= MAX_DEFERRALS || now >= deadline) {
+                    // Überfällige Aufgabe blockiert den Rest, damit sie im nächsten Tick zuerst dran ist
+                    break;
+                }
+                queue.poll();
+                job.deferrals++;
+                jobsDeferred++;
+                deferred.add(job);
+                continue;
+            }
+            queue.poll();
+            first = false;
+            run(job, now);
+        }
+
+        queue.addAll(deferred);
+        deferred.clear();
+        slotCost[(int) (currentTick % WHEEL_SIZE)] = 0;
+
+        lastTickMillis = (System.nanoTime() - tickStart) / 1_000_000.0;
+        if (lastTickMillis > budget) {
+            budgetExceeded++;
+        }
+    }
+
+    private void run(Job job, long start) {
+        try {
+            job.task.run();
+        } catch (Exception e) {
+            MillenaireReborn.LOGGER.error("Error in village job {}", job, e);
+        }
+        long nanos = System.nanoTime() - start;
+        MillProfiler.record(ProfilerSection.VILLAGE_JOBS, job.owner, job.key, nanos);
+        job.costMillis += (nanos / 1_000_000.0 - job.costMillis) * COST_SMOOTHING;
+        job.maxNanos = Math.max(job.maxNanos, nanos);
+        job.runs++;
+        job.deferrals = 0;
+        jobsRun++;
+
+        // Phase beibehalten, verpasste Perioden überspringen
+        long next = job.dueTick + job.period;
+        if (next <= currentTick) {
+            next += ((currentTick - next) / job.period + 1) * job.period;
+        }
+        job.dueTick = next;
+        if (!job.cancelled) {
+            slotCost[(int) (next % WHEEL_SIZE)] += job.costMillis;
+            queue.add(job);
+        }
+    }
+
+    /**
+     * Budget aus der Konfiguration; liegt der Abstand zwischen zwei Ticks über 50 ms, wird es
+     * halbiert, bei normalem Tempo wieder langsam angehoben
+     */
+    private double computeBudget(long tickStart) {
+        double configured = Math.max(MIN_BUDGET_MILLIS, MillConfig.villageTickBudgetMillis);
+        if (budgetMillis < 0 || budgetMillis > configured) {
+            budgetMillis = configured;
+        }
+        if (lastTickStart != 0) {
+            long interval = tickStart - lastTickStart;
+            if (interval > TICK_NANOS + TICK_NANOS / 10) {
+                budgetMillis = Math.max(MIN_BUDGET_MILLIS, budgetMillis / 2);
+            } else {
+                budgetMillis = Math.min(configured, budgetMillis * 1.1);
+            }
+        }
+        lastTickStart = tickStart;
+        return budgetMillis;
+    }
+
+    /**
+     * Meldet alle Aufgaben eines Dorfes oder Gebäudes ab (z.B. beim Entladen)
+     */
+    public void cancelAll(Object owner) {
+        for (Job job : queue) {
+            if (job.owner == owner) {
+                job.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Entfernt alle Aufgaben (beim Serverstopp)
+     */
+    void clear() {
+        queue.clear();
+        deferred.clear();
+        Arrays.fill(slotCost, 0);
+        currentTick = 0;
+        lastTickStart = 0;
+        budgetMillis = -1;
+    }
+
+    public int getJobCount() {
+        return queue.size();
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung (für Log und Debug-Befehle)
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Village jobs: %d scheduled, %d run, %d deferred, budget %.1f ms (exceeded in %d ticks), last tick %.2f ms",
+            queue.size(), jobsRun, jobsDeferred, budgetMillis, budgetExceeded, lastTickMillis));
+        List<Job> expensive = new ArrayList<>(queue);
+        expensive.sort(Comparator.comparingDouble((Job job) -> job.costMillis).reversed());
+        for (Job job : expensive.subList(0, Math.min(5, expensive.size()))) {
+            lines.add(String.format("  %s: every %d ticks, avg %.2f ms, max %.2f ms, %d runs",
+                job, job.period, job.costMillis, job.maxNanos / 1_000_000.0, job.runs));
+        }
+        return lines;
+    }
+}
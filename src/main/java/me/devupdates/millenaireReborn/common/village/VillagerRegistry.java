@@ -0,0 +1,229 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.devupdates.millenaireReborn.MillenaireReborn;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Geladene Dorfbewohner der Welt (Ersatz für MillWorldData.rebuildVillagerList)
+ *
+ * Statt in jedem Tick alle geladenen Entities zu durchsuchen, wird das Register über die
+ * Lade- und Entlade-Events der Entities geführt. Die Mengen pro Dorf werden direkt angepasst,
+ * Duplikate (gleiche Villager-ID zweimal geladen) und Waisen (Dorf unbekannt) werden beim Laden
+ * erkannt.
+ *
+ * Nur vom Server-Thread verwenden.
+ */
+public final class VillagerRegistry {
+    private static VillagerRegistry instance;
+
+    /**
+     * Wird über Änderungen an den Bewohnern eines Dorfes benachrichtigt (z.B. vom Rathaus)
+     */
+    public interface Listener {
+        void onVillagerAdded(String villageKey, Entity villager);
+
+        void onVillagerRemoved(String villageKey, Entity villager);
+    }
+
+    private final Long2ObjectMap<Entity> byId = new Long2ObjectOpenHashMap<>();
+    private final Map<String, Set<Entity>> byVillage = new HashMap<>();
+    // Bewohner, deren Dorf (noch) nicht bekannt ist
+    private final Map<String, Set<Entity>> orphans = new HashMap<>();
+    private final Map<String, Listener> listeners = new HashMap<>();
+
+    private long duplicatesRemoved = 0;
+
+    private VillagerRegistry() {
+    }
+
+    public static VillagerRegistry getInstance() {
+        if (instance == null) {
+            instance = new VillagerRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Registriert die Entity- und Lifecycle-Hooks
+     */
+    static void init() {
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof VillageResident) {
+                getInstance().onLoad(entity);
+            }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof VillageResident) {
+                getInstance().onUnload(entity);
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> getInstance().clear());
+    }
+
+    private void onLoad(Entity entity) {
+        VillageResident resident = (VillageResident) entity;
+        long id = resident.getVillagerId();
+        Entity existing = byId.get(id);
+        if (existing != null && existing != entity) {
+            if (!existing.isRemoved()) {
+                // Wie im alten Mod: das später geladene Duplikat verschwindet
+                MillenaireReborn.LOGGER.warn("Removing duplicate villager {} in village {}", id, resident.getVillageKey());
+                duplicatesRemoved++;
+                entity.discard();
+                return;
+            }
+            remove(existing);
+        }
+        byId.put(id, entity);
+
+        String villageKey = resident.getVillageKey();
+        if (villageKey == null || VillageRegistry.getInstance().getStub(villageKey) == null) {
+            orphans.computeIfAbsent(villageKey == null ? "" : villageKey, k -> new LinkedHashSet<>()).add(entity);
+            return;
+        }
+        addToVillage(villageKey, entity);
+    }
+
+    private void onUnload(Entity entity) {
+        VillageResident resident = (VillageResident) entity;
+        // Nur entfernen, wenn es nicht schon durch eine neuere Instanz ersetzt wurde
+        if (byId.get(resident.getVillagerId()) == entity) {
+            remove(entity);
+        }
+    }
+
+    private void remove(Entity entity) {
+        VillageResident resident = (VillageResident) entity;
+        byId.remove(resident.getVillagerId());
+        String villageKey = resident.getVillageKey();
+        String orphanKey = villageKey == null ? "" : villageKey;
+        Set<Entity> orphaned = orphans.get(orphanKey);
+        if (orphaned != null && orphaned.remove(entity)) {
+            if (orphaned.isEmpty()) {
+                orphans.remove(orphanKey);
+            }
+            return;
+        }
+        Set<Entity> villagers = byVillage.get(villageKey);
+        if (villagers != null && villagers.remove(entity)) {
+            if (villagers.isEmpty()) {
+                byVillage.remove(villageKey);
+            }
+            Listener listener = listeners.get(villageKey);
+            if (listener != null) {
+                listener.onVillagerRemoved(villageKey, entity);
+            }
+        }
+    }
+
+    private void addToVillage(String villageKey, Entity entity) {
+        byVillage.computeIfAbsent(villageKey, k -> new LinkedHashSet<>()).add(entity);
+        Listener listener = listeners.get(villageKey);
+        if (listener != null) {
+            listener.onVillagerAdded(villageKey, entity);
+        }
+    }
+
+    /**
+     * Ordnet die Waisen eines Dorfes zu, sobald es bekannt ist
+     */
+    public void resolveOrphans(String villageKey) {
+        Set<Entity> orphaned = orphans.remove(villageKey);
+        if (orphaned == null) {
+            return;
+        }
+        for (Entity entity : orphaned) {
+            addToVillage(villageKey, entity);
+        }
+    }
+
+    /**
+     * Ein Bewohner hat das Dorf gewechselt (Umzug) - vor dem Ändern von getVillageKey() aufrufen
+     */
+    public void onVillageChanging(Entity entity) {
+        if (entity instanceof VillageResident resident && byId.get(resident.getVillagerId()) == entity) {
+            remove(entity);
+        }
+    }
+
+    /**
+     * Nach dem Ändern von getVillageKey() aufrufen
+     */
+    public void onVillageChanged(Entity entity) {
+        if (entity instanceof VillageResident && !entity.isRemoved()) {
+            onLoad(entity);
+        }
+    }
+
+    /**
+     * Meldet einen Listener für ein Dorf an und liefert dabei die schon geladenen Bewohner
+     */
+    public void setListener(String villageKey, Listener listener) {
+        if (listener == null) {
+            listeners.remove(villageKey);
+            return;
+        }
+        listeners.put(villageKey, listener);
+        for (Entity entity : getVillagers(villageKey)) {
+            listener.onVillagerAdded(villageKey, entity);
+        }
+    }
+
+    public Entity getVillager(long villagerId) {
+        return byId.get(villagerId);
+    }
+
+    /**
+     * Geladene Bewohner eines Dorfes (Live-Ansicht, nicht verändern)
+     */
+    public Set<Entity> getVillagers(String villageKey) {
+        Set<Entity> villagers = byVillage.get(villageKey);
+        return villagers == null ? Set.of() : Collections.unmodifiableSet(villagers);
+    }
+
+    /**
+     * Alle geladenen Bewohner (Live-Ansicht, nicht verändern)
+     */
+    public Collection<Entity> getAllVillagers() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public int getVillagerCount() {
+        return byId.size();
+    }
+
+    /**
+     * Menschenlesbare Zusammenfassung (für Log und Debug-Befehle)
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        int orphanCount = 0;
+        for (Set<Entity> orphaned : orphans.values()) {
+            orphanCount += orphaned.size();
+        }
+        lines.add(String.format("Villagers: %d loaded in %d villages, %d orphans, %d duplicates removed",
+            byId.size(), byVillage.size(), orphanCount, duplicatesRemoved));
+        return lines;
+    }
+
+    private void clear() {
+        byId.clear();
+        byVillage.clear();
+        orphans.clear();
+        listeners.clear();
+        duplicatesRemoved = 0;
+    }
+}
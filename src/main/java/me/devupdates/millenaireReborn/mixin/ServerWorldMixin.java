@@ -0,0 +1,22 @@
+package me.devupdates.millenaireReborn.mixin;
+
+import me.devupdates.millenaireReborn.common.pathing.PathingSnapshotCache;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Meldet Blockänderungen an die Millénaire-Caches weiter
+ */
+@Mixin(ServerWorld.class)
+public abstract class ServerWorldMixin {
+
+    @Inject(method = "onBlockChanged", at = @At("HEAD"))
+    private void millenaire$onBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        PathingSnapshotCache.onBlockChanged((ServerWorld) (Object) this, pos);
+    }
+}
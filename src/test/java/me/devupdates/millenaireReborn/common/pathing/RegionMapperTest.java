@@ -0,0 +1,285 @@
+package me.devupdates.millenaireReborn.common.pathing;
+
+import me.devupdates.millenaireReborn.common.util.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vergleicht RegionMapper.repair() mit einem kompletten Neuaufbau
+ *
+ * Auf künstlichen Rastern wird eine BuildingLocation (Mauern mit Tür, erhöhter Boden)
+ * hinzugefügt und wieder entfernt. Nach jedem Schritt müssen Verbindungen, Knoten,
+ * Sichtlinien und die Aufteilung in Regionen mit createConnectionsTable() übereinstimmen.
+ * Die Nummern der Regionen dürfen sich unterscheiden, nur die Aufteilung wird verglichen.
+ */
+class RegionMapperTest {
+    private static final int MAP_START_X = 1000;
+    private static final int MAP_START_Z = -2000;
+    private static final int LENGTH = 64;
+    private static final int WIDTH = 64;
+
+    @Test
+    void repairMatchesRebuildOnFlatGround() {
+        // Ebener Boden mit Säulen rundherum: deren Knoten sehen sich quer über die Baufläche
+        Grid grid = new Grid();
+        for (int i = 8; i < 56; i += 12) {
+            grid.spaceAbove[10 * WIDTH + i] = 0;
+            grid.spaceAbove[45 * WIDTH + i] = 0;
+            grid.spaceAbove[i * WIDTH + 12] = 0;
+            grid.spaceAbove[i * WIDTH + 50] = 0;
+        }
+        RegionMapper mapper = rebuild(grid, new Point(MAP_START_X + 1, 64, MAP_START_Z + 1));
+        assertTrue(crossesArea(mapper, 20, 24, 31, 35), "no link crosses the building");
+        checkAddAndRemove(grid, 20, 24, 31, 35);
+    }
+
+    @Test
+    void repairMatchesRebuildOnRandomTerrain() {
+        Random random = new Random(4);
+        for (int round = 0; round < 20; round++) {
+            Grid grid = Grid.random(random);
+            int x0 = 2 + random.nextInt(LENGTH - 20);
+            int z0 = 2 + random.nextInt(WIDTH - 20);
+            checkAddAndRemove(grid, x0, z0, x0 + 5 + random.nextInt(12), z0 + 5 + random.nextInt(12));
+        }
+    }
+
+    @Test
+    void repairMatchesRebuildForBuildingAtMapEdge() {
+        Grid grid = new Grid();
+        checkAddAndRemove(grid, 0, 50, 9, WIDTH - 1);
+    }
+
+    /**
+     * Fügt ein Gebäude im Rechteck (Kartenkoordinaten, inklusive) hinzu und entfernt es wieder
+     */
+    private static void checkAddAndRemove(Grid grid, int x0, int z0, int x1, int z1) {
+        Point thStanding = new Point(MAP_START_X + 1, 64, MAP_START_Z + 1);
+        RegionMapper mapper = new RegionMapper();
+        mapper.createConnectionsTable(grid.copy(), thStanding, null);
+
+        Grid before = grid.copy();
+        grid.addBuilding(x0, z0, x1, z1);
+        mapper = mapper.repair(grid.copy(), MAP_START_X + x0, MAP_START_Z + z0, MAP_START_X + x1, MAP_START_Z + z1,
+            thStanding, null);
+        compare(rebuild(grid, thStanding), mapper, "add " + x0 + "/" + z0);
+
+        grid.restore(before, x0, z0, x1, z1);
+        mapper = mapper.repair(grid.copy(), MAP_START_X + x0, MAP_START_Z + z0, MAP_START_X + x1, MAP_START_Z + z1,
+            thStanding, null);
+        compare(rebuild(grid, thStanding), mapper, "remove " + x0 + "/" + z0);
+    }
+
+    private static RegionMapper rebuild(Grid grid, Point thStanding) {
+        RegionMapper mapper = new RegionMapper();
+        mapper.createConnectionsTable(grid.copy(), thStanding, null);
+        return mapper;
+    }
+
+    private static void compare(RegionMapper expected, RegionMapper actual, String step) {
+        assertArrayEquals(expected.connections, actual.connections, "connections, " + step);
+        assertArrayEquals(expected.topGround, actual.topGround, "topGround, " + step);
+        assertEquals(nodePositions(expected), nodePositions(actual), "nodes, " + step);
+        assertEquals(links(expected), links(actual), "links, " + step);
+
+        // Gleiche Aufteilung: die Regionen müssen sich eins zu eins zuordnen lassen
+        Map<Short, Short> forward = new HashMap<>();
+        Map<Short, Short> backward = new HashMap<>();
+        for (int i = 0; i < expected.regions.length; i++) {
+            short e = expected.regions[i];
+            short a = actual.regions[i];
+            String where = "cell " + i / WIDTH + "/" + i % WIDTH + ", " + step;
+            assertEquals(e < 0, a < 0, "region, " + where);
+            if (e >= 0) {
+                assertEquals(e, (short) forward.computeIfAbsent(e, k -> a), "region, " + where);
+                assertEquals(a, (short) backward.computeIfAbsent(a, k -> e), "region, " + where);
+            }
+        }
+        assertEquals(expected.thRegion < 0, actual.thRegion < 0, "thRegion, " + step);
+        if (expected.thRegion >= 0) {
+            assertEquals(expected.thRegion, (short) backward.getOrDefault(actual.thRegion, (short) -2), "thRegion, " + step);
+        }
+    }
+
+    /**
+     * Gibt es eine Sichtlinie, die das Rechteck ganz überquert (beide Knoten außerhalb)?
+     */
+    private static boolean crossesArea(RegionMapper mapper, int x0, int z0, int x1, int z1) {
+        for (RegionMapper.Node n : mapper.nodes) {
+            for (RegionMapper.Node neighbour : n.neighbours) {
+                boolean across = n.x < x0 && neighbour.x > x1 || n.z < z0 && neighbour.z > z1;
+                if (across && Math.min(n.z, neighbour.z) <= z1 && Math.max(n.z, neighbour.z) >= z0
+                    && Math.min(n.x, neighbour.x) <= x1 && Math.max(n.x, neighbour.x) >= x0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Set<Long> nodePositions(RegionMapper mapper) {
+        Set<Long> positions = new HashSet<>();
+        for (RegionMapper.Node n : mapper.nodes) {
+            positions.add(pack(n));
+        }
+        return positions;
+    }
+
+    private static Set<String> links(RegionMapper mapper) {
+        Set<String> links = new HashSet<>();
+        for (RegionMapper.Node n : mapper.nodes) {
+            for (RegionMapper.Node neighbour : n.neighbours) {
+                long a = pack(n);
+                long b = pack(neighbour);
+                links.add(Math.min(a, b) + "-" + Math.max(a, b));
+            }
+        }
+        return links;
+    }
+
+    private static long pack(RegionMapper.Node n) {
+        return (long) n.x << 32 | n.z & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Einfaches Raster zum Verändern, repair() bekommt jeweils eine Kopie
+     */
+    private static final class Grid implements TerrainGrid {
+        final int[] topGround = new int[LENGTH * WIDTH];
+        final int[] spaceAbove = new int[LENGTH * WIDTH];
+        final boolean[] danger = new boolean[LENGTH * WIDTH];
+        final boolean[] water = new boolean[LENGTH * WIDTH];
+
+        Grid() {
+            Arrays.fill(topGround, 64);
+            Arrays.fill(spaceAbove, 3);
+        }
+
+        /**
+         * Stufiges Gelände mit Bäumen, einem Teich und Gefahrenstellen
+         */
+        static Grid random(Random random) {
+            Grid grid = new Grid();
+            int[] rowHeight = new int[LENGTH];
+            int height = 64;
+            for (int x = 0; x < LENGTH; x++) {
+                if (random.nextInt(6) == 0) {
+                    height += random.nextInt(3) - 1;
+                }
+                rowHeight[x] = height;
+            }
+            for (int x = 0; x < LENGTH; x++) {
+                for (int z = 0; z < WIDTH; z++) {
+                    int index = x * WIDTH + z;
+                    grid.topGround[index] = rowHeight[x] + (z > WIDTH / 2 && random.nextInt(10) == 0 ? 1 : 0);
+                    if (random.nextInt(25) == 0) {
+                        grid.spaceAbove[index] = 0;
+                    } else if (random.nextInt(40) == 0) {
+                        grid.spaceAbove[index] = 2;
+                    }
+                    if (random.nextInt(200) == 0) {
+                        grid.danger[index] = true;
+                    }
+                }
+            }
+            int pondX = random.nextInt(LENGTH - 8);
+            int pondZ = random.nextInt(WIDTH - 8);
+            for (int x = pondX; x < pondX + 6; x++) {
+                for (int z = pondZ; z < pondZ + 5; z++) {
+                    grid.water[x * WIDTH + z] = true;
+                }
+            }
+            return grid;
+        }
+
+        /**
+         * Mauern ohne Platz darüber, innen ein Boden einen Block höher, eine Tür in der Mitte der
+         * ersten Längsseite
+         */
+        void addBuilding(int x0, int z0, int x1, int z1) {
+            int floor = topGround[x0 * WIDTH + z0] + 1;
+            for (int x = x0; x <= x1; x++) {
+                for (int z = z0; z <= z1; z++) {
+                    int index = x * WIDTH + z;
+                    boolean wall = x == x0 || x == x1 || z == z0 || z == z1;
+                    boolean door = x == x0 && z == (z0 + z1) / 2;
+                    topGround[index] = wall && !door ? floor + 3 : floor;
+                    spaceAbove[index] = wall && !door ? 0 : 3;
+                    danger[index] = false;
+                    water[index] = false;
+                }
+            }
+        }
+
+        void restore(Grid original, int x0, int z0, int x1, int z1) {
+            for (int x = x0; x <= x1; x++) {
+                for (int z = z0; z <= z1; z++) {
+                    int index = x * WIDTH + z;
+                    topGround[index] = original.topGround[index];
+                    spaceAbove[index] = original.spaceAbove[index];
+                    danger[index] = original.danger[index];
+                    water[index] = original.water[index];
+                }
+            }
+        }
+
+        Grid copy() {
+            Grid copy = new Grid();
+            System.arraycopy(topGround, 0, copy.topGround, 0, topGround.length);
+            System.arraycopy(spaceAbove, 0, copy.spaceAbove, 0, spaceAbove.length);
+            System.arraycopy(danger, 0, copy.danger, 0, danger.length);
+            System.arraycopy(water, 0, copy.water, 0, water.length);
+            return copy;
+        }
+
+        @Override
+        public int getMapStartX() {
+            return MAP_START_X;
+        }
+
+        @Override
+        public int getMapStartZ() {
+            return MAP_START_Z;
+        }
+
+        @Override
+        public int getLength() {
+            return LENGTH;
+        }
+
+        @Override
+        public int getWidth() {
+            return WIDTH;
+        }
+
+        @Override
+        public int getTopGround(int x, int z) {
+            return topGround[x * WIDTH + z];
+        }
+
+        @Override
+        public int getSpaceAbove(int x, int z) {
+            return spaceAbove[x * WIDTH + z];
+        }
+
+        @Override
+        public boolean isDanger(int x, int z) {
+            return danger[x * WIDTH + z];
+        }
+
+        @Override
+        public boolean isWater(int x, int z) {
+            return water[x * WIDTH + z];
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package me.devupdates.millenaireReborn.common.village;
+
+import me.devupdates.millenaireReborn.common.util.BlockClassification;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vergleicht den ChunkTerrainScanner mit der Spalten-Schleife aus dem alten VillageMapInfo.updateChunk
+ *
+ * Die alte Schleife liest jede Spalte von maxy abwärts Block für Block, der Scanner beginnt an der
+ * Heightmap. Beide arbeiten hier auf denselben BlockClassification-Flags, so dass nur die
+ * Auswertung verglichen wird (das Füllen aus Sektionen und Palette braucht echte Chunks).
+ */
+class ChunkTerrainScannerTest {
+    private static final int AIR = BlockClassification.PASSABLE;
+
+    // Typische Blöcke einer Oberfläche
+    private static final int[] BLOCKS = {
+        AIR,
+        BlockClassification.GROUND | BlockClassification.SOLID,
+        BlockClassification.SOLID,
+        BlockClassification.LOG | BlockClassification.SOLID,
+        BlockClassification.LEAF | BlockClassification.SOLID,
+        BlockClassification.LIQUID | BlockClassification.WATER,
+        BlockClassification.LIQUID | BlockClassification.DANGER,
+        BlockClassification.FENCE | BlockClassification.SOLID,
+        BlockClassification.PATH | BlockClassification.GROUND | BlockClassification.SOLID,
+        BlockClassification.FORBIDDEN | BlockClassification.SOLID,
+        BlockClassification.DANGER | BlockClassification.PASSABLE
+    };
+
+    @Test
+    void matchesLegacyWalkerAroundSeaLevel() {
+        compare(64, -64, new Random(1));
+    }
+
+    @Test
+    void matchesLegacyWalkerAtWorldBottom() {
+        compare(-58, -64, new Random(2));
+    }
+
+    @Test
+    void matchesLegacyWalkerAtWorldTop() {
+        compare(300, -64, new Random(3));
+    }
+
+    private static void compare(int yBaseline, int bottomY, Random random) {
+        int worldMinY = bottomY + 1;
+        int miny = Math.max(yBaseline - ChunkTerrainScanner.SCAN_RANGE, worldMinY);
+        int maxy = Math.min(yBaseline + ChunkTerrainScanner.SCAN_RANGE, 318);
+        int low = miny - 2;
+        int height = maxy - miny + 4;
+
+        ChunkTerrainScanner scanner = new ChunkTerrainScanner();
+        for (int round = 0; round < 50; round++) {
+            int[] flags = new int[256 * height];
+            int[] surfaces = new int[256];
+            for (int column = 0; column < 256; column++) {
+                surfaces[column] = fillColumn(flags, column * height, height, low, random);
+            }
+
+            ChunkTerrainScanner.Result result = new ChunkTerrainScanner.Result();
+            scanner.scanFlags(flags, surfaces, miny, maxy, worldMinY, result);
+
+            for (int column = 0; column < 256; column++) {
+                int[] expected = legacyColumn(flags, column * height, low, miny, maxy, worldMinY);
+                String where = "round " + round + ", column " + column;
+                assertEquals(expected[0], result.topGround[column], "topGround, " + where);
+                assertEquals(expected[1], result.spaceAbove[column], "spaceAbove, " + where);
+                assertEquals(expected[2], result.flags[column], "flags, " + where);
+            }
+        }
+    }
+
+    /**
+     * Zufällige Spalte: Schichten aus typischen Blöcken, darüber nur Luft
+     *
+     * @return WORLD_SURFACE-Heightmap der Spalte (über dem höchsten Nicht-Luft-Block)
+     */
+    private static int fillColumn(int[] flags, int base, int height, int low, Random random) {
+        int top = random.nextInt(height + 4) - 2;
+        int y = 0;
+        while (y < height) {
+            int block = y < top ? BLOCKS[random.nextInt(BLOCKS.length)] : AIR;
+            int layer = 1 + random.nextInt(4);
+            for (int i = 0; i < layer && y < height; i++, y++) {
+                flags[base + y] = y < top ? block : AIR;
+            }
+        }
+        int surface = low - 1;
+        for (y = height - 1; y >= 0; y--) {
+            if (flags[base + y] != AIR) {
+                surface = low + y;
+                break;
+            }
+        }
+        return surface + 1;
+    }
+
+    /**
+     * Die alte Spalten-Schleife, Block für Block ab maxy
+     *
+     * @return topGround, spaceAbove und die Spalten-Flags
+     */
+    private static int[] legacyColumn(int[] flags, int base, int low, int miny, int maxy, int worldMinY) {
+        boolean forbidden = false;
+        int y = maxy;
+        while (y >= miny && !is(flags, base, low, y, BlockClassification.GROUND)) {
+            if (is(flags, base, low, y, BlockClassification.FORBIDDEN)) {
+                forbidden = true;
+            }
+            y--;
+        }
+
+        boolean hasBlock = y <= maxy && y > worldMinY;
+        boolean onGround = true;
+        int lastLiquid = -1;
+        while (hasBlock && (is(flags, base, low, y, BlockClassification.SOLID)
+            || is(flags, base, low, y, BlockClassification.LIQUID) || !onGround)) {
+            if (is(flags, base, low, y, BlockClassification.FORBIDDEN)) {
+                forbidden = true;
+            }
+            if (is(flags, base, low, y, BlockClassification.LIQUID)) {
+                onGround = false;
+                lastLiquid = y;
+            } else if (is(flags, base, low, y, BlockClassification.SOLID)) {
+                onGround = true;
+            }
+            y++;
+            hasBlock = y <= maxy && y > worldMinY;
+        }
+        if (!onGround) {
+            y = lastLiquid;
+        }
+        while (y <= maxy && y > worldMinY && (is(flags, base, low, y, BlockClassification.SOLID)
+            || is(flags, base, low, y + 1, BlockClassification.SOLID))) {
+            y++;
+        }
+        y = Math.max(worldMinY, y);
+
+        int topGround = y;
+        int columnFlags = 0;
+        if (is(flags, base, low, y, BlockClassification.WATER)) {
+            columnFlags |= ChunkTerrainScanner.WATER;
+        }
+        if (is(flags, base, low, y - 1, BlockClassification.LOG)) {
+            columnFlags |= ChunkTerrainScanner.TREE;
+        }
+        if (is(flags, base, low, y - 1, BlockClassification.PATH)) {
+            columnFlags |= ChunkTerrainScanner.PATH;
+        }
+        int spaceAbove = 0;
+        boolean blocked = false;
+        if (!is(flags, base, low, y - 1, BlockClassification.FENCE) && !is(flags, base, low, y, BlockClassification.SOLID)
+            && !is(flags, base, low, y - 1, BlockClassification.WATER)) {
+            spaceAbove = 1;
+        } else {
+            blocked = true;
+        }
+        boolean danger = is(flags, base, low, y, BlockClassification.DANGER);
+        if (is(flags, base, low, y, BlockClassification.FORBIDDEN)) {
+            forbidden = true;
+        }
+        y++;
+        while (y < maxy && y > worldMinY - 1) {
+            if (!blocked && spaceAbove < 3 && !is(flags, base, low, y, BlockClassification.SOLID)) {
+                spaceAbove++;
+            } else {
+                blocked = true;
+            }
+            if (is(flags, base, low, y, BlockClassification.FORBIDDEN)) {
+                forbidden = true;
+            }
+            y++;
+        }
+        if (danger) {
+            columnFlags |= ChunkTerrainScanner.DANGER;
+            spaceAbove = 0;
+        }
+        if (forbidden) {
+            columnFlags |= ChunkTerrainScanner.FORBIDDEN;
+        }
+        return new int[]{topGround, spaceAbove, columnFlags};
+    }
+
+    private static boolean is(int[] flags, int base, int low, int y, int flag) {
+        return (flags[base + y - low] & flag) != 0;
+    }
+}